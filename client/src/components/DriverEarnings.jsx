@@ -15,9 +15,14 @@ const DriverEarnings = ({ driverId }) => {
   useEffect(() => {
     fetchEarnings()
     fetchRecentPayments()
-    // Set up polling for real-time updates when rides are completed
-    const interval = setInterval(fetchEarnings, 30000) // Check every 30 seconds
-    return () => clearInterval(interval)
+    // Refresh when the server pushes a payment update (e.g. settlement on ride completion)
+    const unsubscribe = apiService.subscribeToStatusEvents((event) => {
+      if (event.type === 'PAYMENT') {
+        fetchEarnings()
+        fetchRecentPayments()
+      }
+    })
+    return unsubscribe
   }, [driverId])
 
   const fetchEarnings = async () => {
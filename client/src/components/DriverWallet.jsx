@@ -15,9 +15,13 @@ const DriverWallet = ({ driverId }) => {
 
     useEffect(() => {
         fetchEarningsData();
-        // Set up polling for real-time updates
-        const interval = setInterval(fetchEarningsData, 30000); // Poll every 30 seconds
-        return () => clearInterval(interval);
+        // Refresh when the server pushes a payment update instead of polling
+        const unsubscribe = apiService.subscribeToStatusEvents((event) => {
+            if (event.type === 'PAYMENT') {
+                fetchEarningsData();
+            }
+        });
+        return unsubscribe;
     }, [driverId]);
 
     const fetchEarningsData = async () => {
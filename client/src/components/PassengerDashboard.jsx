@@ -283,6 +283,14 @@ const PassengerDashboard = ({ user }) => {
     initializeDashboard()
   }, [])
 
+  // Live booking/payment status updates pushed by the server
+  useEffect(() => {
+    const unsubscribe = apiService.subscribeToStatusEvents(() => {
+      fetchBookings(false)
+    })
+    return unsubscribe
+  }, [])
+
   // Update coordinates when locations change
   useEffect(() => {
     if (searchFilters.from) {
@@ -1,10 +1,16 @@
 // API Configuration
 const API_BASE_URL = 'http://localhost:8080/api'
+const STATUS_STREAM_RETRY_MS = 3000
 
 // API Service Class
 class ApiService {
   constructor() {
     this.token = localStorage.getItem('token')
+    // Shared status event stream (see subscribeToStatusEvents)
+    this.statusListeners = new Set()
+    this.statusSource = null
+    this.statusOpening = false
+    this.statusReconnectTimer = null
   }
 
   // Set authentication token
@@ -354,6 +360,14 @@ class ApiService {
     })
   }
 
+  // Calculate fares for many routes in one round trip; routes: [{ source, destination }]
+  async calculateFares(routes) {
+    return this.apiCall('/rides/calculate-fare/batch', {
+      method: 'POST',
+      body: JSON.stringify({ routes })
+    })
+  }
+
   // Booking endpoints
   async createBooking(rideId, seatsToBook) {
     console.log('Creating booking for ride:', rideId, 'seats:', seatsToBook)
@@ -635,6 +649,89 @@ class ApiService {
   async getUserById(userId) {
     return this.apiCall(`/users/${userId}`)
   }
+
+  // STATUS EVENT STREAM (Server-Sent Events)
+  // Subscribe to booking/payment status updates; returns an unsubscribe function.
+  // All subscribers share one EventSource, opened with a short-lived ticket because EventSource
+  // cannot send the Authorization header. A ticket is only checked when the stream opens, so after
+  // an error the stream is reopened with a fresh ticket instead of letting EventSource retry it.
+  subscribeToStatusEvents(onEvent) {
+    if (!localStorage.getItem('token') || typeof EventSource === 'undefined') {
+      return () => {}
+    }
+
+    this.statusListeners.add(onEvent)
+    this.openStatusStream()
+
+    return () => {
+      this.statusListeners.delete(onEvent)
+      if (this.statusListeners.size === 0) {
+        this.closeStatusStream()
+      }
+    }
+  }
+
+  async openStatusStream() {
+    if (this.statusSource || this.statusOpening) {
+      return
+    }
+    this.statusOpening = true
+    let ticket
+    try {
+      const response = await this.apiCall('/events/ticket', { method: 'POST' })
+      ticket = response.data.ticket
+    } catch (error) {
+      console.error('Could not get a status stream ticket:', error)
+      this.scheduleStatusReconnect()
+      return
+    } finally {
+      this.statusOpening = false
+    }
+    if (this.statusListeners.size === 0) {
+      return
+    }
+
+    const source = new EventSource(`${API_BASE_URL}/events/stream?ticket=${encodeURIComponent(ticket)}`)
+    const handler = (event) => {
+      let payload
+      try {
+        payload = JSON.parse(event.data)
+      } catch (error) {
+        console.error('Invalid status event:', error)
+        return
+      }
+      this.statusListeners.forEach((listener) => listener(payload))
+    }
+    source.addEventListener('BOOKING', handler)
+    source.addEventListener('PAYMENT', handler)
+    source.onerror = () => {
+      source.close()
+      if (this.statusSource === source) {
+        this.statusSource = null
+        this.scheduleStatusReconnect()
+      }
+    }
+    this.statusSource = source
+  }
+
+  scheduleStatusReconnect() {
+    if (this.statusReconnectTimer || this.statusListeners.size === 0) {
+      return
+    }
+    this.statusReconnectTimer = setTimeout(() => {
+      this.statusReconnectTimer = null
+      this.openStatusStream()
+    }, STATUS_STREAM_RETRY_MS)
+  }
+
+  closeStatusStream() {
+    clearTimeout(this.statusReconnectTimer)
+    this.statusReconnectTimer = null
+    if (this.statusSource) {
+      this.statusSource.close()
+      this.statusSource = null
+    }
+  }
 }
 
 // Create and export a singleton instance
@@ -1,6 +1,10 @@
 package com.ridesharing.config;
 
+import com.ridesharing.util.Money;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.stereotype.Component;
 
@@ -40,4 +44,57 @@ public class FareConfig {
      * Minimum fare limit (cannot be less than base fare)
      */
     private BigDecimal minFare = new BigDecimal("50.00");
-}
\ No newline at end of file
+
+    // Paise values for the fare hot path, kept in sync by the setters below
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Money baseMoney = Money.of(base);
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Money ratePerKmMoney = Money.of(ratePerKm);
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Money maxFareMoney = Money.of(maxFare);
+
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private Money minFareMoney = Money.of(minFare);
+
+    public void setBase(BigDecimal base) {
+        this.base = base;
+        this.baseMoney = Money.of(base);
+    }
+
+    public void setRatePerKm(BigDecimal ratePerKm) {
+        this.ratePerKm = ratePerKm;
+        this.ratePerKmMoney = Money.of(ratePerKm);
+    }
+
+    public void setMaxFare(BigDecimal maxFare) {
+        this.maxFare = maxFare;
+        this.maxFareMoney = Money.of(maxFare);
+    }
+
+    public void setMinFare(BigDecimal minFare) {
+        this.minFare = minFare;
+        this.minFareMoney = Money.of(minFare);
+    }
+
+    public Money baseFare() {
+        return baseMoney;
+    }
+
+    public Money ratePerKmFare() {
+        return ratePerKmMoney;
+    }
+
+    public Money maxFareLimit() {
+        return maxFareMoney;
+    }
+
+    public Money minFareLimit() {
+        return minFareMoney;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ridesharing.config;
+
+import com.ridesharing.outbound.PooledJavaMailSender;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.mail.MailProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Properties;
+
+/**
+ * Pooled SMTP sender in place of Boot's per-send JavaMailSenderImpl
+ * Reads the usual spring.mail.* settings; set app.mail.pool.enabled=false to fall back to the default sender
+ */
+@Configuration
+@EnableConfigurationProperties(MailProperties.class)
+@ConditionalOnProperty(value = "app.mail.pool.enabled", havingValue = "true", matchIfMissing = true)
+public class MailConfig {
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.mail", name = "host")
+    public PooledJavaMailSender mailSender(MailProperties properties,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${app.mail.pool.max-sessions:8}") int maxSessions,
+                                           @Value("${app.mail.pool.max-messages-per-session:100}") int maxMessagesPerSession,
+                                           @Value("${app.mail.pool.idle-timeout-ms:60000}") long idleTimeoutMs,
+                                           @Value("${app.mail.pool.borrow-timeout-ms:10000}") long borrowTimeoutMs) {
+        PooledJavaMailSender sender = new PooledJavaMailSender(
+                maxSessions, maxMessagesPerSession, idleTimeoutMs, borrowTimeoutMs, meterRegistry);
+        sender.setHost(properties.getHost());
+        if (properties.getPort() != null) {
+            sender.setPort(properties.getPort());
+        }
+        sender.setUsername(properties.getUsername());
+        sender.setPassword(properties.getPassword());
+        sender.setProtocol(properties.getProtocol());
+        if (properties.getDefaultEncoding() != null) {
+            sender.setDefaultEncoding(properties.getDefaultEncoding().name());
+        }
+
+        Properties javaMailProperties = new Properties();
+        // A session stuck on a dead connection is recycled instead of blocking its pool slot
+        javaMailProperties.setProperty("mail.smtp.connectiontimeout", "10000");
+        javaMailProperties.setProperty("mail.smtp.timeout", "15000");
+        javaMailProperties.setProperty("mail.smtp.writetimeout", "15000");
+        javaMailProperties.putAll(properties.getProperties());
+        sender.setJavaMailProperties(javaMailProperties);
+        return sender;
+    }
+}
@@ -0,0 +1,53 @@
+package com.ridesharing.config;
+
+import com.ridesharing.entity.NotificationChannel;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-channel limits for reminder delivery (app.notifications.<channel>.*)
+ */
+@Component
+@ConfigurationProperties(prefix = "app.notifications")
+@Data
+public class NotificationConfig {
+
+    // Keep concurrency at or below the matching app.outbound.<provider>.max-concurrent
+    private ChannelLimits email = new ChannelLimits(8, 0.0, 100);
+
+    private ChannelLimits sms = new ChannelLimits(4, 10.0, 50);
+
+    private ChannelLimits push = new ChannelLimits(16, 0.0, 200);
+
+    public ChannelLimits limitsFor(NotificationChannel channel) {
+        return switch (channel) {
+            case EMAIL -> email;
+            case SMS -> sms;
+            case PUSH -> push;
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class ChannelLimits {
+
+        /**
+         * Sends allowed in flight at once on this channel
+         */
+        private int concurrency = 8;
+
+        /**
+         * Sends started per second at most (0 = unlimited)
+         */
+        private double ratePerSecond = 0.0;
+
+        /**
+         * Reminders claimed and recorded per batch
+         */
+        private int batchSize = 100;
+    }
+}
@@ -0,0 +1,76 @@
+package com.ridesharing.config;
+
+import com.ridesharing.outbound.OutboundProvider;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Per-provider limits for outbound calls (app.outbound.<provider>.*)
+ */
+@Component
+@ConfigurationProperties(prefix = "app.outbound")
+@Data
+public class OutboundConfig {
+
+    // Nominatim's usage policy allows about one request per second per client
+    private Limits nominatim = new Limits(2, 200, 5000, 5, 30000, 0, 0.0);
+
+    private Limits smtp = new Limits(8, 2000, 15000, 5, 30000, 0, 0.0);
+
+    private Limits twilio = new Limits(8, 500, 5000, 5, 30000, 0, 0.0);
+
+    private Limits razorpay = new Limits(16, 500, 8000, 5, 30000, 0, 0.0);
+
+    public Limits limitsFor(OutboundProvider provider) {
+        return switch (provider) {
+            case NOMINATIM -> nominatim;
+            case SMTP -> smtp;
+            case TWILIO -> twilio;
+            case RAZORPAY -> razorpay;
+        };
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Limits {
+
+        /**
+         * Calls allowed in flight at once (bulkhead)
+         */
+        private int maxConcurrent = 8;
+
+        /**
+         * How long a caller may wait for a free slot before being rejected
+         */
+        private long maxWaitMs = 500;
+
+        /**
+         * Time after which the caller stops waiting for the provider
+         */
+        private long timeoutMs = 5000;
+
+        /**
+         * Consecutive failures that open the circuit
+         */
+        private int failureThreshold = 5;
+
+        /**
+         * How long the circuit stays open before a single trial call is let through
+         */
+        private long openMs = 30000;
+
+        /**
+         * Fault injection for degraded-mode testing: extra latency added to every call
+         */
+        private long injectLatencyMs = 0;
+
+        /**
+         * Fault injection for degraded-mode testing: fraction of calls that fail (0..1)
+         */
+        private double injectFailureRate = 0.0;
+    }
+}
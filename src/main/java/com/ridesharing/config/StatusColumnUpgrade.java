@@ -0,0 +1,52 @@
+package com.ridesharing.config;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.DependsOn;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Widens status columns created as MySQL ENUMs before their newer values existed
+ *
+ * spring.jpa.hibernate.ddl-auto=update adds missing columns but never changes the type of an
+ * existing one, so on older databases ride_reminders.status still rejects 'DEAD_LETTER' and
+ * driver_payouts.status rejects 'REVERSED'. The entities now map status as VARCHAR(20); this
+ * converts any remaining ENUM column to match once at startup, after Hibernate has updated the
+ * schema and before the reminder and payout schedulers run.
+ */
+@Component
+@DependsOn("entityManagerFactory")
+@Slf4j
+public class StatusColumnUpgrade {
+
+    private static final List<String> TABLES = List.of("ride_reminders", "ride_reminders_archive", "driver_payouts");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public StatusColumnUpgrade(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void widenStatusColumns() {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) connection ->
+                connection.getMetaData().getDatabaseProductName());
+        if (product == null || !(product.contains("MySQL") || product.contains("MariaDB"))) {
+            return;
+        }
+        for (String table : TABLES) {
+            List<String> types = jdbcTemplate.queryForList(
+                    "SELECT DATA_TYPE FROM information_schema.COLUMNS " +
+                    "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = ? AND COLUMN_NAME = 'status'",
+                    String.class, table);
+            if (!types.isEmpty() && "enum".equalsIgnoreCase(types.get(0))) {
+                jdbcTemplate.execute("ALTER TABLE " + table + " MODIFY status VARCHAR(20) NOT NULL");
+                log.info("Converted {}.status from ENUM to VARCHAR(20)", table);
+            }
+        }
+    }
+}
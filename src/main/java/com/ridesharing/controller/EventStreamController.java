@@ -0,0 +1,58 @@
+package com.ridesharing.controller;
+
+import com.ridesharing.dto.ApiResponse;
+import com.ridesharing.security.JwtTokenProvider;
+import com.ridesharing.security.UserPrincipal;
+import com.ridesharing.service.StatusEventBroadcaster;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+
+/**
+ * Event Stream Controller - Server-Sent Events for booking/payment status updates
+ * Replaces client polling after checkout: the stream is authenticated once, updates are pushed
+ */
+@RestController
+@RequestMapping("/api/events")
+@RequiredArgsConstructor
+@CrossOrigin(
+    originPatterns = {"http://localhost:*", "http://127.0.0.1:*", "https://localhost:*"}, 
+    allowCredentials = "true"
+)
+public class EventStreamController {
+
+    private final StatusEventBroadcaster broadcaster;
+    private final JwtTokenProvider tokenProvider;
+
+    /**
+     * Issue a short-lived ticket for opening the stream, so the login token never goes in a URL
+     * POST /api/events/ticket
+     */
+    @PostMapping("/ticket")
+    @PreAuthorize("hasRole('USER') or hasRole('DRIVER')")
+    public ResponseEntity<ApiResponse> ticket(@AuthenticationPrincipal UserPrincipal principal) {
+        String ticket = tokenProvider.generateStreamTicket(principal.getPhoneNumber());
+        return ResponseEntity.ok(new ApiResponse("SUCCESS", "Stream ticket issued",
+                Map.of("ticket", ticket, "expiresInMs", tokenProvider.getStreamTicketExpirationInMs())));
+    }
+
+    /**
+     * Subscribe to status updates for the current user
+     * GET /api/events/stream (EventSource; pass a ticket from /api/events/ticket as ?ticket=)
+     */
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasRole('USER') or hasRole('DRIVER')")
+    public SseEmitter stream(@AuthenticationPrincipal UserPrincipal principal) {
+        return broadcaster.subscribe(principal.getId());
+    }
+}
@@ -37,9 +37,8 @@ public class InfoController {
     @GetMapping("/calculation-methods")
     public ResponseEntity<ApiResponse> getCalculationMethods() {
         String[] methods = {
-            "Method 1: OpenStreetMap Nominatim + Haversine Formula (FREE - No API key)",
-            "Method 2: Coordinate-based calculation for any city worldwide", 
-            "Method 3: Pre-calculated database for major Indian cities (instant lookup)",
+            "Method 1: Offline gazetteer, geocoding cache or OpenStreetMap Nominatim + Haversine Formula (FREE - No API key)",
+            "Method 2: Pre-calculated database for major Indian cities (instant lookup)",
             "Formula: Fare = Base Fare (₹50) + (Distance × Rate per KM (₹10))"
         };
         
@@ -4,15 +4,26 @@ import com.ridesharing.dto.PaymentOrderRequest;
 import com.ridesharing.dto.PaymentOrderResponse;
 import com.ridesharing.dto.PaymentVerificationRequest;
 import com.ridesharing.dto.PaymentHistoryResponse;
+import com.ridesharing.dto.PayoutCycleSummary;
+import com.ridesharing.entity.WalletLedgerEntry;
 import com.ridesharing.exception.PaymentException;
+import com.ridesharing.service.PaymentExportService;
 import com.ridesharing.service.PaymentService;
+import com.ridesharing.service.PayoutService;
+import com.ridesharing.service.RefundService;
+import com.ridesharing.service.WalletService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import jakarta.validation.Valid;
 import java.math.BigDecimal;
@@ -34,6 +45,10 @@ import java.util.Map;
 public class PaymentController {
 
     private final PaymentService paymentService;
+    private final PaymentExportService paymentExportService;
+    private final WalletService walletService;
+    private final PayoutService payoutService;
+    private final RefundService refundService;
 
     /**
      * Create payment order for booking
@@ -208,6 +223,64 @@ public class PaymentController {
         }
     }
 
+    /**
+     * Stream passenger payment history as CSV or NDJSON (the passenger's own history, or any for admins)
+     * GET /api/payments/export/passenger/{passengerId}?format=csv&startDate=2024-01-01T00:00:00&endDate=2024-01-31T23:59:59
+     */
+    @GetMapping("/export/passenger/{passengerId}")
+    @PreAuthorize("hasRole('ADMIN') or (principal instanceof T(com.ridesharing.security.UserPrincipal) " +
+                  "and principal.id == #passengerId)")
+    public ResponseEntity<StreamingResponseBody> exportPassengerPayments(
+            @PathVariable Long passengerId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        PaymentExportService.ExportFormat exportFormat = PaymentExportService.ExportFormat.fromParam(format);
+        return exportResponse("passenger-" + passengerId + "-payments", exportFormat,
+                out -> paymentExportService.exportPassengerPayments(passengerId, startDate, endDate, exportFormat, out));
+    }
+
+    /**
+     * Stream driver earnings history as CSV or NDJSON
+     * GET /api/payments/export/driver/{driverId}?format=ndjson
+     */
+    @GetMapping("/export/driver/{driverId}")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportDriverPayments(
+            @PathVariable Long driverId,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        PaymentExportService.ExportFormat exportFormat = PaymentExportService.ExportFormat.fromParam(format);
+        return exportResponse("driver-" + driverId + "-earnings", exportFormat,
+                out -> paymentExportService.exportDriverPayments(driverId, startDate, endDate, exportFormat, out));
+    }
+
+    /**
+     * Stream all payments within a date range (admin)
+     * GET /api/payments/export?format=csv&startDate=2024-01-01T00:00:00&endDate=2024-01-31T23:59:59
+     */
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportAllPayments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime startDate,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime endDate) {
+        PaymentExportService.ExportFormat exportFormat = PaymentExportService.ExportFormat.fromParam(format);
+        return exportResponse("payments", exportFormat,
+                out -> paymentExportService.exportAllPayments(startDate, endDate, exportFormat, out));
+    }
+
+    private ResponseEntity<StreamingResponseBody> exportResponse(String fileName,
+                                                                 PaymentExportService.ExportFormat format,
+                                                                 StreamingResponseBody body) {
+        return ResponseEntity.ok()
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"" + fileName + "." + format.getExtension() + "\"")
+                .contentType(MediaType.parseMediaType(format.getContentType()))
+                .body(body);
+    }
+
     /**
      * Release payment to driver after ride completion
      * POST /api/payments/release/{bookingId}
@@ -259,6 +332,156 @@ public class PaymentController {
         }
     }
 
+    /**
+     * Get cached wallet balances for driver
+     * GET /api/payments/wallet/{driverId}
+     */
+    @GetMapping("/wallet/{driverId}")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getDriverWallet(@PathVariable Long driverId) {
+        try {
+            return walletService.getWalletSummary(driverId)
+                    .<ResponseEntity<?>>map(wallet -> ResponseEntity.ok(Map.of(
+                            "success", true,
+                            "message", "Wallet retrieved successfully",
+                            "data", wallet
+                    )))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                            "success", false,
+                            "message", "Wallet not found for driver: " + driverId
+                    )));
+        } catch (Exception e) {
+            log.error("Error retrieving driver wallet", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Failed to retrieve wallet"
+            ));
+        }
+    }
+
+    /**
+     * Get wallet ledger lines for driver
+     * GET /api/payments/wallet/{driverId}/ledger?page=0&size=50
+     */
+    @GetMapping("/wallet/{driverId}/ledger")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getDriverWalletLedger(@PathVariable Long driverId,
+                                                   @RequestParam(defaultValue = "0") int page,
+                                                   @RequestParam(defaultValue = "50") int size) {
+        try {
+            Page<WalletLedgerEntry> ledger = walletService.getLedger(driverId, PageRequest.of(page, Math.min(size, 200)));
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Wallet ledger retrieved successfully",
+                    "data", ledger.getContent(),
+                    "totalElements", ledger.getTotalElements(),
+                    "totalPages", ledger.getTotalPages()
+            ));
+        } catch (PaymentException e) {
+            return ResponseEntity.badRequest().body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            log.error("Error retrieving driver wallet ledger", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Failed to retrieve wallet ledger"
+            ));
+        }
+    }
+
+    /**
+     * Get payout history for driver
+     * GET /api/payments/payouts/driver/{driverId}
+     */
+    @GetMapping("/payouts/driver/{driverId}")
+    @PreAuthorize("hasRole('DRIVER') or hasRole('ADMIN')")
+    public ResponseEntity<?> getDriverPayouts(@PathVariable Long driverId) {
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Driver payouts retrieved successfully",
+                    "data", payoutService.getDriverPayouts(driverId)
+            ));
+        } catch (Exception e) {
+            log.error("Error retrieving driver payouts", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Failed to retrieve driver payouts"
+            ));
+        }
+    }
+
+    /**
+     * Run a payout cycle now (admin)
+     * POST /api/payments/payouts/run
+     */
+    @PostMapping("/payouts/run")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> runPayoutCycle() {
+        try {
+            PayoutCycleSummary summary = payoutService.runPayoutCycle();
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Payout cycle completed",
+                    "data", summary
+            ));
+        } catch (PaymentException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of(
+                    "success", false,
+                    "message", e.getMessage()
+            ));
+        } catch (Exception e) {
+            log.error("Error running payout cycle", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Failed to run payout cycle"
+            ));
+        }
+    }
+
+    /**
+     * Get refund status for booking
+     * GET /api/payments/refunds/booking/{bookingId}
+     */
+    @GetMapping("/refunds/booking/{bookingId}")
+    @PreAuthorize("isAuthenticated()")
+    public ResponseEntity<?> getRefundForBooking(@PathVariable Long bookingId) {
+        return refundService.getRefundForBooking(bookingId)
+                .<ResponseEntity<?>>map(refund -> ResponseEntity.ok(Map.of(
+                        "success", true,
+                        "message", "Refund retrieved successfully",
+                        "data", refund
+                )))
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND).body(Map.of(
+                        "success", false,
+                        "message", "No refund found for booking"
+                )));
+    }
+
+    /**
+     * Get refund queue backlog and lag (admin)
+     * GET /api/payments/refunds/queue
+     */
+    @GetMapping("/refunds/queue")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> getRefundQueueStats() {
+        try {
+            return ResponseEntity.ok(Map.of(
+                    "success", true,
+                    "message", "Refund queue stats retrieved successfully",
+                    "data", refundService.getQueueStats()
+            ));
+        } catch (Exception e) {
+            log.error("Error retrieving refund queue stats", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                    "success", false,
+                    "message", "Failed to retrieve refund queue stats"
+            ));
+        }
+    }
+
     /**
      * Get total spending for passenger
      * GET /api/payments/spending/{passengerId}
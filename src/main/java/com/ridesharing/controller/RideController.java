@@ -6,6 +6,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import com.ridesharing.dto.ApiResponse;
+import com.ridesharing.dto.BatchFareRequest;
 import com.ridesharing.dto.BookingResponseDto;
 import com.ridesharing.dto.DistanceResponseDto;
 import com.ridesharing.dto.FareCalculationRequest;
@@ -256,6 +257,26 @@ public class RideController {
         }
     }
 
+    // Quote many routes at once (comparison screens, partner integrations); results follow request order
+    @PostMapping("/calculate-fare/batch")
+    public ResponseEntity<ApiResponse> calculateFareBatch(@Valid @RequestBody BatchFareRequest request) {
+        try {
+            List<DistanceResponseDto> quotes = freeDistanceCalculatorService.calculateBatch(request.getRoutes());
+            
+            return ResponseEntity.ok(new ApiResponse(
+                "SUCCESS",
+                "Calculated " + quotes.size() + " fares",
+                quotes
+            ));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(new ApiResponse(
+                "ERROR",
+                "Failed to calculate fares: " + e.getMessage(),
+                null
+            ));
+        }
+    }
+
     // Additional endpoint for testing with query parameters
     @GetMapping("/calculate-fare-simple")
     public ResponseEntity<ApiResponse> calculateFareSimple(
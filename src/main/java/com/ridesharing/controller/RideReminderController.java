@@ -1,6 +1,7 @@
 package com.ridesharing.controller;
 
 import com.ridesharing.entity.RideReminder;
+import com.ridesharing.service.ReminderCleanupService;
 import com.ridesharing.service.RideReminderService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -24,6 +25,7 @@ import java.util.Map;
 public class RideReminderController {
 
     private final RideReminderService reminderService;
+    private final ReminderCleanupService reminderCleanup;
 
     /**
      * Schedule reminders for a confirmed booking
@@ -214,6 +216,32 @@ public class RideReminderController {
         }
     }
 
+    /**
+     * Manually archive or delete old finished reminders (Admin only)
+     * POST /api/reminders/cleanup
+     */
+    @PostMapping("/cleanup")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<?> cleanupOldReminders() {
+        try {
+            log.info("Manual request to clean up old reminders");
+            
+            ReminderCleanupService.CleanupReport report = reminderCleanup.cleanUpFinishedReminders();
+            
+            return ResponseEntity.ok(Map.of(
+                "success", true,
+                "report", report
+            ));
+        } catch (Exception e) {
+            log.error("Error cleaning up old reminders", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                .body(Map.of(
+                    "success", false,
+                    "message", "Failed to clean up old reminders: " + e.getMessage()
+                ));
+        }
+    }
+
     /**
      * Health check endpoint for reminder service
      * GET /api/reminders/health
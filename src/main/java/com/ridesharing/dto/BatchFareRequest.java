@@ -0,0 +1,24 @@
+package com.ridesharing.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+/**
+ * DTO for quoting several routes in one request
+ * Individual routes are not validated here: a blank route gets an ERROR entry in the response
+ * instead of failing the whole batch
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchFareRequest {
+    
+    @NotEmpty(message = "At least one route is required")
+    @Size(max = 100, message = "At most 100 routes per batch")
+    private List<FareCalculationRequest> routes;
+}
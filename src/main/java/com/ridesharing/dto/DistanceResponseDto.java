@@ -24,6 +24,16 @@ public class DistanceResponseDto {
      */
     private Integer durationMinutes;
     
+    /**
+     * Duration in milliseconds (road travel time, or an average-speed estimate)
+     */
+    private Long durationMillis;
+    
+    /**
+     * How the distance was obtained (ROAD, STRAIGHT_LINE, CITY_DATABASE)
+     */
+    private String routeType;
+    
     /**
      * Human readable distance text (e.g., "12.5 km")
      */
@@ -39,6 +49,11 @@ public class DistanceResponseDto {
      */
     private BigDecimal calculatedFare;
     
+    /**
+     * Surge multiplier applied to the fare (1.0 = no surge)
+     */
+    private Double surgeMultiplier;
+    
     /**
      * Status of the calculation (SUCCESS, ERROR, etc.)
      */
@@ -0,0 +1,47 @@
+package com.ridesharing.dto;
+
+import com.ridesharing.entity.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat row for payment/booking history exports
+ * Built directly by a JPQL constructor expression so no entity graph is loaded
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentExportRow {
+
+    private Long paymentId;
+    private Long bookingId;
+    private Long rideId;
+    private BigDecimal amount;
+    private BigDecimal driverSettlementAmount;
+    private BigDecimal platformCommission;
+    private Payment.PaymentStatus paymentStatus;
+    private Payment.SettlementStatus settlementStatus;
+    private String paymentMethod;
+    private String receiptNumber;
+    private Integer seatsBooked;
+
+    // Ride details
+    private String source;
+    private String destination;
+    private LocalDateTime departureDate;
+
+    // Participants
+    private Long passengerId;
+    private String passengerName;
+    private Long driverId;
+    private String driverName;
+
+    // Timestamps
+    private LocalDateTime createdAt;
+    private LocalDateTime paidAt;
+    private LocalDateTime settlementDate;
+}
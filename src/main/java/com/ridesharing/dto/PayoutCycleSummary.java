@@ -0,0 +1,25 @@
+package com.ridesharing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of one payout engine run
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PayoutCycleSummary {
+
+    private String cycleKey;
+    private int driversScanned;
+    private int payoutsResumed;
+    private int payoutsReversed;
+    private int payoutsCreated;
+    private int payoutsCompleted;
+    private int payoutsFailed;
+    private long durationMillis;
+}
@@ -0,0 +1,26 @@
+package com.ridesharing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Refund queue backlog snapshot
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RefundQueueStats {
+
+    // Refunds still waiting for the gateway (queued, in flight or retrying)
+    private long pending;
+    private long completed;
+    private long failedPermanently;
+    private LocalDateTime oldestPendingAt;
+    // Age of the oldest pending refund
+    private long lagSeconds;
+}
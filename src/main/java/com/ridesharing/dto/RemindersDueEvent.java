@@ -0,0 +1,13 @@
+package com.ridesharing.dto;
+
+import lombok.Value;
+
+import java.util.List;
+
+/**
+ * Published by the reminder timing wheel when reminders reach their scheduled time
+ */
+@Value
+public class RemindersDueEvent {
+    List<Long> reminderIds;
+}
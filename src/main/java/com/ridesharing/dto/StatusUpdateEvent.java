@@ -0,0 +1,64 @@
+package com.ridesharing.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.Payment;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+/**
+ * Booking/payment state transition pushed to the affected users over the event stream
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class StatusUpdateEvent {
+
+    public static final String BOOKING = "BOOKING";
+    public static final String PAYMENT = "PAYMENT";
+
+    // BOOKING or PAYMENT (used as the SSE event name)
+    private String type;
+    private Long bookingId;
+    private Long paymentId;
+    private Long rideId;
+    private String status;
+    private String message;
+    private LocalDateTime timestamp;
+
+    // Users the event is delivered to (passenger and driver)
+    @JsonIgnore
+    private Set<Long> recipientUserIds;
+
+    public static StatusUpdateEvent forBooking(Booking booking, String message) {
+        return StatusUpdateEvent.builder()
+                .type(BOOKING)
+                .bookingId(booking.getId())
+                .rideId(booking.getRide().getId())
+                .status(booking.getStatus().name())
+                .message(message)
+                .timestamp(LocalDateTime.now())
+                .recipientUserIds(Set.of(booking.getPassenger().getId(), booking.getRide().getDriver().getId()))
+                .build();
+    }
+
+    public static StatusUpdateEvent forPayment(Payment payment, String message) {
+        Booking booking = payment.getBooking();
+        return StatusUpdateEvent.builder()
+                .type(PAYMENT)
+                .bookingId(booking.getId())
+                .paymentId(payment.getId())
+                .rideId(booking.getRide().getId())
+                .status(payment.getPaymentStatus().name())
+                .message(message)
+                .timestamp(LocalDateTime.now())
+                .recipientUserIds(Set.of(booking.getPassenger().getId(), booking.getRide().getDriver().getId()))
+                .build();
+    }
+}
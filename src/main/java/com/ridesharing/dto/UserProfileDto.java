@@ -1,11 +1,17 @@
 package com.ridesharing.dto;
 
+import com.ridesharing.entity.NotificationChannel;
+
+import java.util.Set;
+
 public class UserProfileDto {
 
     private String firstName;
     private String lastName;
     private String email;
     private String profilePicture;
+    private Set<NotificationChannel> reminderChannels;
+    private String pushToken;
 
     // Constructors
     public UserProfileDto() {}
@@ -49,4 +55,20 @@ public class UserProfileDto {
     public void setProfilePicture(String profilePicture) {
         this.profilePicture = profilePicture;
     }
+
+    public Set<NotificationChannel> getReminderChannels() {
+        return reminderChannels;
+    }
+
+    public void setReminderChannels(Set<NotificationChannel> reminderChannels) {
+        this.reminderChannels = reminderChannels;
+    }
+
+    public String getPushToken() {
+        return pushToken;
+    }
+
+    public void setPushToken(String pushToken) {
+        this.pushToken = pushToken;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,26 @@
+package com.ridesharing.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for a driver's wallet balances
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class WalletSummaryDto {
+
+    private Long walletId;
+    private Long driverId;
+    private BigDecimal balance;
+    private BigDecimal totalEarned;
+    private BigDecimal totalPaidOut;
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,64 @@
+package com.ridesharing.email;
+
+import org.unbescape.html.HtmlEscape;
+import org.unbescape.html.HtmlEscapeLevel;
+import org.unbescape.html.HtmlEscapeType;
+
+import java.util.Map;
+
+/**
+ * A template flattened into static chunks with variable slots between them
+ *
+ * chunks[0] slot[0] chunks[1] slot[1] ... chunks[n]. Rendering is string appends plus the
+ * same HTML escaping Thymeleaf applies to th:text and attribute values. Immutable and
+ * thread-safe.
+ */
+public final class CompiledTemplate {
+
+    private final String name;
+    private final String[] chunks;
+    private final String[] slots;
+    private final int staticLength;
+
+    CompiledTemplate(String name, String[] chunks, String[] slots) {
+        if (chunks.length != slots.length + 1) {
+            throw new IllegalArgumentException("Template " + name + " needs one more chunk than slots");
+        }
+        this.name = name;
+        this.chunks = chunks;
+        this.slots = slots;
+        int length = 0;
+        for (String chunk : chunks) {
+            length += chunk.length();
+        }
+        this.staticLength = length;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getSlotCount() {
+        return slots.length;
+    }
+
+    /**
+     * Fill the slots from the model; missing values render as empty, like th:text on null
+     */
+    public String render(Map<String, ?> model) {
+        StringBuilder out = new StringBuilder(staticLength + slots.length * 24);
+        for (int i = 0; i < slots.length; i++) {
+            out.append(chunks[i]);
+            Object value = model.get(slots[i]);
+            if (value != null) {
+                out.append(escape(value.toString()));
+            }
+        }
+        return out.append(chunks[slots.length]).toString();
+    }
+
+    private static String escape(String value) {
+        return HtmlEscape.escapeHtml(value, HtmlEscapeType.HTML4_NAMED_REFERENCES_DEFAULT_TO_DECIMAL,
+                HtmlEscapeLevel.LEVEL_1_ONLY_MARKUP_SIGNIFICANT);
+    }
+}
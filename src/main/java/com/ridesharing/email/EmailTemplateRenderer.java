@@ -0,0 +1,155 @@
+package com.ridesharing.email;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Component;
+import org.thymeleaf.ITemplateEngine;
+import org.thymeleaf.context.Context;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Email Template Renderer - Precompiles simple Thymeleaf email templates into static chunks
+ *
+ * At startup every classpath:templates/*.html whose only Thymeleaf features are th:text,
+ * th:href and th:style over plain variables (optionally joined with '+' and string literals)
+ * is rendered once by Thymeleaf with a unique marker per variable. The output is split at the
+ * markers into a {@link CompiledTemplate}, so later sends only append the static chrome and
+ * escape the variable values. Templates with logic (th:switch, th:if, th:each, ...) or other
+ * expression types keep going through Thymeleaf, as does everything when
+ * app.email.templates.precompile=false.
+ */
+@Component
+@Slf4j
+public class EmailTemplateRenderer {
+
+    private static final String LOCATION = "classpath:templates/*.html";
+    private static final String SUFFIX = ".html";
+    private static final Set<String> SUPPORTED_ATTRIBUTES = Set.of("text", "href", "style");
+    private static final Pattern ATTRIBUTE = Pattern.compile("\\bth:([a-zA-Z-]+)\\s*=");
+    private static final Pattern VARIABLE_EXPRESSION = Pattern.compile("\\$\\{([^}]*)}");
+    private static final Pattern IDENTIFIER = Pattern.compile("[A-Za-z_][A-Za-z0-9_]*");
+    private static final Pattern OTHER_EXPRESSION = Pattern.compile("[*#@~]\\{|\\[\\[|\\[\\(");
+    private static final String MARKER_OPEN = "⟦";
+    private static final String MARKER_CLOSE = "⟧";
+    private static final Pattern MARKER = Pattern.compile(MARKER_OPEN + "([A-Za-z_][A-Za-z0-9_]*)" + MARKER_CLOSE);
+
+    private final ITemplateEngine templateEngine;
+    private final Map<String, CompiledTemplate> compiled = new ConcurrentHashMap<>();
+
+    @Value("${app.email.templates.precompile:true}")
+    private boolean precompile = true;
+
+    public EmailTemplateRenderer(ITemplateEngine templateEngine) {
+        this.templateEngine = templateEngine;
+    }
+
+    @PostConstruct
+    public void precompileTemplates() {
+        if (!precompile) {
+            return;
+        }
+        try {
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(LOCATION)) {
+                String filename = resource.getFilename();
+                if (filename == null || !filename.endsWith(SUFFIX)) {
+                    continue;
+                }
+                String name = filename.substring(0, filename.length() - SUFFIX.length());
+                String source = resource.getContentAsString(StandardCharsets.UTF_8);
+                compile(name, source).ifPresent(template -> compiled.put(name, template));
+            }
+        } catch (IOException e) {
+            log.warn("Could not scan email templates, rendering everything with Thymeleaf: {}", e.getMessage());
+        }
+        log.info("Precompiled email templates: {}", compiled.keySet());
+    }
+
+    /**
+     * Render a template by name with the given model
+     */
+    public String render(String templateName, Map<String, Object> model) {
+        CompiledTemplate template = compiled.get(templateName);
+        if (template != null) {
+            return template.render(model);
+        }
+        Context context = new Context();
+        context.setVariables(model);
+        return templateEngine.process(templateName, context);
+    }
+
+    public boolean isCompiled(String templateName) {
+        return compiled.containsKey(templateName);
+    }
+
+    /**
+     * Flatten a template if it only uses supported features
+     */
+    Optional<CompiledTemplate> compile(String name, String source) {
+        Matcher attributes = ATTRIBUTE.matcher(source);
+        while (attributes.find()) {
+            if (!SUPPORTED_ATTRIBUTES.contains(attributes.group(1))) {
+                log.debug("Template {} uses th:{}, rendering with Thymeleaf", name, attributes.group(1));
+                return Optional.empty();
+            }
+        }
+        if (OTHER_EXPRESSION.matcher(source).find()) {
+            return Optional.empty();
+        }
+
+        Set<String> variables = new LinkedHashSet<>();
+        Matcher expressions = VARIABLE_EXPRESSION.matcher(source);
+        while (expressions.find()) {
+            for (String operand : expressions.group(1).split("\\+")) {
+                String trimmed = operand.trim();
+                if (IDENTIFIER.matcher(trimmed).matches()) {
+                    variables.add(trimmed);
+                } else if (!(trimmed.length() >= 2 && trimmed.startsWith("'") && trimmed.endsWith("'"))) {
+                    log.debug("Template {} has expression ${{}}, rendering with Thymeleaf", name, expressions.group(1));
+                    return Optional.empty();
+                }
+            }
+        }
+        if (variables.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<String, Object> probe = new HashMap<>();
+        for (String variable : variables) {
+            probe.put(variable, MARKER_OPEN + variable + MARKER_CLOSE);
+        }
+        Context context = new Context();
+        context.setVariables(probe);
+        String output = templateEngine.process(name, context);
+
+        List<String> chunks = new ArrayList<>();
+        List<String> slots = new ArrayList<>();
+        Matcher markers = MARKER.matcher(output);
+        int last = 0;
+        while (markers.find()) {
+            chunks.add(output.substring(last, markers.start()));
+            slots.add(markers.group(1));
+            last = markers.end();
+        }
+        chunks.add(output.substring(last));
+        if (slots.isEmpty() || chunks.stream().anyMatch(chunk -> chunk.contains(MARKER_OPEN))) {
+            return Optional.empty();
+        }
+
+        return Optional.of(new CompiledTemplate(name, chunks.toArray(String[]::new), slots.toArray(String[]::new)));
+    }
+}
@@ -0,0 +1,95 @@
+package com.ridesharing.entity;
+
+import lombok.Data;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Driver Payout Entity - One bank transfer per driver per payout cycle
+ * The row doubles as the checkpoint of the payout engine: settled payments are attached to it
+ * (Payment.payoutId) before any money moves, and its status records how far the transfer got
+ */
+@Entity
+@Table(
+    name = "driver_payouts",
+    uniqueConstraints = @UniqueConstraint(name = "uk_payout_driver_cycle", columnNames = {"driver_id", "cycle_key"}),
+    indexes = @Index(name = "idx_payout_status", columnList = "status")
+)
+@Data
+public class DriverPayout {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "driver_id", nullable = false)
+    private Long driverId;
+
+    @Column(name = "wallet_id", nullable = false)
+    private Long walletId;
+
+    // Payout cycle this transfer belongs to (start of the scheduler run, yyyyMMddHHmm)
+    @Column(name = "cycle_key", nullable = false, length = 20)
+    private String cycleKey;
+
+    @Column(name = "amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount = BigDecimal.ZERO;
+
+    // Number of settled payments included in this payout
+    @Column(name = "payment_count", nullable = false)
+    private Integer paymentCount = 0;
+
+    // VARCHAR rather than a MySQL ENUM so new statuses need no column change
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, columnDefinition = "VARCHAR(20)")
+    private PayoutStatus status = PayoutStatus.PENDING;
+
+    // Reference returned by the payout gateway
+    @Column(name = "gateway_reference", length = 100)
+    private String gatewayReference;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Idempotency key sent to the gateway; identical on every retry of this payout
+     */
+    public String getIdempotencyKey() {
+        return "payout-" + id;
+    }
+
+    /**
+     * Payout Status Enum
+     */
+    public enum PayoutStatus {
+        PENDING,        // Payments attached, no money moved yet
+        SUBMITTED,      // Wallet debited, transfer sent (or about to be sent); outcome unknown after a gateway error
+        COMPLETED,      // Gateway confirmed the transfer
+        FAILED,         // Gateway rejected the transfer; retried on later cycles
+        REVERSED        // Rejected on every attempt; wallet debit reversed and payments released
+    }
+}
@@ -0,0 +1,59 @@
+package com.ridesharing.entity;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.ToString;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Driver Wallet Entity - Cached balance for a driver's ledger account
+ * The balance is derived from WalletLedgerEntry rows and only changed through
+ * conditional updates in DriverWalletRepository (never via entity setters)
+ */
+@Entity
+@Table(name = "driver_wallets")
+@Data
+@EqualsAndHashCode(exclude = {"driver"})
+@ToString(exclude = {"driver"})
+public class DriverWallet {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // One wallet per driver
+    @OneToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "driver_id", nullable = false, unique = true)
+    private User driver;
+
+    // Current withdrawable balance (credits - debits on the DRIVER_WALLET account)
+    @Column(name = "balance", nullable = false, precision = 12, scale = 2)
+    private BigDecimal balance = BigDecimal.ZERO;
+
+    // Lifetime ride earnings (net of refunds reversed after settlement)
+    @Column(name = "total_earned", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalEarned = BigDecimal.ZERO;
+
+    // Lifetime payouts sent to the driver's bank account
+    @Column(name = "total_paid_out", nullable = false, precision = 12, scale = 2)
+    private BigDecimal totalPaidOut = BigDecimal.ZERO;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
@@ -0,0 +1,56 @@
+package com.ridesharing.entity;
+
+import lombok.Data;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Geocoded Place Entity - Persistent tier of the geocoding cache
+ * Keyed by normalized place name (see PlaceNames), so it survives restarts and is shared by all nodes
+ */
+@Entity
+@Table(
+    name = "geocoded_places",
+    uniqueConstraints = @UniqueConstraint(name = "uk_geocoded_place_name", columnNames = "normalized_name")
+)
+@Data
+public class GeocodedPlace {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "normalized_name", nullable = false, length = 150)
+    private String normalizedName;
+
+    // Place name as first queried
+    @Column(name = "query_text", nullable = false)
+    private String queryText;
+
+    @Column(name = "latitude", nullable = false)
+    private Double latitude;
+
+    @Column(name = "longitude", nullable = false)
+    private Double longitude;
+
+    @Column(name = "display_name", length = 500)
+    private String displayName;
+
+    // Provider that resolved the place (e.g. NOMINATIM)
+    @Column(name = "source", nullable = false, length = 20)
+    private String source;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "refreshed_at", nullable = false)
+    private LocalDateTime refreshedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        if (this.refreshedAt == null) {
+            this.refreshedAt = this.createdAt;
+        }
+    }
+}
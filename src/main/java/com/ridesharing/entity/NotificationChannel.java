@@ -0,0 +1,10 @@
+package com.ridesharing.entity;
+
+/**
+ * Channels a ride reminder can be delivered on
+ */
+public enum NotificationChannel {
+    EMAIL,  // SMTP
+    SMS,    // Twilio
+    PUSH    // Mobile push to the user's registered device
+}
@@ -1,5 +1,6 @@
 package com.ridesharing.entity;
 
+import com.ridesharing.util.Money;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
 import lombok.ToString;
@@ -78,6 +79,10 @@ public class Payment {
     @Column(name = "settlement_date")
     private LocalDateTime settlementDate;
 
+    // Driver payout this settled payment was paid out in (null until picked up by a payout cycle)
+    @Column(name = "payout_id")
+    private Long payoutId;
+
     // Timestamps
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -112,11 +117,15 @@ public class Payment {
 
     /**
      * Calculate driver settlement amount (after platform commission)
+     * Commission is rounded HALF_UP to the paisa; the driver gets the exact remainder.
+     * The percentage must be a whole number of basis points (at most two decimals).
      */
     public void calculateSettlement(BigDecimal commissionPercentage) {
         if (this.amount != null) {
-            this.platformCommission = this.amount.multiply(commissionPercentage).divide(BigDecimal.valueOf(100));
-            this.driverSettlementAmount = this.amount.subtract(this.platformCommission);
+            Money total = Money.of(this.amount);
+            Money commission = total.percentage(Money.basisPoints(commissionPercentage));
+            this.platformCommission = commission.toBigDecimal();
+            this.driverSettlementAmount = total.minus(commission).toBigDecimal();
         }
     }
 
@@ -0,0 +1,107 @@
+package com.ridesharing.entity;
+
+import lombok.Data;
+import jakarta.persistence.*;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Refund Request Entity - Queue row for refunding a paid booking after cancellation
+ * Enqueued in the cancellation transaction and processed asynchronously by the refund worker
+ */
+@Entity
+@Table(
+    name = "refund_requests",
+    uniqueConstraints = @UniqueConstraint(name = "uk_refund_payment", columnNames = "payment_id"),
+    indexes = {
+        @Index(name = "idx_refund_status_created", columnList = "status, created_at"),
+        @Index(name = "idx_refund_ride", columnList = "ride_id")
+    }
+)
+@Data
+public class RefundRequest {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "payment_id", nullable = false)
+    private Long paymentId;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    // Refunds are processed in batches per driver ride
+    @Column(name = "ride_id", nullable = false)
+    private Long rideId;
+
+    @Column(name = "driver_id", nullable = false)
+    private Long driverId;
+
+    // Gateway payment being refunded (Razorpay payment id)
+    @Column(name = "gateway_payment_id")
+    private String gatewayPaymentId;
+
+    @Column(name = "amount", nullable = false, precision = 10, scale = 2)
+    private BigDecimal amount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private RefundStatus status = RefundStatus.QUEUED;
+
+    @Column(name = "reason")
+    private String reason;
+
+    @Column(name = "gateway_refund_id", length = 100)
+    private String gatewayRefundId;
+
+    @Column(name = "failure_reason")
+    private String failureReason;
+
+    @Column(name = "attempts", nullable = false)
+    private Integer attempts = 0;
+
+    // Worker node sending this refund, and when its claim lapses (then another node may take it over)
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    /**
+     * Idempotency key sent to the gateway; identical on every retry of this refund
+     */
+    public String getIdempotencyKey() {
+        return "refund-" + id;
+    }
+
+    /**
+     * Refund Status Enum
+     */
+    public enum RefundStatus {
+        QUEUED,         // Waiting for the refund worker
+        PROCESSING,     // Sent (or about to be sent) to the gateway, or sent with an unknown outcome
+        COMPLETED,      // Gateway accepted the refund
+        FAILED          // Gateway rejected the refund; retried until attempts run out
+    }
+}
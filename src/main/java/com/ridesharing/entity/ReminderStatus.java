@@ -6,6 +6,7 @@ package com.ridesharing.entity;
 public enum ReminderStatus {
     SCHEDULED,  // Reminder is scheduled but not yet sent
     SENT,       // Reminder has been successfully sent
-    FAILED,     // Reminder sending failed
+    FAILED,     // Reminder sending failed, retried after nextAttemptAt
+    DEAD_LETTER, // Retries exhausted; needs manual follow-up
     CANCELLED   // Reminder was cancelled (e.g., ride was cancelled)
 }
\ No newline at end of file
@@ -11,7 +11,13 @@ import java.time.LocalDateTime;
  * Stores information about scheduled email reminders for confirmed rides
  */
 @Entity
-@Table(name = "ride_reminders")
+@Table(
+    name = "ride_reminders",
+    indexes = {
+        @Index(name = "idx_reminder_channel_scheduled", columnList = "status, notification_channel, scheduled_time"),
+        @Index(name = "idx_reminder_channel_next_attempt", columnList = "status, notification_channel, next_attempt_at")
+    }
+)
 @Data
 @EqualsAndHashCode(exclude = {"booking"})
 @ToString(exclude = {"booking"})
@@ -35,16 +41,17 @@ public class RideReminder {
     @Column(name = "scheduled_time", nullable = false)
     private LocalDateTime scheduledTime;
 
-    // Current status of the reminder
+    // Current status of the reminder; VARCHAR rather than a MySQL ENUM so new statuses need no column change
     @Enumerated(EnumType.STRING)
-    @Column(name = "status", nullable = false)
+    @Column(name = "status", nullable = false, columnDefinition = "VARCHAR(20)")
     private ReminderStatus status = ReminderStatus.SCHEDULED;
 
-    // Notification channel (email, SMS, etc.)
+    // Channel this reminder goes out on; one reminder row per channel the passenger opted into
+    @Enumerated(EnumType.STRING)
     @Column(name = "notification_channel", nullable = false, length = 20)
-    private String notificationChannel = "EMAIL";
+    private NotificationChannel notificationChannel = NotificationChannel.EMAIL;
 
-    // Email address to send reminder to
+    // Email address of the passenger (SMS and push addresses are looked up when sending)
     @Column(name = "recipient_email", nullable = false, length = 100)
     private String recipientEmail;
 
@@ -64,10 +71,22 @@ public class RideReminder {
     @Column(name = "retry_count", nullable = false)
     private Integer retryCount = 0;
 
+    // When a FAILED reminder becomes due for its next attempt (exponential backoff with jitter)
+    @Column(name = "next_attempt_at")
+    private LocalDateTime nextAttemptAt;
+
     // Maximum number of retry attempts allowed
     @Column(name = "max_retries", nullable = false)
     private Integer maxRetries = 3;
 
+    // Worker node currently sending this reminder, and when its claim lapses
+    // (an expired lease is claimable again, so a crashed node's work is picked up)
+    @Column(name = "lease_owner", length = 64)
+    private String leaseOwner;
+
+    @Column(name = "lease_expires_at")
+    private LocalDateTime leaseExpiresAt;
+
     // Audit fields
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -101,15 +120,18 @@ public class RideReminder {
         this.status = ReminderStatus.SENT;
         this.sentAt = LocalDateTime.now();
         this.errorMessage = null;
+        this.nextAttemptAt = null;
+        releaseLease();
     }
 
     /**
-     * Mark reminder as failed with error message
+     * Mark reminder as failed with error message; dead-lettered once retries run out
      */
     public void markAsFailed(String errorMessage) {
-        this.status = ReminderStatus.FAILED;
         this.errorMessage = errorMessage;
         this.retryCount++;
+        this.status = this.retryCount >= this.maxRetries ? ReminderStatus.DEAD_LETTER : ReminderStatus.FAILED;
+        releaseLease();
     }
 
     /**
@@ -117,5 +139,11 @@ public class RideReminder {
      */
     public void markAsCancelled() {
         this.status = ReminderStatus.CANCELLED;
+        releaseLease();
+    }
+
+    private void releaseLease() {
+        this.leaseOwner = null;
+        this.leaseExpiresAt = null;
     }
 }
\ No newline at end of file
@@ -0,0 +1,68 @@
+package com.ridesharing.entity;
+
+import lombok.Data;
+import jakarta.persistence.*;
+import java.time.LocalDateTime;
+
+/**
+ * Finished ride reminder moved out of ride_reminders by the cleanup job
+ * Same columns as {@link RideReminder} (minus the lease), keyed by the original id; booking_id is
+ * kept as a plain value so bookings can be removed independently of their reminder history
+ */
+@Entity
+@Table(
+    name = "ride_reminders_archive",
+    indexes = @Index(name = "idx_reminder_archive_booking", columnList = "booking_id")
+)
+@Data
+public class RideReminderArchive {
+
+    @Id
+    private Long id;
+
+    @Column(name = "booking_id", nullable = false)
+    private Long bookingId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reminder_type", nullable = false)
+    private ReminderType reminderType;
+
+    @Column(name = "scheduled_time", nullable = false)
+    private LocalDateTime scheduledTime;
+
+    // VARCHAR rather than a MySQL ENUM so new statuses need no column change
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, columnDefinition = "VARCHAR(20)")
+    private ReminderStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "notification_channel", nullable = false, length = 20)
+    private NotificationChannel notificationChannel;
+
+    @Column(name = "recipient_email", nullable = false, length = 100)
+    private String recipientEmail;
+
+    @Column(name = "message", length = 500)
+    private String message;
+
+    @Column(name = "sent_at")
+    private LocalDateTime sentAt;
+
+    @Column(name = "error_message", length = 255)
+    private String errorMessage;
+
+    @Column(name = "retry_count", nullable = false)
+    private Integer retryCount;
+
+    @Column(name = "max_retries", nullable = false)
+    private Integer maxRetries;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -45,6 +45,14 @@ public class User implements UserDetails {
     @Column(name = "profile_picture")
     private String profilePicture;
 
+    // Comma-separated NotificationChannel names for ride reminders; null means email only
+    @Column(name = "reminder_channels", length = 30)
+    private String reminderChannels;
+
+    // Device token for push notifications, registered by the mobile app
+    @Column(name = "push_token")
+    private String pushToken;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -185,6 +193,22 @@ public class User implements UserDetails {
         this.profilePicture = profilePicture;
     }
 
+    public String getReminderChannels() {
+        return reminderChannels;
+    }
+
+    public void setReminderChannels(String reminderChannels) {
+        this.reminderChannels = reminderChannels;
+    }
+
+    public String getPushToken() {
+        return pushToken;
+    }
+
+    public void setPushToken(String pushToken) {
+        this.pushToken = pushToken;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,101 @@
+package com.ridesharing.entity;
+
+import lombok.Data;
+import jakarta.persistence.*;
+import org.hibernate.annotations.Immutable;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Wallet Ledger Entry - Append-only double-entry journal line
+ * Every posting writes a balanced pair (one DEBIT, one CREDIT) sharing a transactionId
+ */
+@Entity
+@Immutable
+@Table(
+    name = "wallet_ledger_entries",
+    indexes = {
+        @Index(name = "idx_ledger_wallet_created", columnList = "wallet_id, created_at"),
+        @Index(name = "idx_ledger_transaction", columnList = "transaction_id")
+    },
+    uniqueConstraints = @UniqueConstraint(
+        name = "uk_ledger_reference",
+        columnNames = {"reference_key", "entry_type", "direction"}
+    )
+)
+@Data
+public class WalletLedgerEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Groups the balanced debit/credit pair of one posting
+    @Column(name = "transaction_id", nullable = false, length = 36)
+    private String transactionId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "entry_type", nullable = false, length = 20)
+    private EntryType entryType;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "account", nullable = false, length = 20)
+    private Account account;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "direction", nullable = false, length = 6)
+    private Direction direction;
+
+    // Driver wallet this line belongs to (null for platform accounts)
+    @Column(name = "wallet_id")
+    private Long walletId;
+
+    // Always positive; the direction gives the sign
+    @Column(name = "amount", nullable = false, precision = 12, scale = 2)
+    private BigDecimal amount;
+
+    // Source payment (ride earning, commission, refund)
+    @Column(name = "payment_id")
+    private Long paymentId;
+
+    // Idempotency key of the business event, e.g. "settlement:42"
+    @Column(name = "reference_key", nullable = false, length = 64)
+    private String referenceKey;
+
+    @Column(name = "description")
+    private String description;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+    }
+
+    /**
+     * Business event that produced the posting
+     */
+    public enum EntryType {
+        OPENING_BALANCE,    // Earnings settled before the wallet existed
+        RIDE_EARNING,       // Driver share of a settled payment
+        COMMISSION,         // Platform share of a settled payment
+        PAYOUT,             // Transfer from wallet to driver's bank account
+        REFUND              // Reversal of a settled payment
+    }
+
+    /**
+     * Ledger accounts
+     */
+    public enum Account {
+        DRIVER_WALLET,      // Amount owed to a driver (per wallet)
+        GATEWAY_CLEARING,   // Funds collected through Razorpay
+        PLATFORM_REVENUE,   // Platform commission
+        PAYOUT_CLEARING     // Funds sent (or in flight) to drivers' banks
+    }
+
+    public enum Direction {
+        DEBIT,
+        CREDIT
+    }
+}
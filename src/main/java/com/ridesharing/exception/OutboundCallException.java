@@ -0,0 +1,42 @@
+package com.ridesharing.exception;
+
+import com.ridesharing.outbound.OutboundProvider;
+
+/**
+ * Raised when an external provider call is refused or fails at the outbound-call layer
+ */
+public class OutboundCallException extends RuntimeException {
+
+    /**
+     * Why the call did not produce a result
+     */
+    public enum Reason {
+        REJECTED,      // provider's concurrency limit reached
+        CIRCUIT_OPEN,  // provider is failing, calls short-circuited
+        TIMEOUT,       // no answer within the provider's timeout
+        FAILED         // the call itself threw a checked exception
+    }
+
+    private final OutboundProvider provider;
+    private final Reason reason;
+
+    public OutboundCallException(OutboundProvider provider, Reason reason, String message) {
+        super(message);
+        this.provider = provider;
+        this.reason = reason;
+    }
+
+    public OutboundCallException(OutboundProvider provider, Reason reason, String message, Throwable cause) {
+        super(message, cause);
+        this.provider = provider;
+        this.reason = reason;
+    }
+
+    public OutboundProvider getProvider() {
+        return provider;
+    }
+
+    public Reason getReason() {
+        return reason;
+    }
+}
@@ -0,0 +1,33 @@
+package com.ridesharing.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for the payout gateway (default; set app.payout.gateway to switch providers)
+ * Logs transfers and honours idempotency keys in memory
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "app.payout.gateway", havingValue = "local", matchIfMissing = true)
+public class LocalPayoutGateway implements PayoutGateway {
+
+    private final Map<String, String> transfers = new ConcurrentHashMap<>();
+
+    @Override
+    public PayoutResult transfer(PayoutInstruction instruction) {
+        String reference = transfers.computeIfAbsent(instruction.getIdempotencyKey(), key -> {
+            log.info("🧪 LOCAL PAYOUT: ₹{} to driver {} ({})",
+                    instruction.getAmount(), instruction.getDriverId(), instruction.getNarration());
+            return "local_payout_" + key;
+        });
+        return PayoutResult.builder()
+                .success(true)
+                .reference(reference)
+                .build();
+    }
+}
@@ -0,0 +1,31 @@
+package com.ridesharing.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Local stand-in for the push gateway (default until a provider adapter is configured via app.push.gateway)
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "app.push.gateway", havingValue = "local", matchIfMissing = true)
+public class LocalPushGateway implements PushGateway {
+
+    @Override
+    public PushResult send(PushMessage message) {
+        log.info("🧪 LOCAL PUSH to {}: {} - {} {}",
+                message.getDeviceToken(), message.getTitle(), message.getBody(), message.getData());
+        return PushResult.builder()
+                .success(true)
+                .messageId("local_push_" + UUID.randomUUID())
+                .build();
+    }
+
+    @Override
+    public boolean isStandIn() {
+        return true;
+    }
+}
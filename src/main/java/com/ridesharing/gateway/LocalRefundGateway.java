@@ -0,0 +1,40 @@
+package com.ridesharing.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Local stand-in for the refund gateway (default; set app.refund.gateway=razorpay for real refunds)
+ * Logs refunds and honours idempotency keys in memory
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "app.refund.gateway", havingValue = "local", matchIfMissing = true)
+public class LocalRefundGateway implements RefundGateway {
+
+    private final Map<String, String> refunds = new ConcurrentHashMap<>();
+
+    @Override
+    public RefundResult refund(RefundInstruction instruction) {
+        String refundId = refunds.computeIfAbsent(instruction.getIdempotencyKey(), key -> {
+            log.info("🧪 LOCAL REFUND: ₹{} for payment {} ({})",
+                    instruction.getAmount(), instruction.getGatewayPaymentId(), instruction.getReason());
+            return "local_refund_" + key;
+        });
+        return RefundResult.builder()
+                .success(true)
+                .refundId(refundId)
+                .build();
+    }
+
+    @Override
+    public Optional<RefundResult> findRefund(RefundInstruction instruction) {
+        return Optional.ofNullable(refunds.get(instruction.getIdempotencyKey()))
+                .map(refundId -> RefundResult.builder().success(true).refundId(refundId).build());
+    }
+}
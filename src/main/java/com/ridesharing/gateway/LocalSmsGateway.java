@@ -0,0 +1,30 @@
+package com.ridesharing.gateway;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Local stand-in for the SMS gateway (default; set app.sms.gateway=twilio for real messages)
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(value = "app.sms.gateway", havingValue = "local", matchIfMissing = true)
+public class LocalSmsGateway implements SmsGateway {
+
+    @Override
+    public SmsResult send(SmsMessage message) {
+        log.info("🧪 LOCAL SMS to {}: {}", message.getTo(), message.getBody());
+        return SmsResult.builder()
+                .success(true)
+                .messageId("local_sms_" + UUID.randomUUID())
+                .build();
+    }
+
+    @Override
+    public boolean isStandIn() {
+        return true;
+    }
+}
@@ -0,0 +1,35 @@
+package com.ridesharing.gateway;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+
+/**
+ * Payout Gateway - Sends money from the platform account to a driver's bank account
+ *
+ * Implementations must treat {@link PayoutInstruction#getIdempotencyKey()} as unique: a retried
+ * instruction with the same key must return the original transfer instead of paying twice.
+ */
+public interface PayoutGateway {
+
+    PayoutResult transfer(PayoutInstruction instruction);
+
+    @Value
+    @Builder
+    class PayoutInstruction {
+        String idempotencyKey;
+        Long driverId;
+        BigDecimal amount;
+        String currency;
+        String narration;
+    }
+
+    @Value
+    @Builder
+    class PayoutResult {
+        boolean success;
+        String reference;
+        String failureReason;
+    }
+}
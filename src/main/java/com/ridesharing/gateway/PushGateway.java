@@ -0,0 +1,40 @@
+package com.ridesharing.gateway;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.util.Map;
+
+/**
+ * Push Gateway - Delivers a notification to a user's registered mobile device
+ *
+ * Provider adapters (FCM, APNs) plug in behind this interface; only the local stand-in ships today.
+ */
+public interface PushGateway {
+
+    PushResult send(PushMessage message);
+
+    /**
+     * True for local stand-ins that only log; reminders are then not routed to push
+     */
+    default boolean isStandIn() {
+        return false;
+    }
+
+    @Value
+    @Builder
+    class PushMessage {
+        String deviceToken;
+        String title;
+        String body;
+        Map<String, String> data;
+    }
+
+    @Value
+    @Builder
+    class PushResult {
+        boolean success;
+        String messageId;
+        String failureReason;
+    }
+}
@@ -0,0 +1,102 @@
+package com.ridesharing.gateway;
+
+import com.razorpay.RazorpayClient;
+import com.razorpay.Refund;
+import com.ridesharing.exception.OutboundCallException;
+import com.ridesharing.outbound.OutboundCallGuard;
+import com.ridesharing.outbound.OutboundProvider;
+import com.ridesharing.util.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.json.JSONObject;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+
+/**
+ * Razorpay refund adapter
+ * The idempotency key is sent as the refund receipt so support can match gateway and queue rows,
+ * and so a refund whose call timed out can be found again before it is resent
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "app.refund.gateway", havingValue = "razorpay")
+public class RazorpayRefundGateway implements RefundGateway {
+
+    private final OutboundCallGuard outboundCallGuard;
+
+    @Value("${razorpay.key.id}")
+    private String razorpayKeyId;
+
+    @Value("${razorpay.key.secret}")
+    private String razorpayKeySecret;
+
+    @Override
+    public RefundResult refund(RefundInstruction instruction) {
+        if (instruction.getGatewayPaymentId() == null) {
+            return RefundResult.builder()
+                    .success(false)
+                    .failureReason("Payment has no gateway payment id")
+                    .build();
+        }
+
+        try {
+            RazorpayClient razorpay = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
+
+            JSONObject refundRequest = new JSONObject();
+            refundRequest.put("amount", Money.of(instruction.getAmount()).toPaise());
+            refundRequest.put("speed", "normal");
+            refundRequest.put("receipt", instruction.getIdempotencyKey());
+            refundRequest.put("notes", new JSONObject().put("reason", instruction.getReason()));
+
+            Refund refund = outboundCallGuard.call(OutboundProvider.RAZORPAY,
+                    () -> razorpay.payments.refund(instruction.getGatewayPaymentId(), refundRequest));
+            return RefundResult.builder()
+                    .success(true)
+                    .refundId(refund.get("id"))
+                    .build();
+        } catch (OutboundCallException e) {
+            if (e.getReason() != OutboundCallException.Reason.TIMEOUT) {
+                return failed(instruction, e);
+            }
+            // The request may still complete at Razorpay after we stopped waiting
+            log.warn("⏳ Razorpay refund for payment {} timed out, outcome unknown", instruction.getGatewayPaymentId());
+            return RefundResult.builder()
+                    .success(false)
+                    .outcomeUnknown(true)
+                    .failureReason(e.getMessage())
+                    .build();
+        } catch (Exception e) {
+            return failed(instruction, e);
+        }
+    }
+
+    @Override
+    public Optional<RefundResult> findRefund(RefundInstruction instruction) {
+        if (instruction.getGatewayPaymentId() == null) {
+            return Optional.empty();
+        }
+        String receipt = instruction.getIdempotencyKey();
+        return outboundCallGuard.call(OutboundProvider.RAZORPAY, () -> {
+            RazorpayClient razorpay = new RazorpayClient(razorpayKeyId, razorpayKeySecret);
+            return razorpay.payments.fetchAllRefunds(instruction.getGatewayPaymentId()).stream()
+                    .filter(refund -> refund.has("receipt") && receipt.equals(refund.get("receipt")))
+                    .findFirst()
+                    .map(refund -> RefundResult.builder()
+                            .success(true)
+                            .refundId(refund.get("id"))
+                            .build());
+        });
+    }
+
+    private RefundResult failed(RefundInstruction instruction, Exception e) {
+        log.error("❌ Razorpay refund failed for payment {}: {}", instruction.getGatewayPaymentId(), e.getMessage());
+        return RefundResult.builder()
+                .success(false)
+                .failureReason(e.getMessage())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package com.ridesharing.gateway;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Refund Gateway - Returns money for a captured payment to the passenger
+ *
+ * Implementations must treat {@link RefundInstruction#getIdempotencyKey()} as unique: a retried
+ * instruction with the same key must return the original refund instead of refunding twice.
+ * A call that may have reached the gateway without an answer (e.g. a timeout) reports
+ * outcomeUnknown; callers look the refund up with {@link #findRefund} before sending it again.
+ */
+public interface RefundGateway {
+
+    RefundResult refund(RefundInstruction instruction);
+
+    /**
+     * Refund already created for this instruction's idempotency key, if any; throws when the
+     * gateway cannot be asked
+     */
+    Optional<RefundResult> findRefund(RefundInstruction instruction);
+
+    @Value
+    @Builder
+    class RefundInstruction {
+        String idempotencyKey;
+        String gatewayPaymentId;
+        BigDecimal amount;
+        String reason;
+    }
+
+    @Value
+    @Builder
+    class RefundResult {
+        boolean success;
+        String refundId;
+        String failureReason;
+        // The refund may or may not have been created; never resend without findRefund first
+        boolean outcomeUnknown;
+    }
+}
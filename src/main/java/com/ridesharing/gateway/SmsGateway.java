@@ -0,0 +1,34 @@
+package com.ridesharing.gateway;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * SMS Gateway - Sends a text message to a phone number
+ */
+public interface SmsGateway {
+
+    SmsResult send(SmsMessage message);
+
+    /**
+     * True for local stand-ins that only log; reminders are then not routed to SMS
+     */
+    default boolean isStandIn() {
+        return false;
+    }
+
+    @Value
+    @Builder
+    class SmsMessage {
+        String to;
+        String body;
+    }
+
+    @Value
+    @Builder
+    class SmsResult {
+        boolean success;
+        String messageId;
+        String failureReason;
+    }
+}
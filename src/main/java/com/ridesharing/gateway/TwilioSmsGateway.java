@@ -0,0 +1,46 @@
+package com.ridesharing.gateway;
+
+import com.ridesharing.config.TwilioConfig;
+import com.ridesharing.outbound.OutboundCallGuard;
+import com.ridesharing.outbound.OutboundProvider;
+import com.twilio.rest.api.v2010.account.Message;
+import com.twilio.type.PhoneNumber;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * Twilio SMS adapter
+ * Unlike TwilioService.sendSms, failures are reported back so the caller can retry them
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(value = "app.sms.gateway", havingValue = "twilio")
+public class TwilioSmsGateway implements SmsGateway {
+
+    private final TwilioConfig twilioConfig;
+    private final OutboundCallGuard outboundCallGuard;
+
+    @Override
+    public SmsResult send(SmsMessage message) {
+        try {
+            Message sent = outboundCallGuard.call(OutboundProvider.TWILIO, () -> Message.creator(
+                    new PhoneNumber(message.getTo()),
+                    new PhoneNumber(twilioConfig.getFromNumber()),
+                    message.getBody()
+            ).create());
+            return SmsResult.builder()
+                    .success(true)
+                    .messageId(sent.getSid())
+                    .build();
+        } catch (Exception e) {
+            log.error("❌ Twilio SMS to {} failed: {}", message.getTo(), e.getMessage());
+            return SmsResult.builder()
+                    .success(false)
+                    .failureReason(e.getMessage())
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.ridesharing.geo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Dense distance/duration matrix between the N most populous gazetteer places
+ *
+ * The city dictionary is the sorted int[] of gazetteer place indices; city c has place index
+ * placeIndices[c]. Cell (from, to) lives at from * N + to in distanceKm and durationSeconds.
+ * NaN marks a pair with no road route.
+ *
+ * File layout (big-endian): magic, version, cityCount, roadRouted flag, gazetteer source
+ * checksum, graph signature, then placeIndices, distanceKm and durationSeconds.
+ */
+public final class CityMatrix {
+
+    static final int MAGIC = 0x5352434D; // "SRCM"
+    static final int VERSION = 1;
+    private static final int HEADER_BYTES = 4 * 4 + 8 + 8;
+
+    private final int[] placeIndices;
+    private final float[] distanceKm;
+    private final float[] durationSeconds;
+    private final boolean roadRouted;
+    private final long sourceChecksum;
+    private final long graphSignature;
+
+    CityMatrix(int[] placeIndices, float[] distanceKm, float[] durationSeconds,
+               boolean roadRouted, long sourceChecksum, long graphSignature) {
+        this.placeIndices = placeIndices;
+        this.distanceKm = distanceKm;
+        this.durationSeconds = durationSeconds;
+        this.roadRouted = roadRouted;
+        this.sourceChecksum = sourceChecksum;
+        this.graphSignature = graphSignature;
+    }
+
+    public int getCityCount() {
+        return placeIndices.length;
+    }
+
+    public boolean isRoadRouted() {
+        return roadRouted;
+    }
+
+    public long getSourceChecksum() {
+        return sourceChecksum;
+    }
+
+    public long getGraphSignature() {
+        return graphSignature;
+    }
+
+    /**
+     * City index for a gazetteer place index, or -1 when the place is not in the matrix
+     */
+    public int cityOf(int placeIndex) {
+        int city = Arrays.binarySearch(placeIndices, placeIndex);
+        return city < 0 ? -1 : city;
+    }
+
+    public float distanceKm(int fromCity, int toCity) {
+        return distanceKm[fromCity * placeIndices.length + toCity];
+    }
+
+    public float durationSeconds(int fromCity, int toCity) {
+        return durationSeconds[fromCity * placeIndices.length + toCity];
+    }
+
+    public static CityMatrix load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            if (buffer.getInt() != MAGIC || buffer.getInt() != VERSION) {
+                throw new IOException("Not a city matrix file (or unsupported version)");
+            }
+            int cities = buffer.getInt();
+            boolean roadRouted = buffer.getInt() != 0;
+            long checksum = buffer.getLong();
+            long signature = buffer.getLong();
+            long expected = HEADER_BYTES + 4L * cities + 8L * cities * cities;
+            if (channel.size() != expected) {
+                throw new IOException("Truncated city matrix file: " + channel.size() + " bytes, expected " + expected);
+            }
+
+            int[] places = new int[cities];
+            buffer.asIntBuffer().get(places);
+            buffer.position(buffer.position() + 4 * cities);
+            float[] distances = new float[cities * cities];
+            buffer.asFloatBuffer().get(distances);
+            buffer.position(buffer.position() + 4 * distances.length);
+            float[] durations = new float[cities * cities];
+            buffer.asFloatBuffer().get(durations);
+            return new CityMatrix(places, distances, durations, roadRouted, checksum, signature);
+        }
+    }
+
+    /**
+     * Write atomically (temp file + move) so a reader never sees a half-written matrix
+     */
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, "city-matrix", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 64 * 1024))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(placeIndices.length);
+            out.writeInt(roadRouted ? 1 : 0);
+            out.writeLong(sourceChecksum);
+            out.writeLong(graphSignature);
+            for (int place : placeIndices) {
+                out.writeInt(place);
+            }
+            for (float distance : distanceKm) {
+                out.writeFloat(distance);
+            }
+            for (float duration : durationSeconds) {
+                out.writeFloat(duration);
+            }
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+}
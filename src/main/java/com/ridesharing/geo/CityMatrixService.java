@@ -0,0 +1,211 @@
+package com.ridesharing.geo;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Optional;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.stream.IntStream;
+
+/**
+ * Precomputed distances between popular cities, answered in constant time
+ *
+ * At startup the persisted matrix (app.city-matrix.file) is loaded if it still matches the
+ * gazetteer and road graph; otherwise it is rebuilt in the background on a fork-join pool (one
+ * one-to-many road search per row) and saved. Until it is ready every lookup is empty.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CityMatrixService {
+
+    private static final int ROWS_PER_TASK = 4;
+
+    private final Gazetteer gazetteer;
+    private final RoutingService routingService;
+
+    @Value("${app.city-matrix.file:data/city-matrix.bin}")
+    private String matrixFile;
+
+    @Value("${app.city-matrix.size:200}")
+    private int size;
+
+    @Value("${app.routing.average-speed-kmh:50}")
+    private double averageSpeedKmh;
+
+    private final ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() - 1));
+
+    private volatile CityMatrix matrix;
+
+    @PostConstruct
+    public void load() {
+        GazetteerFile places = gazetteer.getFile();
+        if (places == null || size < 2) {
+            log.warn("City matrix disabled (no gazetteer or app.city-matrix.size < 2)");
+            return;
+        }
+
+        Path path = Paths.get(matrixFile);
+        if (Files.exists(path)) {
+            try {
+                CityMatrix existing = CityMatrix.load(path);
+                if (isCurrent(existing, places)) {
+                    matrix = existing;
+                    log.info("🧮 City matrix loaded from {}: {} cities", path.toAbsolutePath(), existing.getCityCount());
+                    return;
+                }
+                log.info("City matrix at {} is stale, rebuilding", path.toAbsolutePath());
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not read city matrix, rebuilding: {}", e.getMessage());
+            }
+        }
+
+        pool.execute(() -> rebuild(places, path));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+
+    public boolean isLoaded() {
+        return matrix != null;
+    }
+
+    /**
+     * Distance/duration for a city pair, empty when either place is not in the matrix
+     */
+    public Optional<Entry> lookup(String origin, String destination) {
+        CityMatrix current = matrix;
+        if (current == null) {
+            return Optional.empty();
+        }
+        int from = current.cityOf(gazetteer.indexOf(origin));
+        int to = current.cityOf(gazetteer.indexOf(destination));
+        if (from < 0 || to < 0 || from == to) {
+            return Optional.empty();
+        }
+        float distance = current.distanceKm(from, to);
+        if (Float.isNaN(distance)) {
+            return Optional.empty();
+        }
+        return Optional.of(new Entry(distance, Math.round(current.durationSeconds(from, to) * 1000.0), current.isRoadRouted()));
+    }
+
+    private boolean isCurrent(CityMatrix existing, GazetteerFile places) {
+        return existing.getSourceChecksum() == places.getSourceChecksum()
+                && existing.getGraphSignature() == routingService.getGraphSignature()
+                && existing.getCityCount() == Math.min(size, places.getPlaceCount());
+    }
+
+    private void rebuild(GazetteerFile places, Path path) {
+        try {
+            long started = System.currentTimeMillis();
+            CityMatrix built = build(places);
+            matrix = built;
+            log.info("🧮 Built {}x{} city matrix ({}) in {} ms", built.getCityCount(), built.getCityCount(),
+                    built.isRoadRouted() ? "road" : "straight line", System.currentTimeMillis() - started);
+            built.save(path);
+        } catch (IOException | RuntimeException e) {
+            log.warn("City matrix build/save failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Build the matrix for the top places by population; rows are filled in parallel
+     */
+    CityMatrix build(GazetteerFile places) {
+        int[] placeIndices = IntStream.range(0, places.getPlaceCount())
+                .boxed()
+                .sorted(Comparator.comparingInt((Integer i) -> places.place(i).getPopulation()).reversed())
+                .limit(size)
+                .mapToInt(Integer::intValue)
+                .sorted()
+                .toArray();
+
+        int cities = placeIndices.length;
+        GeoPoint[] points = new GeoPoint[cities];
+        for (int c = 0; c < cities; c++) {
+            points[c] = places.place(placeIndices[c]).getPoint();
+        }
+
+        float[] distanceKm = new float[cities * cities];
+        float[] durationSeconds = new float[cities * cities];
+        boolean roadRouted = routingService.isLoaded();
+        pool.invoke(new RowTask(points, distanceKm, durationSeconds, roadRouted, 0, cities));
+
+        return new CityMatrix(placeIndices, distanceKm, durationSeconds, roadRouted,
+                places.getSourceChecksum(), routingService.getGraphSignature());
+    }
+
+    /**
+     * Fills rows [from, to) of the matrix, splitting until a task covers ROWS_PER_TASK rows
+     */
+    private final class RowTask extends RecursiveAction {
+        private final GeoPoint[] points;
+        private final float[] distanceKm;
+        private final float[] durationSeconds;
+        private final boolean roadRouted;
+        private final int from;
+        private final int to;
+
+        RowTask(GeoPoint[] points, float[] distanceKm, float[] durationSeconds, boolean roadRouted, int from, int to) {
+            this.points = points;
+            this.distanceKm = distanceKm;
+            this.durationSeconds = durationSeconds;
+            this.roadRouted = roadRouted;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from > ROWS_PER_TASK) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new RowTask(points, distanceKm, durationSeconds, roadRouted, from, mid),
+                        new RowTask(points, distanceKm, durationSeconds, roadRouted, mid, to));
+                return;
+            }
+            for (int row = from; row < to; row++) {
+                fillRow(row);
+            }
+        }
+
+        private void fillRow(int row) {
+            int base = row * points.length;
+            RoadRouter.Route[] routes = roadRouted ? routingService.routeToAll(points[row], points) : null;
+            for (int col = 0; col < points.length; col++) {
+                if (routes != null) {
+                    RoadRouter.Route route = routes[col];
+                    distanceKm[base + col] = route == null ? Float.NaN : route.getDistanceMeters() / 1000f;
+                    durationSeconds[base + col] = route == null ? Float.NaN : route.getDurationMs() / 1000f;
+                } else {
+                    double distance = points[row].distanceKmTo(points[col]);
+                    distanceKm[base + col] = (float) distance;
+                    durationSeconds[base + col] = (float) (distance / averageSpeedKmh * 3600);
+                }
+            }
+        }
+    }
+
+    /**
+     * Matrix cell
+     */
+    @lombok.Value
+    public static class Entry {
+        double distanceKm;
+        long durationMs;
+        boolean road;
+    }
+}
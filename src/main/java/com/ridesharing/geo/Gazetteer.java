@@ -0,0 +1,105 @@
+package com.ridesharing.geo;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * Offline gazetteer of Indian places - name variants to coordinates with no network call
+ *
+ * At startup the compiled file (app.gazetteer.file) is memory-mapped. When app.gazetteer.source is
+ * set, the file is recompiled from it first whenever that source's checksum no longer matches.
+ * Without it, the small bundled place list is only compiled when there is no file yet, so a file
+ * compiled offline (e.g. from GeoNames IN.txt) is never overwritten by the bundled list.
+ * Lookups never fail: if the gazetteer cannot be loaded every lookup is simply empty.
+ */
+@Component
+@Slf4j
+public class Gazetteer {
+
+    private static final String BUNDLED_SOURCE = "classpath:geo/india-places.csv";
+
+    @Value("${app.gazetteer.file:data/gazetteer.bin}")
+    private String filePath;
+
+    @Value("${app.gazetteer.source:}")
+    private String sourceLocation;
+
+    @Value("${app.gazetteer.min-population:1000}")
+    private int minPopulation;
+
+    private final ResourceLoader resourceLoader;
+
+    private volatile GazetteerFile file;
+
+    public Gazetteer(ResourceLoader resourceLoader) {
+        this.resourceLoader = resourceLoader;
+    }
+
+    @PostConstruct
+    public void load() {
+        Path target = Paths.get(filePath);
+        boolean configured = sourceLocation != null && !sourceLocation.isBlank();
+        Resource source = resourceLoader.getResource(configured ? sourceLocation : BUNDLED_SOURCE);
+        try {
+            GazetteerFile existing = Files.exists(target) ? GazetteerFile.open(target) : null;
+            Long sourceChecksum = source.exists() && (existing == null || configured)
+                    ? GazetteerCompiler.checksum(source.getInputStream()) : null;
+
+            if (sourceChecksum != null && (existing == null || existing.getSourceChecksum() != sourceChecksum)) {
+                long started = System.currentTimeMillis();
+                int places = GazetteerCompiler.compile(source.getInputStream(), sourceChecksum, target, minPopulation);
+                log.info("🗺️ Compiled gazetteer from {}: {} places in {} ms",
+                        source.getDescription(), places, System.currentTimeMillis() - started);
+                existing = GazetteerFile.open(target);
+            }
+
+            if (existing == null) {
+                log.warn("No gazetteer file at {} and no source to compile it from", target.toAbsolutePath());
+                return;
+            }
+            file = existing;
+            log.info("🗺️ Gazetteer mapped from {}: {} places, {} name variants",
+                    target.toAbsolutePath(), existing.getPlaceCount(), existing.getKeyCount());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Gazetteer unavailable, offline lookups disabled: {}", e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() {
+        return file != null;
+    }
+
+    public Optional<GazetteerFile.Place> find(String placeName) {
+        GazetteerFile current = file;
+        return current == null ? Optional.empty() : current.find(placeName);
+    }
+
+    /**
+     * Place index for any name variant, or -1
+     */
+    public int indexOf(String placeName) {
+        GazetteerFile current = file;
+        return current == null ? -1 : current.indexOf(PlaceNames.normalize(placeName));
+    }
+
+    /**
+     * The mapped file, or null when the gazetteer is unavailable
+     */
+    GazetteerFile getFile() {
+        return file;
+    }
+
+    public Optional<GeoPoint> locate(String placeName) {
+        return find(placeName).map(GazetteerFile.Place::getPoint);
+    }
+}
@@ -0,0 +1,232 @@
+package com.ridesharing.geo;
+
+import java.io.BufferedReader;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.BufferedOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Compiles a place list into the binary gazetteer read by {@link GazetteerFile}
+ *
+ * Accepted sources:
+ *   - the bundled CSV seed: names (variants separated by |),latitude,longitude,population
+ *   - a GeoNames country dump (tab separated, e.g. IN.txt): populated places (feature class P)
+ *     with their ASCII alternate names
+ * Every name variant is normalized with {@link PlaceNames}; when two places share a key the
+ * more populous one wins.
+ *
+ * Offline use: java com.ridesharing.geo.GazetteerCompiler IN.txt data/gazetteer.bin [minPopulation]
+ */
+public final class GazetteerCompiler {
+
+    private static final int GEONAMES_MIN_COLUMNS = 15;
+
+    private GazetteerCompiler() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.err.println("Usage: GazetteerCompiler <source.csv|IN.txt> <target.bin> [minPopulation]");
+            System.exit(1);
+        }
+        int minPopulation = args.length > 2 ? Integer.parseInt(args[2]) : 1000;
+        Path source = Paths.get(args[0]);
+        long checksum = checksum(Files.newInputStream(source));
+        int places = compile(Files.newInputStream(source), checksum, Paths.get(args[1]), minPopulation);
+        System.out.println("Compiled " + places + " places into " + args[1]);
+    }
+
+    /**
+     * CRC32 of the source, stored in the header so a stale compiled file can be detected
+     */
+    public static long checksum(InputStream in) throws IOException {
+        CRC32 crc = new CRC32();
+        try (InputStream input = in) {
+            byte[] chunk = new byte[64 * 1024];
+            int read;
+            while ((read = input.read(chunk)) != -1) {
+                crc.update(chunk, 0, read);
+            }
+        }
+        return crc.getValue();
+    }
+
+    /**
+     * Parse the source and write the binary gazetteer atomically; returns the number of places
+     */
+    public static int compile(InputStream in, long sourceChecksum, Path target, int minPopulation) throws IOException {
+        List<PlaceRecord> places = new ArrayList<>();
+        Map<String, Integer> keyToPlace = new HashMap<>();
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (line.isBlank() || line.startsWith("#")) {
+                    continue;
+                }
+                PlaceRecord place = line.indexOf('\t') >= 0 ? parseGeoNames(line, minPopulation) : parseCsv(line);
+                if (place == null) {
+                    continue;
+                }
+                int index = places.size();
+                places.add(place);
+                for (String variant : place.variants) {
+                    String key = PlaceNames.normalize(variant);
+                    if (key.isEmpty()) {
+                        continue;
+                    }
+                    Integer existing = keyToPlace.get(key);
+                    if (existing == null || places.get(existing).population < place.population) {
+                        keyToPlace.put(key, index);
+                    }
+                }
+            }
+        }
+
+        write(places, keyToPlace, sourceChecksum, target);
+        return places.size();
+    }
+
+    private static PlaceRecord parseCsv(String line) {
+        String[] columns = line.split(",");
+        if (columns.length < 4 || "name".equalsIgnoreCase(columns[0].trim())) {
+            return null;
+        }
+        try {
+            String[] variants = columns[0].split("\\|");
+            return new PlaceRecord(variants[0].trim(), Arrays.asList(variants),
+                    Double.parseDouble(columns[1].trim()), Double.parseDouble(columns[2].trim()),
+                    Integer.parseInt(columns[3].trim()));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static PlaceRecord parseGeoNames(String line, int minPopulation) {
+        String[] columns = line.split("\t", -1);
+        if (columns.length < GEONAMES_MIN_COLUMNS || !"P".equals(columns[6])) {
+            return null;
+        }
+        long population = columns[14].isEmpty() ? 0 : Long.parseLong(columns[14]);
+        if (population < minPopulation) {
+            return null;
+        }
+
+        List<String> variants = new ArrayList<>();
+        variants.add(columns[1]);
+        variants.add(columns[2]);
+        if (!columns[3].isEmpty()) {
+            for (String alternate : columns[3].split(",")) {
+                // Non-Latin scripts normalize to nothing useful
+                if (alternate.chars().allMatch(c -> c < 128)) {
+                    variants.add(alternate);
+                }
+            }
+        }
+        return new PlaceRecord(columns[2].isEmpty() ? columns[1] : columns[2], variants,
+                Double.parseDouble(columns[4]), Double.parseDouble(columns[5]),
+                (int) Math.min(Integer.MAX_VALUE, population));
+    }
+
+    private static void write(List<PlaceRecord> places, Map<String, Integer> keyToPlace,
+                              long sourceChecksum, Path target) throws IOException {
+        String[] keys = keyToPlace.keySet().toArray(new String[0]);
+        // Normalized keys are ASCII, so String order equals unsigned byte order used by the reader
+        Arrays.sort(keys);
+
+        byte[][] names = new byte[places.size()][];
+        int nameBlobLength = 0;
+        for (int i = 0; i < places.size(); i++) {
+            names[i] = places.get(i).name.getBytes(StandardCharsets.UTF_8);
+            nameBlobLength += names[i].length;
+        }
+        int keyBlobLength = 0;
+        for (String key : keys) {
+            keyBlobLength += key.length();
+        }
+
+        int placesOffset = GazetteerFile.HEADER_BYTES;
+        int keysOffset = placesOffset + places.size() * GazetteerFile.PLACE_BYTES;
+        int keyBlobOffset = keysOffset + keys.length * GazetteerFile.KEY_BYTES;
+        int nameBlobOffset = keyBlobOffset + keyBlobLength;
+        long totalBytes = (long) nameBlobOffset + nameBlobLength;
+        if (totalBytes > Integer.MAX_VALUE) {
+            throw new IOException("Gazetteer too large: " + totalBytes + " bytes");
+        }
+
+        Path parent = target.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, "gazetteer", ".tmp");
+        try (OutputStream file = Files.newOutputStream(temp);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(GazetteerFile.MAGIC);
+            out.writeInt(GazetteerFile.VERSION);
+            out.writeLong(sourceChecksum);
+            out.writeInt(places.size());
+            out.writeInt(keys.length);
+            out.writeInt(placesOffset);
+            out.writeInt(keysOffset);
+            out.writeInt(keyBlobOffset);
+            out.writeInt(nameBlobOffset);
+
+            int nameOffset = 0;
+            for (int i = 0; i < places.size(); i++) {
+                PlaceRecord place = places.get(i);
+                out.writeInt((int) Math.round(place.lat * GazetteerFile.MICRO_DEGREES));
+                out.writeInt((int) Math.round(place.lon * GazetteerFile.MICRO_DEGREES));
+                out.writeInt(place.population);
+                out.writeInt(nameOffset);
+                out.writeInt(names[i].length);
+                nameOffset += names[i].length;
+            }
+
+            int keyOffset = 0;
+            for (String key : keys) {
+                out.writeInt(keyOffset);
+                out.writeInt(key.length());
+                out.writeInt(keyToPlace.get(key));
+                keyOffset += key.length();
+            }
+
+            for (String key : keys) {
+                out.write(key.getBytes(StandardCharsets.US_ASCII));
+            }
+            for (byte[] name : names) {
+                out.write(name);
+            }
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class PlaceRecord {
+        final String name;
+        final List<String> variants;
+        final double lat;
+        final double lon;
+        final int population;
+
+        PlaceRecord(String name, List<String> variants, double lat, double lon, int population) {
+            this.name = name;
+            this.variants = variants;
+            this.lat = lat;
+            this.lon = lon;
+            this.population = population;
+        }
+    }
+}
@@ -0,0 +1,169 @@
+package com.ridesharing.geo;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Optional;
+
+/**
+ * Read-only view of a compiled gazetteer, memory-mapped so the data lives in the page cache
+ * rather than on the heap
+ *
+ * Layout (big-endian):
+ *   header  : magic, version, source checksum (long), place count, key count,
+ *             places offset, keys offset, key blob offset, name blob offset
+ *   places  : latE6, lonE6, population, name offset, name length   (20 bytes each)
+ *   keys    : key offset, key length, place index                   (12 bytes each, sorted by key)
+ *   key blob: normalized ASCII keys; name blob: UTF-8 display names
+ * Lookups binary-search the key table and compare bytes in place, so they allocate nothing
+ * until a match is materialized. Absolute reads on the shared buffer are thread-safe.
+ */
+public final class GazetteerFile {
+
+    static final int MAGIC = 0x5352475A; // "SRGZ"
+    static final int VERSION = 1;
+    static final int HEADER_BYTES = 40;
+    static final int PLACE_BYTES = 20;
+    static final int KEY_BYTES = 12;
+    static final double MICRO_DEGREES = 1_000_000.0;
+
+    private final MappedByteBuffer buffer;
+    private final long sourceChecksum;
+    private final int placeCount;
+    private final int keyCount;
+    private final int placesOffset;
+    private final int keysOffset;
+    private final int keyBlobOffset;
+    private final int nameBlobOffset;
+
+    private GazetteerFile(MappedByteBuffer buffer) throws IOException {
+        this.buffer = buffer;
+        if (buffer.capacity() < HEADER_BYTES || buffer.getInt(0) != MAGIC) {
+            throw new IOException("Not a gazetteer file");
+        }
+        if (buffer.getInt(4) != VERSION) {
+            throw new IOException("Unsupported gazetteer version " + buffer.getInt(4));
+        }
+        this.sourceChecksum = buffer.getLong(8);
+        this.placeCount = buffer.getInt(16);
+        this.keyCount = buffer.getInt(20);
+        this.placesOffset = buffer.getInt(24);
+        this.keysOffset = buffer.getInt(28);
+        this.keyBlobOffset = buffer.getInt(32);
+        this.nameBlobOffset = buffer.getInt(36);
+    }
+
+    /**
+     * Map a compiled gazetteer file
+     */
+    public static GazetteerFile open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            // The mapping stays valid after the channel is closed
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new GazetteerFile(buffer);
+        }
+    }
+
+    public long getSourceChecksum() {
+        return sourceChecksum;
+    }
+
+    public int getPlaceCount() {
+        return placeCount;
+    }
+
+    public int getKeyCount() {
+        return keyCount;
+    }
+
+    /**
+     * Look up any name variant ("Bengaluru", "bangalore, india", ...)
+     */
+    public Optional<Place> find(String placeName) {
+        int placeIndex = indexOf(PlaceNames.normalize(placeName));
+        return placeIndex < 0 ? Optional.empty() : Optional.of(place(placeIndex));
+    }
+
+    /**
+     * Place index for a normalized key, or -1
+     */
+    public int indexOf(String normalizedKey) {
+        if (normalizedKey.isEmpty()) {
+            return -1;
+        }
+        int low = 0;
+        int high = keyCount - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int cmp = compareKey(mid, normalizedKey);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return buffer.getInt(keysOffset + mid * KEY_BYTES + 8);
+            }
+        }
+        return -1;
+    }
+
+    public Place place(int index) {
+        int base = placesOffset + index * PLACE_BYTES;
+        double lat = buffer.getInt(base) / MICRO_DEGREES;
+        double lon = buffer.getInt(base + 4) / MICRO_DEGREES;
+        int population = buffer.getInt(base + 8);
+        int nameOffset = buffer.getInt(base + 12);
+        int nameLength = buffer.getInt(base + 16);
+
+        byte[] name = new byte[nameLength];
+        buffer.get(nameBlobOffset + nameOffset, name);
+        return new Place(new String(name, StandardCharsets.UTF_8), new GeoPoint(lat, lon), population);
+    }
+
+    /**
+     * Compare the stored key at a table slot with a normalized (ASCII) key
+     */
+    private int compareKey(int slot, String key) {
+        int entry = keysOffset + slot * KEY_BYTES;
+        int offset = keyBlobOffset + buffer.getInt(entry);
+        int length = buffer.getInt(entry + 4);
+        int common = Math.min(length, key.length());
+        for (int i = 0; i < common; i++) {
+            int diff = (buffer.get(offset + i) & 0xFF) - key.charAt(i);
+            if (diff != 0) {
+                return diff;
+            }
+        }
+        return length - key.length();
+    }
+
+    /**
+     * Gazetteer entry
+     */
+    public static final class Place {
+        private final String name;
+        private final GeoPoint point;
+        private final int population;
+
+        public Place(String name, GeoPoint point, int population) {
+            this.name = name;
+            this.point = point;
+            this.population = population;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public GeoPoint getPoint() {
+            return point;
+        }
+
+        public int getPopulation() {
+            return population;
+        }
+    }
+}
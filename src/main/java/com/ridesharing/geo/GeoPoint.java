@@ -0,0 +1,38 @@
+package com.ridesharing.geo;
+
+import lombok.Value;
+
+/**
+ * Latitude/longitude pair in decimal degrees
+ */
+@Value
+public class GeoPoint {
+
+    private static final double EARTH_RADIUS_KM = 6371.0;
+
+    double lat;
+    double lon;
+
+    /**
+     * Great-circle (Haversine) distance in km
+     */
+    public double distanceKmTo(GeoPoint other) {
+        return distanceKm(lat, lon, other.lat, other.lon);
+    }
+
+    /**
+     * Haversine distance in km between raw coordinates (no allocation, for hot loops)
+     */
+    public static double distanceKm(double lat1, double lon1, double lat2, double lon2) {
+        double latDistance = Math.toRadians(lat2 - lat1);
+        double lonDistance = Math.toRadians(lon2 - lon1);
+
+        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
+                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
+                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
+
+        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+
+        return EARTH_RADIUS_KM * c;
+    }
+}
@@ -0,0 +1,195 @@
+package com.ridesharing.geo;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.ridesharing.entity.GeocodedPlace;
+import com.ridesharing.repository.GeocodedPlaceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Geocoding Service - Two-tier cache in front of Nominatim
+ *
+ * Tier 1: in-memory Caffeine cache (LRU-ish size bound + TTL), including short-lived negative entries
+ * Tier 2: geocoded_places table keyed by normalized name, so lookups survive restarts
+ * Misses are loaded through AsyncCache.get, which runs at most one load per key at a time
+ * (single-flight): concurrent quotes for the same city wait for one Nominatim call. The loader only
+ * starts the work and returns its future, so nothing blocks inside Caffeine's map compute (which
+ * holds a lock and would pin a virtual thread); database steps run on virtual threads and the
+ * Nominatim call is chained on its non-blocking future.
+ */
+@Service
+@Slf4j
+public class GeocodingService {
+
+    private static final String SOURCE_NOMINATIM = "NOMINATIM";
+
+    private final GeocodedPlaceRepository placeRepository;
+    private final NominatimClient nominatimClient;
+    private final AsyncCache<String, Optional<GeoPoint>> memoryTier;
+    private final ExecutorService loaders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Duration persistentTtl;
+
+    private final Counter databaseHits;
+    private final Counter networkLookups;
+    private final Counter networkFailures;
+
+    public GeocodingService(GeocodedPlaceRepository placeRepository,
+                            NominatimClient nominatimClient,
+                            MeterRegistry meterRegistry,
+                            @Value("${app.geocoding.cache.max-size:10000}") long maxSize,
+                            @Value("${app.geocoding.cache.ttl-hours:24}") long memoryTtlHours,
+                            @Value("${app.geocoding.cache.negative-ttl-minutes:10}") long negativeTtlMinutes,
+                            @Value("${app.geocoding.cache.persistent-ttl-days:180}") long persistentTtlDays) {
+        this.placeRepository = placeRepository;
+        this.nominatimClient = nominatimClient;
+        this.persistentTtl = Duration.ofDays(persistentTtlDays);
+
+        long positiveTtlNanos = Duration.ofHours(memoryTtlHours).toNanos();
+        long negativeTtlNanos = Duration.ofMinutes(negativeTtlMinutes).toNanos();
+        this.memoryTier = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Optional<GeoPoint>>() {
+                    @Override
+                    public long expireAfterCreate(String key, Optional<GeoPoint> value, long currentTime) {
+                        return value.isPresent() ? positiveTtlNanos : negativeTtlNanos;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, Optional<GeoPoint> value, long currentTime, long currentDuration) {
+                        return expireAfterCreate(key, value, currentTime);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, Optional<GeoPoint> value, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .executor(loaders)
+                .recordStats()
+                .buildAsync();
+
+        // geocode.memory: cache.gets{result=hit|miss}, cache.evictions, ...
+        CaffeineCacheMetrics.monitor(meterRegistry, memoryTier, "geocode.memory");
+        this.databaseHits = Counter.builder("geocode.database.hits")
+                .description("Geocoding lookups served by the persistent tier")
+                .register(meterRegistry);
+        this.networkLookups = Counter.builder("geocode.network.lookups")
+                .description("Geocoding lookups sent to Nominatim")
+                .register(meterRegistry);
+        this.networkFailures = Counter.builder("geocode.network.failures")
+                .description("Nominatim lookups that failed (not cached)")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        loaders.shutdown();
+    }
+
+    /**
+     * Resolve a place name to coordinates; empty if unknown or the provider is unreachable
+     */
+    public Optional<GeoPoint> geocode(String placeName) {
+        String key = PlaceNames.normalize(placeName);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        try {
+            // Waits outside the cache's lock; failed loads are dropped from the cache, so the next quote retries
+            return memoryTier.get(key, (k, executor) -> load(k, placeName, executor)).join();
+        } catch (RuntimeException e) {
+            Throwable cause = e instanceof CompletionException && e.getCause() != null ? e.getCause() : e;
+            log.warn("Failed to get coordinates for {}: {}", placeName, cause.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Cached coordinates only (memory, then database) - never touches the network
+     */
+    public Optional<GeoPoint> geocodeCached(String placeName) {
+        String key = PlaceNames.normalize(placeName);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        CompletableFuture<Optional<GeoPoint>> cached = memoryTier.getIfPresent(key);
+        if (cached != null && cached.isDone() && !cached.isCompletedExceptionally()) {
+            return cached.join();
+        }
+        return placeRepository.findByNormalizedName(key).map(this::toPoint);
+    }
+
+    /**
+     * Memory-tier stats (hit rate etc.) for diagnostics
+     */
+    public CacheStats getMemoryStats() {
+        return memoryTier.synchronous().stats();
+    }
+
+    private CompletableFuture<Optional<GeoPoint>> load(String key, String placeName, Executor executor) {
+        return CompletableFuture.supplyAsync(() -> placeRepository.findByNormalizedName(key), executor)
+                .thenCompose(stored -> {
+                    if (stored.isPresent() && stored.get().getRefreshedAt().isAfter(LocalDateTime.now().minus(persistentTtl))) {
+                        databaseHits.increment();
+                        return CompletableFuture.completedFuture(Optional.of(toPoint(stored.get())));
+                    }
+                    networkLookups.increment();
+                    return nominatimClient.searchAsync(placeName)
+                            .handleAsync((result, error) -> {
+                                if (error != null) {
+                                    networkFailures.increment();
+                                    // Stale coordinates beat none when Nominatim is down
+                                    if (stored.isPresent()) {
+                                        return Optional.of(toPoint(stored.get()));
+                                    }
+                                    throw error instanceof CompletionException completion
+                                            ? completion : new CompletionException(error);
+                                }
+                                result.ifPresent(found -> persist(stored.orElse(null), key, placeName, found));
+                                return result.map(NominatimClient.Result::getPoint);
+                            }, executor);
+                });
+    }
+
+    private void persist(GeocodedPlace existing, String key, String placeName, NominatimClient.Result found) {
+        GeocodedPlace place = existing != null ? existing : new GeocodedPlace();
+        place.setNormalizedName(key);
+        if (place.getQueryText() == null) {
+            place.setQueryText(placeName);
+        }
+        place.setLatitude(found.getPoint().getLat());
+        place.setLongitude(found.getPoint().getLon());
+        place.setDisplayName(found.getDisplayName() != null && found.getDisplayName().length() > 500
+                ? found.getDisplayName().substring(0, 500) : found.getDisplayName());
+        place.setSource(SOURCE_NOMINATIM);
+        place.setRefreshedAt(LocalDateTime.now());
+        try {
+            placeRepository.save(place);
+        } catch (DataIntegrityViolationException e) {
+            // Another node stored the same place first; its row is just as good
+            log.debug("Geocoded place {} already stored", key);
+        }
+    }
+
+    private GeoPoint toPoint(GeocodedPlace place) {
+        return new GeoPoint(place.getLatitude(), place.getLongitude());
+    }
+}
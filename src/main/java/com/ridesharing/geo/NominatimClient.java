@@ -0,0 +1,110 @@
+package com.ridesharing.geo;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ridesharing.config.OutboundConfig;
+import com.ridesharing.outbound.OutboundCallGuard;
+import com.ridesharing.outbound.OutboundHttpClient;
+import com.ridesharing.outbound.OutboundProvider;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.web.util.UriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Nominatim (OpenStreetMap) geocoder - FREE, no API key
+ * Requests go out on the shared non-blocking HTTP client; network errors propagate so callers can
+ * tell "not found" from "could not ask"
+ */
+@Component
+@Slf4j
+public class NominatimClient {
+
+    private final OutboundHttpClient httpClient;
+    private final OutboundCallGuard outboundCallGuard;
+    private final ObjectMapper objectMapper;
+    private final int maxConcurrent;
+
+    @Value("${app.geocoding.nominatim.url:https://nominatim.openstreetmap.org/search}")
+    private String searchUrl;
+
+    // Nominatim's usage policy requires an identifying User-Agent
+    @Value("${app.geocoding.nominatim.user-agent:SmartRide/1.0}")
+    private String userAgent;
+
+    public NominatimClient(OutboundHttpClient httpClient, OutboundCallGuard outboundCallGuard,
+                           OutboundConfig outboundConfig, ObjectMapper objectMapper) {
+        this.httpClient = httpClient;
+        this.outboundCallGuard = outboundCallGuard;
+        this.objectMapper = objectMapper;
+        // Nominatim's usage policy: keep parallel requests to its host low
+        this.maxConcurrent = outboundConfig.limitsFor(OutboundProvider.NOMINATIM).getMaxConcurrent();
+    }
+
+    /**
+     * Geocode a place in India; empty when Nominatim has no match
+     */
+    public CompletableFuture<Optional<Result>> searchAsync(String placeName) {
+        URI uri = UriComponentsBuilder.fromUriString(searchUrl)
+                .queryParam("q", placeName + ",India")
+                .queryParam("format", "json")
+                .queryParam("limit", 1)
+                .build()
+                .encode()
+                .toUri();
+
+        HttpRequest request = httpClient.get(uri)
+                .header(HttpHeaders.USER_AGENT, userAgent)
+                .header(HttpHeaders.ACCEPT, "application/json")
+                .build();
+
+        return outboundCallGuard.callAsync(OutboundProvider.NOMINATIM, () -> httpClient.sendAsync(request, maxConcurrent))
+                .thenApply(this::parse);
+    }
+
+    private Optional<Result> parse(HttpResponse<String> response) {
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Nominatim returned HTTP " + response.statusCode());
+        }
+        NominatimResponse[] matches;
+        try {
+            matches = objectMapper.readValue(response.body(), NominatimResponse[].class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Unreadable Nominatim response", e);
+        }
+
+        if (matches != null && matches.length > 0) {
+            NominatimResponse match = matches[0];
+            return Optional.of(new Result(
+                    new GeoPoint(Double.parseDouble(match.lat), Double.parseDouble(match.lon)),
+                    match.displayName));
+        }
+        return Optional.empty();
+    }
+
+    @lombok.Value
+    public static class Result {
+        GeoPoint point;
+        String displayName;
+    }
+
+    @Data
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private static class NominatimResponse {
+        String lat;
+        String lon;
+        @JsonProperty("display_name")
+        String displayName;
+    }
+}
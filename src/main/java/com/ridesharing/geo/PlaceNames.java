@@ -0,0 +1,41 @@
+package com.ridesharing.geo;
+
+import java.util.Locale;
+
+/**
+ * Place name normalization shared by every geocoding tier
+ * "New Delhi, India", "new delhi" and "NEW-DELHI" all map to the key "newdelhi"
+ */
+public final class PlaceNames {
+
+    private PlaceNames() {
+    }
+
+    public static String normalize(String placeName) {
+        if (placeName == null) {
+            return "";
+        }
+        String name = placeName.toLowerCase(Locale.ROOT).trim();
+        name = stripCountrySuffix(name);
+
+        StringBuilder key = new StringBuilder(name.length());
+        for (int i = 0; i < name.length(); i++) {
+            char c = name.charAt(i);
+            if ((c >= 'a' && c <= 'z') || (c >= '0' && c <= '9')) {
+                key.append(c);
+            }
+        }
+        return key.toString();
+    }
+
+    private static String stripCountrySuffix(String name) {
+        String compact = name.replace(" ", "");
+        if (compact.endsWith(",india")) {
+            return name.substring(0, name.lastIndexOf(','));
+        }
+        if (compact.endsWith(",in")) {
+            return name.substring(0, name.lastIndexOf(','));
+        }
+        return name;
+    }
+}
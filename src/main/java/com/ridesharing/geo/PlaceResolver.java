@@ -0,0 +1,114 @@
+package com.ridesharing.geo;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Resolves the origin and destination of a quote to coordinates
+ *
+ * Each name goes through the tiers once: offline gazetteer, then the geocoding cache
+ * (memory, database, Nominatim). Both names are resolved concurrently on virtual threads and the
+ * pair shares one deadline; a name that is still waiting on the network when it expires resolves
+ * to null so the caller can fall back to local data. The abandoned lookup keeps running in the
+ * background and warms the cache for the next quote.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PlaceResolver {
+
+    private final Gazetteer gazetteer;
+    private final GeocodingService geocodingService;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    @Value("${app.geocoding.deadline-ms:2500}")
+    private long deadlineMs;
+
+    /**
+     * Resolve both places within the deadline; unresolved places are null
+     */
+    public Resolution resolve(String origin, String destination) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        CompletableFuture<GeoPoint> originLookup = lookup(origin);
+        // Same place twice (e.g. "Pune" / "pune, India") is looked up once
+        CompletableFuture<GeoPoint> destinationLookup =
+                PlaceNames.normalize(origin).equals(PlaceNames.normalize(destination)) ? originLookup : lookup(destination);
+
+        return new Resolution(await(originLookup, origin, deadline), await(destinationLookup, destination, deadline));
+    }
+
+    /**
+     * Resolve many places under one shared deadline; each distinct normalized name is looked up
+     * once. The result is keyed by normalized name ({@link PlaceNames#normalize}); unresolved
+     * places map to null.
+     */
+    public Map<String, GeoPoint> resolveAll(Collection<String> placeNames) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(deadlineMs);
+
+        Map<String, String> namesByKey = new LinkedHashMap<>();
+        for (String placeName : placeNames) {
+            namesByKey.putIfAbsent(PlaceNames.normalize(placeName), placeName);
+        }
+
+        // Start every lookup before waiting on any of them
+        Map<String, CompletableFuture<GeoPoint>> lookups = new LinkedHashMap<>();
+        namesByKey.forEach((key, placeName) -> lookups.put(key, lookup(placeName)));
+
+        Map<String, GeoPoint> resolved = new HashMap<>();
+        lookups.forEach((key, lookup) -> resolved.put(key, await(lookup, namesByKey.get(key), deadline)));
+        return resolved;
+    }
+
+    private CompletableFuture<GeoPoint> lookup(String placeName) {
+        // Offline hit: no thread hop needed
+        Optional<GeoPoint> local = gazetteer.locate(placeName);
+        if (local.isPresent()) {
+            return CompletableFuture.completedFuture(local.get());
+        }
+        return CompletableFuture.supplyAsync(() -> geocodingService.geocode(placeName).orElse(null), executor);
+    }
+
+    private GeoPoint await(CompletableFuture<GeoPoint> lookup, String placeName, long deadline) {
+        try {
+            long remaining = Math.max(0, deadline - System.nanoTime());
+            return lookup.get(remaining, TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Geocoding deadline of {} ms spent for {}", deadlineMs, placeName);
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } catch (ExecutionException e) {
+            log.warn("Failed to resolve {}: {}", placeName, e.getCause().getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Coordinates for a quote's origin and destination
+     */
+    @lombok.Value
+    public static class Resolution {
+        GeoPoint origin;
+        GeoPoint destination;
+
+        public boolean isComplete() {
+            return origin != null && destination != null;
+        }
+    }
+}
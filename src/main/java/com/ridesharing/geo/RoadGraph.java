@@ -0,0 +1,137 @@
+package com.ridesharing.geo;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Directed road graph in compressed sparse row form, held entirely in primitive arrays
+ *
+ * Node i has coordinates (latE6[i], lonE6[i]) in micro-degrees and outgoing edges
+ * firstEdge[i] .. firstEdge[i + 1] - 1. Edge e leads to target[e], is lengthMeters[e] long and
+ * takes timeMs[e] to drive. maxSpeedKmh is the fastest edge speed, used by the A* heuristic.
+ *
+ * File layout (big-endian): magic, version, nodeCount, edgeCount, maxSpeedKmh, then the six
+ * int arrays in the order above. Built offline by {@link RoadGraphBuilder}.
+ */
+public final class RoadGraph {
+
+    static final int MAGIC = 0x53525247; // "SRRG"
+    static final int VERSION = 1;
+    private static final int HEADER_INTS = 5;
+
+    final int nodeCount;
+    final int edgeCount;
+    final int maxSpeedKmh;
+    final int[] latE6;
+    final int[] lonE6;
+    final int[] firstEdge;
+    final int[] target;
+    final int[] lengthMeters;
+    final int[] timeMs;
+
+    RoadGraph(int maxSpeedKmh, int[] latE6, int[] lonE6, int[] firstEdge,
+              int[] target, int[] lengthMeters, int[] timeMs) {
+        this.nodeCount = latE6.length;
+        this.edgeCount = target.length;
+        this.maxSpeedKmh = maxSpeedKmh;
+        this.latE6 = latE6;
+        this.lonE6 = lonE6;
+        this.firstEdge = firstEdge;
+        this.target = target;
+        this.lengthMeters = lengthMeters;
+        this.timeMs = timeMs;
+    }
+
+    public int getNodeCount() {
+        return nodeCount;
+    }
+
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    public double lat(int node) {
+        return latE6[node] / 1_000_000.0;
+    }
+
+    public double lon(int node) {
+        return lonE6[node] / 1_000_000.0;
+    }
+
+    /**
+     * Load a graph file; the arrays are bulk-copied from a memory mapping
+     */
+    public static RoadGraph load(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            IntBuffer ints = mapped.asIntBuffer();
+            if (ints.get(0) != MAGIC || ints.get(1) != VERSION) {
+                throw new IOException("Not a road graph file (or unsupported version)");
+            }
+            int nodes = ints.get(2);
+            int edges = ints.get(3);
+            int maxSpeed = ints.get(4);
+            ints.position(HEADER_INTS);
+
+            int[] lat = read(ints, nodes);
+            int[] lon = read(ints, nodes);
+            int[] first = read(ints, nodes + 1);
+            int[] targets = read(ints, edges);
+            int[] lengths = read(ints, edges);
+            int[] times = read(ints, edges);
+            return new RoadGraph(maxSpeed, lat, lon, first, targets, lengths, times);
+        }
+    }
+
+    /**
+     * Write the graph atomically
+     */
+    public void save(Path file) throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        Path temp = Files.createTempFile(parent, "road-graph", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(nodeCount);
+            out.writeInt(edgeCount);
+            out.writeInt(maxSpeedKmh);
+            write(out, latE6);
+            write(out, lonE6);
+            write(out, firstEdge);
+            write(out, target);
+            write(out, lengthMeters);
+            write(out, timeMs);
+        }
+        Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static int[] read(IntBuffer ints, int count) {
+        int[] values = new int[count];
+        ints.get(values);
+        return values;
+    }
+
+    private static void write(DataOutputStream out, int[] values) throws IOException {
+        ByteBuffer chunk = ByteBuffer.allocate(4 * 4096);
+        for (int i = 0; i < values.length; i++) {
+            chunk.putInt(values[i]);
+            if (!chunk.hasRemaining()) {
+                out.write(chunk.array(), 0, chunk.position());
+                chunk.clear();
+            }
+        }
+        out.write(chunk.array(), 0, chunk.position());
+    }
+}
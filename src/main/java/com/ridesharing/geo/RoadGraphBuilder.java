@@ -0,0 +1,186 @@
+package com.ridesharing.geo;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Offline preprocessor: builds a {@link RoadGraph} file from a road network extracted from OSM
+ *
+ * Input is the drivable network of an OSM extract split into node-to-node segments, e.g. exported
+ * from india-latest.osm.pbf with osmium/ogr2ogr or any script:
+ *   nodes file: osmNodeId,lat,lon
+ *   edges file: fromOsmNodeId,toOsmNodeId,highway,oneway[,maxspeedKmh]
+ *     highway = OSM highway tag (motorway, trunk, primary, ...), oneway = yes | no | -1
+ * Segment length is the Haversine distance between its nodes; travel time uses maxspeed when
+ * given, otherwise a default speed per highway class.
+ *
+ * Usage: java com.ridesharing.geo.RoadGraphBuilder nodes.csv edges.csv data/road-graph.bin
+ */
+public final class RoadGraphBuilder {
+
+    private static final Map<String, Integer> DEFAULT_SPEEDS_KMH = new HashMap<>();
+
+    static {
+        DEFAULT_SPEEDS_KMH.put("motorway", 100);
+        DEFAULT_SPEEDS_KMH.put("trunk", 80);
+        DEFAULT_SPEEDS_KMH.put("primary", 65);
+        DEFAULT_SPEEDS_KMH.put("secondary", 55);
+        DEFAULT_SPEEDS_KMH.put("tertiary", 45);
+        DEFAULT_SPEEDS_KMH.put("unclassified", 35);
+        DEFAULT_SPEEDS_KMH.put("residential", 25);
+        DEFAULT_SPEEDS_KMH.put("living_street", 10);
+        DEFAULT_SPEEDS_KMH.put("service", 15);
+    }
+
+    private static final int FALLBACK_SPEED_KMH = 30;
+
+    private RoadGraphBuilder() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length < 3) {
+            System.err.println("Usage: RoadGraphBuilder <nodes.csv> <edges.csv> <target.bin>");
+            System.exit(1);
+        }
+        long started = System.currentTimeMillis();
+        RoadGraph graph = build(Paths.get(args[0]), Paths.get(args[1]));
+        graph.save(Paths.get(args[2]));
+        System.out.printf("Built road graph: %d nodes, %d edges in %d ms%n",
+                graph.getNodeCount(), graph.getEdgeCount(), System.currentTimeMillis() - started);
+    }
+
+    public static RoadGraph build(Path nodesFile, Path edgesFile) throws IOException {
+        // Pass 1: nodes
+        Map<Long, Integer> nodeIndex = new HashMap<>();
+        IntList lat = new IntList();
+        IntList lon = new IntList();
+        try (BufferedReader reader = Files.newBufferedReader(nodesFile)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(",");
+                if (columns.length < 3 || !Character.isDigit(columns[0].charAt(0))) {
+                    continue;
+                }
+                nodeIndex.put(Long.parseLong(columns[0]), lat.size());
+                lat.add((int) Math.round(Double.parseDouble(columns[1]) * 1_000_000));
+                lon.add((int) Math.round(Double.parseDouble(columns[2]) * 1_000_000));
+            }
+        }
+
+        // Pass 2: directed edges (two-way segments become two edges)
+        IntList from = new IntList();
+        IntList to = new IntList();
+        IntList lengths = new IntList();
+        IntList times = new IntList();
+        int maxSpeed = 1;
+        try (BufferedReader reader = Files.newBufferedReader(edgesFile)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                String[] columns = line.split(",");
+                if (columns.length < 4 || !Character.isDigit(columns[0].charAt(0))) {
+                    continue;
+                }
+                Integer a = nodeIndex.get(Long.parseLong(columns[0]));
+                Integer b = nodeIndex.get(Long.parseLong(columns[1]));
+                if (a == null || b == null || a.equals(b)) {
+                    continue;
+                }
+                int speed = speedKmh(columns[2], columns.length > 4 ? columns[4] : null);
+                maxSpeed = Math.max(maxSpeed, speed);
+
+                GeoPoint pa = new GeoPoint(lat.get(a) / 1_000_000.0, lon.get(a) / 1_000_000.0);
+                GeoPoint pb = new GeoPoint(lat.get(b) / 1_000_000.0, lon.get(b) / 1_000_000.0);
+                int meters = Math.max(1, (int) Math.round(pa.distanceKmTo(pb) * 1000));
+                int millis = (int) Math.round(meters * 3600.0 / speed);
+
+                String oneway = columns[3].trim().toLowerCase(Locale.ROOT);
+                if (!"-1".equals(oneway)) {
+                    from.add(a);
+                    to.add(b);
+                    lengths.add(meters);
+                    times.add(millis);
+                }
+                if (!"yes".equals(oneway) && !"true".equals(oneway) && !"1".equals(oneway)) {
+                    from.add(b);
+                    to.add(a);
+                    lengths.add(meters);
+                    times.add(millis);
+                }
+            }
+        }
+
+        // Compressed sparse row: counting sort of edges by source node
+        int nodes = lat.size();
+        int edges = from.size();
+        int[] firstEdge = new int[nodes + 1];
+        for (int e = 0; e < edges; e++) {
+            firstEdge[from.get(e) + 1]++;
+        }
+        for (int i = 0; i < nodes; i++) {
+            firstEdge[i + 1] += firstEdge[i];
+        }
+        int[] cursor = firstEdge.clone();
+        int[] target = new int[edges];
+        int[] lengthMeters = new int[edges];
+        int[] timeMs = new int[edges];
+        for (int e = 0; e < edges; e++) {
+            int slot = cursor[from.get(e)]++;
+            target[slot] = to.get(e);
+            lengthMeters[slot] = lengths.get(e);
+            timeMs[slot] = times.get(e);
+        }
+
+        return new RoadGraph(maxSpeed, lat.toArray(), lon.toArray(), firstEdge, target, lengthMeters, timeMs);
+    }
+
+    private static int speedKmh(String highway, String maxspeed) {
+        if (maxspeed != null && !maxspeed.isBlank()) {
+            try {
+                int parsed = Integer.parseInt(maxspeed.trim());
+                if (parsed > 0) {
+                    return parsed;
+                }
+            } catch (NumberFormatException ignored) {
+                // e.g. "IN:urban" - fall back to the class default
+            }
+        }
+        String type = highway.trim().toLowerCase(Locale.ROOT);
+        boolean link = type.endsWith("_link");
+        Integer speed = DEFAULT_SPEEDS_KMH.get(link ? type.substring(0, type.length() - 5) : type);
+        int kmh = speed != null ? speed : FALLBACK_SPEED_KMH;
+        return link ? Math.max(20, kmh * 7 / 10) : kmh;
+    }
+
+    /**
+     * Growable int array (avoids boxing millions of values)
+     */
+    private static final class IntList {
+        private int[] values = new int[1024];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = java.util.Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+
+        int get(int index) {
+            return values[index];
+        }
+
+        int size() {
+            return size;
+        }
+
+        int[] toArray() {
+            return java.util.Arrays.copyOf(values, size);
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.ridesharing.geo;
+
+import java.util.Arrays;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Shortest-travel-time routing over a {@link RoadGraph} with A*
+ *
+ * Heuristic: straight-line distance at the graph's top speed, which never overestimates, so
+ * routes are optimal. Endpoints are snapped to the nearest graph node through a uniform grid
+ * index; the snap legs are added to the route at access-road speed.
+ * Per-query search state (primitive arrays sized to the graph) is pooled and reset lazily with a
+ * generation stamp, so a query allocates almost nothing. Thread-safe.
+ */
+public final class RoadRouter {
+
+    private static final double CELL_DEGREES = 0.02;       // ~2 km grid cells
+    private static final int ACCESS_SPEED_KMH = 30;
+
+    private final RoadGraph graph;
+    private final double maxSnapKm;
+    private final double msPerMeterAtMaxSpeed;
+
+    // Grid index: node ids sorted by cell, cellKeys[i] is the cell of sortedNodes[i]
+    private final long[] cellKeys;
+    private final int[] sortedNodes;
+
+    private final ConcurrentLinkedQueue<SearchState> statePool = new ConcurrentLinkedQueue<>();
+
+    public RoadRouter(RoadGraph graph, double maxSnapKm) {
+        this.graph = graph;
+        this.maxSnapKm = maxSnapKm;
+        this.msPerMeterAtMaxSpeed = 3600.0 / graph.maxSpeedKmh;
+
+        long[] packed = new long[graph.nodeCount];
+        for (int node = 0; node < graph.nodeCount; node++) {
+            packed[node] = (cellKey(cellRow(graph.lat(node)), cellCol(graph.lon(node))) << 32) | node;
+        }
+        Arrays.sort(packed);
+        this.cellKeys = new long[packed.length];
+        this.sortedNodes = new int[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            cellKeys[i] = packed[i] >>> 32;
+            sortedNodes[i] = (int) packed[i];
+        }
+    }
+
+    public RoadGraph getGraph() {
+        return graph;
+    }
+
+    /**
+     * Fastest road route between two points; empty if either point is off the network or unreachable
+     */
+    public Optional<Route> route(GeoPoint origin, GeoPoint destination) {
+        int source = nearestNode(origin);
+        int target = nearestNode(destination);
+        if (source < 0 || target < 0) {
+            return Optional.empty();
+        }
+
+        double accessMeters = (distanceMeters(origin, source) + distanceMeters(destination, target));
+        long accessMs = Math.round(accessMeters * 3600.0 / ACCESS_SPEED_KMH);
+        if (source == target) {
+            return Optional.of(new Route(Math.round(accessMeters), accessMs));
+        }
+
+        SearchState state = borrowState();
+        try {
+            long found = search(state, source, target);
+            if (found < 0) {
+                return Optional.empty();
+            }
+            return Optional.of(new Route(state.meters[target] + Math.round(accessMeters), state.timeMs[target] + accessMs));
+        } finally {
+            statePool.offer(state);
+        }
+    }
+
+    /**
+     * Fastest routes from one origin to many destinations with a single one-to-many Dijkstra
+     * search; entries are null where a destination is off the network or unreachable
+     */
+    public Route[] routeToAll(GeoPoint origin, GeoPoint[] destinations) {
+        Route[] routes = new Route[destinations.length];
+        int source = nearestNode(origin);
+        if (source < 0) {
+            return routes;
+        }
+        double originAccessMeters = distanceMeters(origin, source);
+
+        int[] targets = new int[destinations.length];
+        for (int i = 0; i < destinations.length; i++) {
+            targets[i] = nearestNode(destinations[i]);
+        }
+        int[] pending = Arrays.stream(targets).filter(node -> node >= 0).distinct().sorted().toArray();
+
+        SearchState state = borrowState();
+        try {
+            int generation = state.nextGeneration();
+            state.visit(source, generation, 0L, 0L);
+            state.heap.clear();
+            state.heap.push(0L, source);
+            int remaining = pending.length;
+
+            while (remaining > 0 && !state.heap.isEmpty()) {
+                int node = state.heap.pop();
+                if (state.settled[node] == generation) {
+                    continue;
+                }
+                state.settled[node] = generation;
+                if (Arrays.binarySearch(pending, node) >= 0) {
+                    remaining--;
+                }
+                long time = state.timeMs[node];
+                for (int e = graph.firstEdge[node]; e < graph.firstEdge[node + 1]; e++) {
+                    int next = graph.target[e];
+                    long nextTime = time + graph.timeMs[e];
+                    if (state.settled[next] != generation
+                            && (state.seen[next] != generation || nextTime < state.timeMs[next])) {
+                        state.visit(next, generation, nextTime, state.meters[node] + graph.lengthMeters[e]);
+                        state.heap.push(nextTime, next);
+                    }
+                }
+            }
+
+            for (int i = 0; i < destinations.length; i++) {
+                int target = targets[i];
+                if (target < 0 || state.settled[target] != generation) {
+                    continue;
+                }
+                double accessMeters = originAccessMeters + distanceMeters(destinations[i], target);
+                routes[i] = new Route(state.meters[target] + Math.round(accessMeters),
+                        state.timeMs[target] + Math.round(accessMeters * 3600.0 / ACCESS_SPEED_KMH));
+            }
+            return routes;
+        } finally {
+            statePool.offer(state);
+        }
+    }
+
+    /**
+     * A* on travel time; returns the travel time to target or -1 if unreachable
+     */
+    private long search(SearchState state, int source, int target) {
+        int generation = state.nextGeneration();
+        double targetLat = graph.lat(target);
+        double targetLon = graph.lon(target);
+
+        state.visit(source, generation, 0L, 0L);
+        state.heap.clear();
+        state.heap.push(heuristic(source, targetLat, targetLon), source);
+
+        while (!state.heap.isEmpty()) {
+            long priority = state.heap.peekPriority();
+            int node = state.heap.pop();
+            long time = state.timeMs[node];
+            // Stale heap entry (node was improved after it was pushed)
+            if (priority > time + heuristic(node, targetLat, targetLon) || state.settled[node] == generation) {
+                continue;
+            }
+            state.settled[node] = generation;
+            if (node == target) {
+                return time;
+            }
+
+            for (int e = graph.firstEdge[node]; e < graph.firstEdge[node + 1]; e++) {
+                int next = graph.target[e];
+                if (state.settled[next] == generation) {
+                    continue;
+                }
+                long nextTime = time + graph.timeMs[e];
+                if (state.seen[next] != generation || nextTime < state.timeMs[next]) {
+                    state.visit(next, generation, nextTime, state.meters[node] + graph.lengthMeters[e]);
+                    state.heap.push(nextTime + heuristic(next, targetLat, targetLon), next);
+                }
+            }
+        }
+        return -1;
+    }
+
+    private long heuristic(int node, double targetLat, double targetLon) {
+        double meters = GeoPoint.distanceKm(graph.lat(node), graph.lon(node), targetLat, targetLon) * 1000;
+        return (long) (meters * msPerMeterAtMaxSpeed);
+    }
+
+    /**
+     * Nearest node within maxSnapKm, searching grid rings outward from the point's cell
+     */
+    int nearestNode(GeoPoint point) {
+        int row = cellRow(point.getLat());
+        int col = cellCol(point.getLon());
+        int maxRing = (int) Math.ceil(maxSnapKm / (CELL_DEGREES * 111.0)) + 1;
+
+        int best = -1;
+        double bestMeters = maxSnapKm * 1000;
+        for (int ring = 0; ring <= maxRing; ring++) {
+            for (int r = row - ring; r <= row + ring; r++) {
+                for (int c = col - ring; c <= col + ring; c++) {
+                    if (Math.abs(r - row) != ring && Math.abs(c - col) != ring) {
+                        continue; // interior cells were scanned in earlier rings
+                    }
+                    long key = cellKey(r, c);
+                    int i = lowerBound(key);
+                    for (; i < cellKeys.length && cellKeys[i] == key; i++) {
+                        double meters = distanceMeters(point, sortedNodes[i]);
+                        if (meters < bestMeters) {
+                            bestMeters = meters;
+                            best = sortedNodes[i];
+                        }
+                    }
+                }
+            }
+            // Anything in the next ring is at least ring * cell size away
+            if (best >= 0 && bestMeters < ring * CELL_DEGREES * 111_000 * Math.cos(Math.toRadians(point.getLat()))) {
+                break;
+            }
+        }
+        return best;
+    }
+
+    private int lowerBound(long key) {
+        int low = 0;
+        int high = cellKeys.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (cellKeys[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private double distanceMeters(GeoPoint point, int node) {
+        return GeoPoint.distanceKm(point.getLat(), point.getLon(), graph.lat(node), graph.lon(node)) * 1000;
+    }
+
+    private static int cellRow(double lat) {
+        return (int) Math.floor((lat + 90) / CELL_DEGREES);
+    }
+
+    private static int cellCol(double lon) {
+        return (int) Math.floor((lon + 180) / CELL_DEGREES);
+    }
+
+    private static long cellKey(int row, int col) {
+        return ((long) row << 16 | col) & 0xFFFFFFFFL;
+    }
+
+    private SearchState borrowState() {
+        SearchState state = statePool.poll();
+        return state != null ? state : new SearchState(graph.nodeCount);
+    }
+
+    /**
+     * Road route result
+     */
+    public static final class Route {
+        private final long distanceMeters;
+        private final long durationMs;
+
+        public Route(long distanceMeters, long durationMs) {
+            this.distanceMeters = distanceMeters;
+            this.durationMs = durationMs;
+        }
+
+        public long getDistanceMeters() {
+            return distanceMeters;
+        }
+
+        public long getDurationMs() {
+            return durationMs;
+        }
+    }
+
+    /**
+     * Reusable per-query arrays; entries are valid only where seen[node] == current generation
+     */
+    private static final class SearchState {
+        final long[] timeMs;
+        final long[] meters;
+        final int[] seen;
+        final int[] settled;
+        final LongIntHeap heap = new LongIntHeap();
+        int generation;
+
+        SearchState(int nodes) {
+            timeMs = new long[nodes];
+            meters = new long[nodes];
+            seen = new int[nodes];
+            settled = new int[nodes];
+        }
+
+        int nextGeneration() {
+            if (++generation == Integer.MAX_VALUE) {
+                Arrays.fill(seen, 0);
+                Arrays.fill(settled, 0);
+                generation = 1;
+            }
+            return generation;
+        }
+
+        void visit(int node, int gen, long time, long distance) {
+            seen[node] = gen;
+            timeMs[node] = time;
+            meters[node] = distance;
+        }
+    }
+
+    /**
+     * Binary min-heap of (long priority, int node) in parallel primitive arrays
+     */
+    private static final class LongIntHeap {
+        private long[] priorities = new long[256];
+        private int[] nodes = new int[256];
+        private int size;
+
+        void clear() {
+            size = 0;
+        }
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        long peekPriority() {
+            return priorities[0];
+        }
+
+        void push(long priority, int node) {
+            if (size == priorities.length) {
+                priorities = Arrays.copyOf(priorities, size * 2);
+                nodes = Arrays.copyOf(nodes, size * 2);
+            }
+            int i = size++;
+            while (i > 0) {
+                int parent = (i - 1) >>> 1;
+                if (priorities[parent] <= priority) {
+                    break;
+                }
+                priorities[i] = priorities[parent];
+                nodes[i] = nodes[parent];
+                i = parent;
+            }
+            priorities[i] = priority;
+            nodes[i] = node;
+        }
+
+        int pop() {
+            int top = nodes[0];
+            long lastPriority = priorities[--size];
+            int lastNode = nodes[size];
+            int i = 0;
+            int half = size >>> 1;
+            while (i < half) {
+                int child = 2 * i + 1;
+                if (child + 1 < size && priorities[child + 1] < priorities[child]) {
+                    child++;
+                }
+                if (lastPriority <= priorities[child]) {
+                    break;
+                }
+                priorities[i] = priorities[child];
+                nodes[i] = nodes[child];
+                i = child;
+            }
+            priorities[i] = lastPriority;
+            nodes[i] = lastNode;
+            return top;
+        }
+    }
+}
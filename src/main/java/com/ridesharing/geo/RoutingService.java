@@ -0,0 +1,81 @@
+package com.ridesharing.geo;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Optional;
+
+/**
+ * Local road routing - real driving distance and duration from a preprocessed OSM graph
+ *
+ * The graph file (app.routing.graph-file) is produced offline by {@link RoadGraphBuilder}.
+ * When it is missing or unreadable routing is disabled and every query is empty, so callers
+ * fall back to a straight-line estimate.
+ */
+@Service
+@Slf4j
+public class RoutingService {
+
+    @Value("${app.routing.graph-file:data/road-graph.bin}")
+    private String graphFile;
+
+    @Value("${app.routing.max-snap-km:5}")
+    private double maxSnapKm;
+
+    private volatile RoadRouter router;
+
+    @PostConstruct
+    public void load() {
+        Path path = Paths.get(graphFile);
+        if (!Files.exists(path)) {
+            log.warn("No road graph at {}, road routing disabled", path.toAbsolutePath());
+            return;
+        }
+        try {
+            long started = System.currentTimeMillis();
+            RoadGraph graph = RoadGraph.load(path);
+            router = new RoadRouter(graph, maxSnapKm);
+            log.info("🛣️ Road graph loaded from {}: {} nodes, {} edges in {} ms", path.toAbsolutePath(),
+                    graph.getNodeCount(), graph.getEdgeCount(), System.currentTimeMillis() - started);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Road graph unavailable, road routing disabled: {}", e.getMessage());
+        }
+    }
+
+    public boolean isLoaded() {
+        return router != null;
+    }
+
+    /**
+     * Fastest road route, empty when routing is disabled or no route connects the points
+     */
+    public Optional<RoadRouter.Route> route(GeoPoint origin, GeoPoint destination) {
+        RoadRouter current = router;
+        return current == null ? Optional.empty() : current.route(origin, destination);
+    }
+
+    /**
+     * One-to-many routes (null entries where unreachable), or null when routing is disabled
+     */
+    public RoadRouter.Route[] routeToAll(GeoPoint origin, GeoPoint[] destinations) {
+        RoadRouter current = router;
+        return current == null ? null : current.routeToAll(origin, destinations);
+    }
+
+    /**
+     * Identifies the loaded graph (0 when disabled), so data derived from it can be invalidated
+     */
+    public long getGraphSignature() {
+        RoadRouter current = router;
+        if (current == null) {
+            return 0L;
+        }
+        return ((long) current.getGraph().getNodeCount() << 32) | current.getGraph().getEdgeCount();
+    }
+}
@@ -0,0 +1,314 @@
+package com.ridesharing.outbound;
+
+import com.ridesharing.config.OutboundConfig;
+import com.ridesharing.exception.OutboundCallException;
+import com.ridesharing.exception.OutboundCallException.Reason;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Shared outbound-call layer: concurrency limit, timeout, circuit breaker and latency
+ * histogram per external provider
+ *
+ * A call first takes a slot from the provider's bulkhead (waiting at most maxWaitMs), then runs on
+ * a virtual thread while the caller waits at most timeoutMs. The slot is held until the provider
+ * call really returns, so abandoned calls still count against the limit and a hung provider can
+ * only ever pin maxConcurrent threads. After failureThreshold consecutive failures the circuit
+ * opens and calls fail fast for openMs; then one trial call decides whether it closes again.
+ *
+ * Metrics: outbound.calls (timer with percentile histogram, tags provider/outcome),
+ * outbound.inflight and outbound.circuit.state (0 closed, 1 half-open, 2 open) per provider.
+ */
+@Component
+@Slf4j
+public class OutboundCallGuard {
+
+    /**
+     * Call that may throw checked exceptions and returns nothing
+     */
+    @FunctionalInterface
+    public interface Action {
+        void run() throws Exception;
+    }
+
+    private final OutboundConfig config;
+    private final MeterRegistry meterRegistry;
+    private final Map<OutboundProvider, ProviderState> states = new EnumMap<>(OutboundProvider.class);
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public OutboundCallGuard(OutboundConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        for (OutboundProvider provider : OutboundProvider.values()) {
+            ProviderState state = new ProviderState(config.limitsFor(provider).getMaxConcurrent());
+            states.put(provider, state);
+            String tag = tag(provider);
+            Gauge.builder("outbound.inflight", state.inFlight, AtomicInteger::get)
+                    .description("Outbound calls currently in flight")
+                    .tag("provider", tag)
+                    .register(meterRegistry);
+            Gauge.builder("outbound.circuit.state", state.circuit, AtomicInteger::get)
+                    .description("Circuit state: 0 closed, 1 half-open, 2 open")
+                    .tag("provider", tag)
+                    .register(meterRegistry);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * Run a provider call under its limits; runtime exceptions from the call propagate unchanged
+     */
+    public <T> T call(OutboundProvider provider, Callable<T> call) {
+        OutboundConfig.Limits limits = config.limitsFor(provider);
+        ProviderState state = states.get(provider);
+
+        if (!state.allowCall(limits)) {
+            record(provider, "short_circuited", 0);
+            throw new OutboundCallException(provider, Reason.CIRCUIT_OPEN, provider + " is unavailable (circuit open)");
+        }
+        if (!acquire(state, limits)) {
+            state.releaseTrial();
+            record(provider, "rejected", 0);
+            throw new OutboundCallException(provider, Reason.REJECTED,
+                    provider + " is busy (" + limits.getMaxConcurrent() + " calls in flight)");
+        }
+
+        long started = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                try {
+                    injectFaults(provider, limits);
+                    return call.call();
+                } finally {
+                    state.inFlight.decrementAndGet();
+                    state.permits.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            state.inFlight.decrementAndGet();
+            state.permits.release();
+            throw e;
+        }
+
+        try {
+            T result = future.get(limits.getTimeoutMs(), TimeUnit.MILLISECONDS);
+            state.onSuccess();
+            record(provider, "success", System.nanoTime() - started);
+            return result;
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            onFailure(provider, state, limits, "timeout", started);
+            throw new OutboundCallException(provider, Reason.TIMEOUT,
+                    provider + " did not answer within " + limits.getTimeoutMs() + " ms");
+        } catch (ExecutionException e) {
+            onFailure(provider, state, limits, "failure", started);
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new OutboundCallException(provider, Reason.FAILED, provider + " call failed: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            state.releaseTrial();
+            Thread.currentThread().interrupt();
+            throw new OutboundCallException(provider, Reason.FAILED, provider + " call interrupted", e);
+        }
+    }
+
+    /**
+     * Circuit breaker, timeout and metrics for an asynchronous call. There is no bulkhead here:
+     * async calls hold no thread while waiting, and {@link OutboundHttpClient} limits (and queues)
+     * requests per host. A timeout completes the returned future: a request still queued for its
+     * host is then dropped, one already sent runs to completion. A full host queue counts as
+     * rejected, not as a provider failure.
+     */
+    public <T> CompletableFuture<T> callAsync(OutboundProvider provider, Supplier<CompletableFuture<T>> call) {
+        OutboundConfig.Limits limits = config.limitsFor(provider);
+        ProviderState state = states.get(provider);
+
+        if (!state.allowCall(limits)) {
+            record(provider, "short_circuited", 0);
+            return CompletableFuture.failedFuture(new OutboundCallException(provider, Reason.CIRCUIT_OPEN,
+                    provider + " is unavailable (circuit open)"));
+        }
+
+        long started = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = call.get();
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future
+                .orTimeout(limits.getTimeoutMs(), TimeUnit.MILLISECONDS)
+                .handle((result, error) -> {
+                    if (error == null) {
+                        state.onSuccess();
+                        record(provider, "success", System.nanoTime() - started);
+                        return result;
+                    }
+                    Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+                    if (cause instanceof RejectedExecutionException) {
+                        state.releaseTrial();
+                        record(provider, "rejected", 0);
+                        throw new OutboundCallException(provider, Reason.REJECTED, provider + " is busy: " + cause.getMessage());
+                    }
+                    if (cause instanceof TimeoutException) {
+                        onFailure(provider, state, limits, "timeout", started);
+                        throw new OutboundCallException(provider, Reason.TIMEOUT,
+                                provider + " did not answer within " + limits.getTimeoutMs() + " ms");
+                    }
+                    onFailure(provider, state, limits, "failure", started);
+                    throw cause instanceof RuntimeException runtime ? runtime
+                            : new OutboundCallException(provider, Reason.FAILED, provider + " call failed: " + cause.getMessage(), cause);
+                });
+    }
+
+    public void run(OutboundProvider provider, Action action) {
+        call(provider, () -> {
+            action.run();
+            return null;
+        });
+    }
+
+    /**
+     * True while the provider's circuit is open (callers may skip optional work)
+     */
+    public boolean isOpen(OutboundProvider provider) {
+        return states.get(provider).circuit.get() == ProviderState.OPEN;
+    }
+
+    private boolean acquire(ProviderState state, OutboundConfig.Limits limits) {
+        try {
+            if (!state.permits.tryAcquire(limits.getMaxWaitMs(), TimeUnit.MILLISECONDS)) {
+                return false;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        state.inFlight.incrementAndGet();
+        return true;
+    }
+
+    private void onFailure(OutboundProvider provider, ProviderState state, OutboundConfig.Limits limits,
+                           String outcome, long started) {
+        record(provider, outcome, System.nanoTime() - started);
+        if (state.onFailure(limits)) {
+            log.warn("⚡ Circuit opened for {} after {} consecutive failures, failing fast for {} ms",
+                    provider, limits.getFailureThreshold(), limits.getOpenMs());
+        }
+    }
+
+    private void injectFaults(OutboundProvider provider, OutboundConfig.Limits limits) throws InterruptedException {
+        if (limits.getInjectLatencyMs() > 0) {
+            Thread.sleep(limits.getInjectLatencyMs());
+        }
+        if (limits.getInjectFailureRate() > 0 && ThreadLocalRandom.current().nextDouble() < limits.getInjectFailureRate()) {
+            throw new IllegalStateException("Injected failure for " + provider);
+        }
+    }
+
+    private void record(OutboundProvider provider, String outcome, long nanos) {
+        Timer.builder("outbound.calls")
+                .description("Outbound provider call latency")
+                .tag("provider", tag(provider))
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static String tag(OutboundProvider provider) {
+        return provider.name().toLowerCase();
+    }
+
+    /**
+     * Bulkhead and circuit breaker state for one provider
+     */
+    private static final class ProviderState {
+        static final int CLOSED = 0;
+        static final int HALF_OPEN = 1;
+        static final int OPEN = 2;
+
+        final Semaphore permits;
+        final AtomicInteger inFlight = new AtomicInteger();
+        final AtomicInteger circuit = new AtomicInteger(CLOSED);
+        final AtomicInteger consecutiveFailures = new AtomicInteger();
+        final AtomicLong openedAt = new AtomicLong();
+
+        ProviderState(int maxConcurrent) {
+            this.permits = new Semaphore(maxConcurrent);
+        }
+
+        /**
+         * Closed: always. Open: only once openMs has passed, and then only one caller (half-open trial).
+         */
+        boolean allowCall(OutboundConfig.Limits limits) {
+            int current = circuit.get();
+            if (current == CLOSED) {
+                return true;
+            }
+            if (current == OPEN && System.currentTimeMillis() - openedAt.get() >= limits.getOpenMs()) {
+                return circuit.compareAndSet(OPEN, HALF_OPEN);
+            }
+            return false;
+        }
+
+        void onSuccess() {
+            consecutiveFailures.set(0);
+            circuit.set(CLOSED);
+        }
+
+        /**
+         * Returns true when this failure opened the circuit
+         */
+        boolean onFailure(OutboundConfig.Limits limits) {
+            int failures = consecutiveFailures.incrementAndGet();
+            if (circuit.get() == HALF_OPEN || failures >= limits.getFailureThreshold()) {
+                openedAt.set(System.currentTimeMillis());
+                return circuit.getAndSet(OPEN) != OPEN;
+            }
+            return false;
+        }
+
+        /**
+         * A half-open trial that never reached the provider lets the next caller try instead
+         */
+        void releaseTrial() {
+            if (circuit.compareAndSet(HALF_OPEN, OPEN)) {
+                openedAt.set(0L);
+            }
+        }
+    }
+}
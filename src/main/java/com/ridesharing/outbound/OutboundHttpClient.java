@@ -0,0 +1,177 @@
+package com.ridesharing.outbound;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Shared non-blocking HTTP client for external APIs
+ *
+ * One java.net.http.HttpClient for the whole app: HTTP/2 when the server offers it (HTTP/1.1
+ * keep-alive otherwise), pooled connections, a connect timeout and a per-request timeout.
+ * Requests to the same host are limited to app.http.max-concurrent-per-host in flight; extra
+ * requests wait in a queue without holding a thread, up to app.http.max-queued-per-host, after
+ * which they fail fast with RejectedExecutionException.
+ */
+@Component
+@Slf4j
+public class OutboundHttpClient {
+
+    private final HttpClient client;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
+    private final Duration requestTimeout;
+    private final int maxConcurrentPerHost;
+    private final int maxQueuedPerHost;
+
+    public OutboundHttpClient(@Value("${app.http.connect-timeout-ms:3000}") long connectTimeoutMs,
+                              @Value("${app.http.request-timeout-ms:5000}") long requestTimeoutMs,
+                              @Value("${app.http.max-concurrent-per-host:8}") int maxConcurrentPerHost,
+                              @Value("${app.http.max-queued-per-host:64}") int maxQueuedPerHost) {
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxConcurrentPerHost = maxConcurrentPerHost;
+        this.maxQueuedPerHost = maxQueuedPerHost;
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .executor(executor)
+                .build();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * GET request builder with the default request timeout
+     */
+    public HttpRequest.Builder get(URI uri) {
+        return HttpRequest.newBuilder(uri).timeout(requestTimeout).GET();
+    }
+
+    /**
+     * Send a request once a per-host slot is free; the body is read as a UTF-8 string
+     */
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request) {
+        return sendAsync(request, maxConcurrentPerHost);
+    }
+
+    /**
+     * As {@link #sendAsync(HttpRequest)} with a host-specific limit (fixed by the first request to the host)
+     */
+    public CompletableFuture<HttpResponse<String>> sendAsync(HttpRequest request, int hostLimit) {
+        HostLimiter limiter = hostLimiters.computeIfAbsent(request.uri().getHost(), host -> new HostLimiter(host, hostLimit, maxQueuedPerHost));
+        return limiter.submit(() -> client.sendAsync(request, HttpResponse.BodyHandlers.ofString()));
+    }
+
+    /**
+     * Requests in flight plus queued for a host (diagnostics)
+     */
+    public int getPending(String host) {
+        HostLimiter limiter = hostLimiters.get(host);
+        return limiter == null ? 0 : limiter.pending.get();
+    }
+
+    /**
+     * Non-blocking semaphore: tasks beyond the limit are queued (up to maxQueued, then rejected)
+     * and started as slots free up. A queued task whose result completes first (timed out or
+     * cancelled by the caller) leaves the queue and is never sent.
+     */
+    static final class HostLimiter {
+        private final String host;
+        private final int limit;
+        private final int maxQueued;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger queued = new AtomicInteger();
+        private final AtomicInteger pending = new AtomicInteger();
+        private final Queue<Runnable> waiting = new ConcurrentLinkedQueue<>();
+
+        HostLimiter(String host, int limit, int maxQueued) {
+            this.host = host;
+            this.limit = limit;
+            this.maxQueued = maxQueued;
+        }
+
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> task) {
+            if (queued.incrementAndGet() > maxQueued) {
+                queued.decrementAndGet();
+                return CompletableFuture.failedFuture(new RejectedExecutionException(
+                        host + " has " + maxQueued + " requests queued"));
+            }
+            CompletableFuture<T> result = new CompletableFuture<>();
+            pending.incrementAndGet();
+            Runnable entry = () -> {
+                if (result.isDone()) {
+                    // Caller gave up while the request was queued; hand the slot to the next one
+                    pending.decrementAndGet();
+                    inFlight.decrementAndGet();
+                    drain();
+                    return;
+                }
+                CompletableFuture<T> call;
+                try {
+                    call = task.get();
+                } catch (RuntimeException e) {
+                    call = CompletableFuture.failedFuture(e);
+                }
+                call.whenComplete((value, error) -> {
+                    pending.decrementAndGet();
+                    inFlight.decrementAndGet();
+                    drain();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+            };
+            waiting.add(entry);
+            // Whoever takes the entry off the queue (drain or this callback) owns its bookkeeping
+            result.whenComplete((value, error) -> {
+                if (waiting.remove(entry)) {
+                    queued.decrementAndGet();
+                    pending.decrementAndGet();
+                }
+            });
+            drain();
+            return result;
+        }
+
+        private void drain() {
+            while (true) {
+                int current = inFlight.get();
+                if (current >= limit || waiting.isEmpty()) {
+                    return;
+                }
+                if (inFlight.compareAndSet(current, current + 1)) {
+                    Runnable next = waiting.poll();
+                    if (next == null) {
+                        inFlight.decrementAndGet();
+                        continue;
+                    }
+                    queued.decrementAndGet();
+                    next.run();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.ridesharing.outbound;
+
+/**
+ * External dependencies called through {@link OutboundCallGuard}
+ */
+public enum OutboundProvider {
+    NOMINATIM,
+    SMTP,
+    TWILIO,
+    RAZORPAY
+}
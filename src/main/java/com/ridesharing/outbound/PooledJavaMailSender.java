@@ -0,0 +1,182 @@
+package com.ridesharing.outbound;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.util.Date;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * JavaMailSender that keeps a bounded pool of connected, authenticated SMTP sessions
+ *
+ * The stock JavaMailSenderImpl opens a connection (TCP + EHLO + STARTTLS + AUTH) for every
+ * send call. Here each send borrows a warm session instead, and all messages of one
+ * send(MimeMessage...) call go over that single session back to back. At most maxSessions
+ * are open at once; callers beyond that wait up to borrowTimeoutMs. A session that hits any
+ * error is closed rather than returned (the rest of the batch continues on a fresh one), and
+ * sessions are also retired after maxMessagesPerSession messages or idleTimeoutMs unused,
+ * before the server drops them.
+ */
+@Slf4j
+public class PooledJavaMailSender extends JavaMailSenderImpl implements DisposableBean {
+
+    private final int maxMessagesPerSession;
+    private final long idleTimeoutMs;
+    private final long borrowTimeoutMs;
+    private final Semaphore sessions;
+    private final Deque<PooledTransport> idle = new ConcurrentLinkedDeque<>();
+    private final AtomicInteger open = new AtomicInteger();
+    private final Counter sessionsOpened;
+
+    public PooledJavaMailSender(int maxSessions, int maxMessagesPerSession, long idleTimeoutMs,
+                                long borrowTimeoutMs, MeterRegistry meterRegistry) {
+        this.maxMessagesPerSession = maxMessagesPerSession;
+        this.idleTimeoutMs = idleTimeoutMs;
+        this.borrowTimeoutMs = borrowTimeoutMs;
+        this.sessions = new Semaphore(Math.max(1, maxSessions));
+
+        this.sessionsOpened = Counter.builder("smtp.sessions.opened")
+                .description("SMTP connections opened by the pool")
+                .register(meterRegistry);
+        Gauge.builder("smtp.sessions.open", open, AtomicInteger::get)
+                .description("SMTP connections currently open (idle or in use)")
+                .register(meterRegistry);
+        Gauge.builder("smtp.sessions.idle", idle, Deque::size)
+                .description("Open SMTP connections waiting in the pool")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected void doSend(MimeMessage[] mimeMessages, Object[] originalMessages) throws MailException {
+        Map<Object, Exception> failedMessages = new LinkedHashMap<>();
+        acquireSlot();
+        PooledTransport transport = null;
+        try {
+            for (int i = 0; i < mimeMessages.length; i++) {
+                MimeMessage message = mimeMessages[i];
+                Object original = originalMessages != null ? originalMessages[i] : message;
+                try {
+                    if (transport == null) {
+                        transport = checkOut();
+                    }
+                    prepare(message);
+                    Address[] recipients = message.getAllRecipients();
+                    transport.transport.sendMessage(message, recipients != null ? recipients : new Address[0]);
+                    transport.messagesSent++;
+                } catch (Exception e) {
+                    failedMessages.put(original, e);
+                    // Never hand a session back in an unknown protocol state
+                    discard(transport);
+                    transport = null;
+                }
+            }
+        } finally {
+            checkIn(transport);
+            sessions.release();
+        }
+
+        if (!failedMessages.isEmpty()) {
+            throw new MailSendException(failedMessages);
+        }
+    }
+
+    /**
+     * Close every pooled session
+     */
+    @Override
+    public void destroy() {
+        PooledTransport transport;
+        while ((transport = idle.pollFirst()) != null) {
+            discard(transport);
+        }
+    }
+
+    private void acquireSlot() {
+        try {
+            if (!sessions.tryAcquire(borrowTimeoutMs, TimeUnit.MILLISECONDS)) {
+                throw new MailSendException("No SMTP session available within " + borrowTimeoutMs + " ms");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for an SMTP session", e);
+        }
+    }
+
+    private PooledTransport checkOut() throws MessagingException {
+        long now = System.currentTimeMillis();
+        PooledTransport transport;
+        // Most recently used first, so surplus sessions age out at the tail
+        while ((transport = idle.pollFirst()) != null) {
+            if (now - transport.lastUsedAt < idleTimeoutMs && transport.transport.isConnected()) {
+                return transport;
+            }
+            discard(transport);
+        }
+        Transport connected = connectTransport();
+        open.incrementAndGet();
+        sessionsOpened.increment();
+        return new PooledTransport(connected);
+    }
+
+    private void checkIn(PooledTransport transport) {
+        if (transport == null) {
+            return;
+        }
+        if (transport.messagesSent >= maxMessagesPerSession) {
+            discard(transport);
+            return;
+        }
+        transport.lastUsedAt = System.currentTimeMillis();
+        idle.offerFirst(transport);
+    }
+
+    private void discard(PooledTransport transport) {
+        if (transport == null) {
+            return;
+        }
+        open.decrementAndGet();
+        try {
+            transport.transport.close();
+        } catch (MessagingException e) {
+            log.debug("Error closing SMTP session: {}", e.getMessage());
+        }
+    }
+
+    private static void prepare(MimeMessage message) throws MessagingException {
+        // Same header handling as JavaMailSenderImpl.doSend
+        if (message.getSentDate() == null) {
+            message.setSentDate(new Date());
+        }
+        String messageId = message.getMessageID();
+        message.saveChanges();
+        if (messageId != null) {
+            message.setHeader("Message-ID", messageId);
+        }
+    }
+
+    private static final class PooledTransport {
+        final Transport transport;
+        int messagesSent;
+        long lastUsedAt;
+
+        PooledTransport(Transport transport) {
+            this.transport = transport;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.ridesharing.repository;
+
+import com.ridesharing.entity.DriverPayout;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Driver Payout Repository - Database operations for DriverPayout entity
+ */
+@Repository
+public interface DriverPayoutRepository extends JpaRepository<DriverPayout, Long> {
+
+    Optional<DriverPayout> findByDriverIdAndCycleKey(Long driverId, String cycleKey);
+
+    List<DriverPayout> findByDriverIdOrderByCreatedAtDesc(Long driverId);
+
+    /**
+     * Payouts interrupted by a crash or failed at the gateway, to be resumed before a new cycle starts
+     * (payouts whose payments were released have nothing left to pay)
+     */
+    @Query("SELECT p.id FROM DriverPayout p WHERE (p.status = com.ridesharing.entity.DriverPayout$PayoutStatus.PENDING " +
+           "OR p.status = com.ridesharing.entity.DriverPayout$PayoutStatus.SUBMITTED " +
+           "OR p.status = com.ridesharing.entity.DriverPayout$PayoutStatus.FAILED) " +
+           "AND p.paymentCount > 0 AND p.attempts < :maxAttempts ORDER BY p.id")
+    List<Long> findResumablePayoutIds(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Payouts the gateway rejected on every allowed attempt that still hold a wallet debit and payments
+     */
+    @Query("SELECT p.id FROM DriverPayout p WHERE p.status = com.ridesharing.entity.DriverPayout$PayoutStatus.FAILED " +
+           "AND p.paymentCount > 0 AND p.attempts >= :maxAttempts ORDER BY p.id")
+    List<Long> findExhaustedPayoutIds(@Param("maxAttempts") int maxAttempts);
+}
@@ -0,0 +1,54 @@
+package com.ridesharing.repository;
+
+import com.ridesharing.entity.DriverWallet;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.Optional;
+
+/**
+ * Driver Wallet Repository - Balance changes are single conditional UPDATE statements,
+ * so concurrent settlements only serialize on the affected wallet row
+ */
+@Repository
+public interface DriverWalletRepository extends JpaRepository<DriverWallet, Long> {
+
+    @Query("SELECT w FROM DriverWallet w WHERE w.driver.id = :driverId")
+    Optional<DriverWallet> findByDriverId(@Param("driverId") Long driverId);
+
+    /**
+     * Credit earnings to a wallet
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DriverWallet w SET w.balance = w.balance + :amount, w.totalEarned = w.totalEarned + :amount, " +
+           "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId")
+    int creditEarnings(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Reverse previously credited earnings (refund after settlement); may take the balance negative
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DriverWallet w SET w.balance = w.balance - :amount, w.totalEarned = w.totalEarned - :amount, " +
+           "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId")
+    int reverseEarnings(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Debit a payout only if the wallet can cover it; returns 0 when funds are insufficient
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DriverWallet w SET w.balance = w.balance - :amount, w.totalPaidOut = w.totalPaidOut + :amount, " +
+           "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId AND w.balance >= :amount")
+    int debitPayout(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+
+    /**
+     * Give back a payout debit whose transfer was never made
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE DriverWallet w SET w.balance = w.balance + :amount, w.totalPaidOut = w.totalPaidOut - :amount, " +
+           "w.updatedAt = CURRENT_TIMESTAMP WHERE w.id = :walletId")
+    int reversePayout(@Param("walletId") Long walletId, @Param("amount") BigDecimal amount);
+}
@@ -0,0 +1,16 @@
+package com.ridesharing.repository;
+
+import com.ridesharing.entity.GeocodedPlace;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+/**
+ * Geocoded Place Repository - Persistent geocoding cache
+ */
+@Repository
+public interface GeocodedPlaceRepository extends JpaRepository<GeocodedPlace, Long> {
+
+    Optional<GeocodedPlace> findByNormalizedName(String normalizedName);
+}
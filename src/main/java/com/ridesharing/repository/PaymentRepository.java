@@ -1,15 +1,22 @@
 package com.ridesharing.repository;
 
+import com.ridesharing.dto.PaymentExportRow;
 import com.ridesharing.entity.Payment;
 import com.ridesharing.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Payment Repository - Database operations for Payment entity
@@ -17,6 +24,22 @@ import java.util.Optional;
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
 
+    /**
+     * Flattened projection used by the streaming exports (booking, ride and both users joined in SQL)
+     */
+    String EXPORT_SELECT = "SELECT new com.ridesharing.dto.PaymentExportRow(" +
+            "p.id, b.id, r.id, p.amount, p.driverSettlementAmount, p.platformCommission, " +
+            "p.paymentStatus, p.settlementStatus, p.paymentMethod, p.receiptNumber, b.seatsBooked, " +
+            "r.source, r.destination, r.departureDate, " +
+            "u.id, CONCAT(u.firstName, ' ', u.lastName), d.id, CONCAT(d.firstName, ' ', d.lastName), " +
+            "p.createdAt, p.paidAt, p.settlementDate) " +
+            "FROM Payment p JOIN p.booking b JOIN b.ride r JOIN r.driver d JOIN b.passenger u ";
+
+    /**
+     * MySQL Connector/J only streams rows (forward-only, one at a time) when the fetch size is Integer.MIN_VALUE
+     */
+    String STREAMING_FETCH_SIZE = "" + Integer.MIN_VALUE;
+
     /**
      * Find payment by Razorpay order ID
      */
@@ -101,4 +124,61 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
      */
     @Query("SELECT p FROM Payment p WHERE p.createdAt >= :thirtyDaysAgo AND p.paymentStatus = com.ridesharing.entity.Payment$PaymentStatus.COMPLETED ORDER BY p.createdAt DESC")
     List<Payment> findRecentSuccessfulPayments(@Param("thirtyDaysAgo") LocalDateTime thirtyDaysAgo);
-}
\ No newline at end of file
+
+    /**
+     * Stream passenger payments for export (caller must consume inside a read-only transaction)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    @Query(EXPORT_SELECT + "WHERE u.id = :passengerId AND p.createdAt BETWEEN :startDate AND :endDate ORDER BY p.createdAt DESC")
+    Stream<PaymentExportRow> streamPassengerExport(@Param("passengerId") Long passengerId,
+                                                  @Param("startDate") LocalDateTime startDate,
+                                                  @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Stream driver payments for export (caller must consume inside a read-only transaction)
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    @Query(EXPORT_SELECT + "WHERE d.id = :driverId AND p.createdAt BETWEEN :startDate AND :endDate ORDER BY p.createdAt DESC")
+    Stream<PaymentExportRow> streamDriverExport(@Param("driverId") Long driverId,
+                                               @Param("startDate") LocalDateTime startDate,
+                                               @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Stream all payments in a date range for admin export
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = STREAMING_FETCH_SIZE))
+    @Query(EXPORT_SELECT + "WHERE p.createdAt BETWEEN :startDate AND :endDate ORDER BY p.createdAt DESC")
+    Stream<PaymentExportRow> streamAllExport(@Param("startDate") LocalDateTime startDate,
+                                            @Param("endDate") LocalDateTime endDate);
+
+    /**
+     * Drivers with settled payments not yet included in a payout
+     */
+    @Query("SELECT DISTINCT p.booking.ride.driver.id FROM Payment p WHERE p.payoutId IS NULL " +
+           "AND p.paymentStatus = com.ridesharing.entity.Payment$PaymentStatus.COMPLETED " +
+           "AND p.settlementStatus = com.ridesharing.entity.Payment$SettlementStatus.COMPLETED")
+    List<Long> findDriverIdsWithUnpaidSettlements();
+
+    /**
+     * Attach all of a driver's settled, unpaid payments to a payout
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Payment p SET p.payoutId = :payoutId WHERE p.payoutId IS NULL " +
+           "AND p.paymentStatus = com.ridesharing.entity.Payment$PaymentStatus.COMPLETED " +
+           "AND p.settlementStatus = com.ridesharing.entity.Payment$SettlementStatus.COMPLETED " +
+           "AND p.booking.id IN (SELECT b.id FROM Booking b WHERE b.ride.driver.id = :driverId)")
+    int attachUnpaidSettlementsToPayout(@Param("driverId") Long driverId, @Param("payoutId") Long payoutId);
+
+    /**
+     * Release a payout's payments so a later cycle can pay them out
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE Payment p SET p.payoutId = NULL WHERE p.payoutId = :payoutId")
+    int detachFromPayout(@Param("payoutId") Long payoutId);
+
+    /**
+     * Total driver share of the payments attached to a payout
+     */
+    @Query("SELECT COALESCE(SUM(p.driverSettlementAmount), 0) FROM Payment p WHERE p.payoutId = :payoutId")
+    BigDecimal sumDriverSettlementByPayoutId(@Param("payoutId") Long payoutId);
+}
@@ -0,0 +1,63 @@
+package com.ridesharing.repository;
+
+import com.ridesharing.entity.RefundRequest;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Refund Request Repository - Database operations for the refund queue
+ */
+@Repository
+public interface RefundRequestRepository extends JpaRepository<RefundRequest, Long> {
+
+    boolean existsByPaymentId(Long paymentId);
+
+    Optional<RefundRequest> findByBookingId(Long bookingId);
+
+    /**
+     * Lock the oldest refunds due for the gateway: queued ones, plus interrupted, failed or
+     * unresolved ones untouched since retryBefore that still have attempts left. Rows leased by a
+     * live worker are excluded and rows another worker is claiming are skipped, not waited on.
+     */
+    @Query(value = "SELECT id FROM refund_requests WHERE (status = 'QUEUED' " +
+                   "OR (status IN ('PROCESSING', 'FAILED') AND updated_at < :retryBefore)) " +
+                   "AND attempts < :maxAttempts AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+                   "ORDER BY created_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockProcessableForClaim(@Param("maxAttempts") int maxAttempts,
+                                       @Param("retryBefore") LocalDateTime retryBefore,
+                                       @Param("now") LocalDateTime now,
+                                       @Param("limit") int limit);
+
+    @Query("SELECT COUNT(r), MIN(r.createdAt) FROM RefundRequest r WHERE (r.status = com.ridesharing.entity.RefundRequest$RefundStatus.QUEUED " +
+           "OR r.status = com.ridesharing.entity.RefundRequest$RefundStatus.PROCESSING " +
+           "OR r.status = com.ridesharing.entity.RefundRequest$RefundStatus.FAILED) " +
+           "AND r.attempts < :maxAttempts")
+    List<Object[]> getBacklog(@Param("maxAttempts") int maxAttempts);
+
+    long countByStatus(RefundRequest.RefundStatus status);
+
+    /**
+     * Failed or unresolved refunds that ran out of attempts and need manual follow-up
+     */
+    @Query("SELECT COUNT(r) FROM RefundRequest r WHERE (r.status = com.ridesharing.entity.RefundRequest$RefundStatus.FAILED " +
+           "OR r.status = com.ridesharing.entity.RefundRequest$RefundStatus.PROCESSING) " +
+           "AND r.attempts >= :maxAttempts")
+    long countExhausted(@Param("maxAttempts") int maxAttempts);
+
+    /**
+     * Checkpoint locked refunds as PROCESSING under this worker's lease before calling the gateway
+     */
+    @Modifying
+    @Query("UPDATE RefundRequest r SET r.status = com.ridesharing.entity.RefundRequest$RefundStatus.PROCESSING, " +
+           "r.attempts = r.attempts + 1, r.leaseOwner = :owner, r.leaseExpiresAt = :expiresAt, r.updatedAt = :now " +
+           "WHERE r.id IN :ids")
+    int claim(@Param("ids") List<Long> ids, @Param("owner") String owner,
+              @Param("expiresAt") LocalDateTime expiresAt, @Param("now") LocalDateTime now);
+}
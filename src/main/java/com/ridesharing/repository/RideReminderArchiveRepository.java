@@ -0,0 +1,30 @@
+package com.ridesharing.repository;
+
+import com.ridesharing.entity.RideReminderArchive;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Repository interface for archived ride reminders
+ */
+@Repository
+public interface RideReminderArchiveRepository extends JpaRepository<RideReminderArchive, Long> {
+
+    /**
+     * Copy reminders into the archive in one statement
+     */
+    @Modifying
+    @Query(value = "INSERT INTO ride_reminders_archive (id, booking_id, reminder_type, scheduled_time, status, " +
+                   "notification_channel, recipient_email, message, sent_at, error_message, retry_count, max_retries, " +
+                   "created_at, updated_at, archived_at) " +
+                   "SELECT id, booking_id, reminder_type, scheduled_time, status, notification_channel, recipient_email, " +
+                   "message, sent_at, error_message, retry_count, max_retries, created_at, updated_at, :now " +
+                   "FROM ride_reminders WHERE id IN (:ids)", nativeQuery = true)
+    int archive(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+}
@@ -4,11 +4,13 @@ import com.ridesharing.entity.RideReminder;
 import com.ridesharing.entity.ReminderStatus;
 import com.ridesharing.entity.ReminderType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -69,6 +71,18 @@ public interface RideReminderRepository extends JpaRepository<RideReminder, Long
     @Query("SELECT COUNT(r) FROM RideReminder r WHERE r.status = :status")
     Long countByStatus(@Param("status") ReminderStatus status);
 
+    /**
+     * Count reminders per status in one statement; rows are (ReminderStatus, Long)
+     */
+    @Query("SELECT r.status, COUNT(r) FROM RideReminder r GROUP BY r.status")
+    List<Object[]> countGroupedByStatus();
+
+    /**
+     * Count a booking's reminders per status; rows are (ReminderStatus, Long)
+     */
+    @Query("SELECT r.status, COUNT(r) FROM RideReminder r WHERE r.booking.id = :bookingId GROUP BY r.status")
+    List<Object[]> countByBookingIdGroupedByStatus(@Param("bookingId") Long bookingId);
+
     /**
      * Find reminders scheduled between two dates
      */
@@ -94,4 +108,120 @@ public interface RideReminderRepository extends JpaRepository<RideReminder, Long
      */
     @Query("SELECT COUNT(r) > 0 FROM RideReminder r WHERE r.booking.id = :bookingId AND r.reminderType = :type")
     boolean existsByBookingIdAndType(@Param("bookingId") Long bookingId, @Param("type") ReminderType type);
-}
\ No newline at end of file
+
+    /**
+     * Lock a batch of one channel's due, unleased reminders; rows locked by other workers are skipped
+     */
+    @Query(value = "SELECT id FROM ride_reminders WHERE status = 'SCHEDULED' AND notification_channel = :channel " +
+                   "AND scheduled_time <= :now AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+                   "ORDER BY scheduled_time, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockDueForClaim(@Param("channel") String channel, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Lock up to limit of the given reminders on one channel if they are still SCHEDULED and unleased
+     */
+    @Query(value = "SELECT id FROM ride_reminders WHERE id IN (:ids) AND status = 'SCHEDULED' " +
+                   "AND notification_channel = :channel AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+                   "ORDER BY scheduled_time, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockScheduledForClaim(@Param("ids") Collection<Long> ids, @Param("channel") String channel,
+                                     @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Lock a page of one channel's failed reminders whose backoff has elapsed and that no worker holds
+     */
+    @Query(value = "SELECT id FROM ride_reminders WHERE status = 'FAILED' AND notification_channel = :channel " +
+                   "AND (next_attempt_at IS NULL OR next_attempt_at <= :now) AND retry_count < max_retries " +
+                   "AND (lease_expires_at IS NULL OR lease_expires_at < :now) " +
+                   "ORDER BY next_attempt_at, id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockRetryableForClaim(@Param("channel") String channel, @Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * Record a worker's lease on locked reminders
+     */
+    @Modifying
+    @Query("UPDATE RideReminder r SET r.leaseOwner = :owner, r.leaseExpiresAt = :expiresAt WHERE r.id IN :ids")
+    int lease(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("expiresAt") LocalDateTime expiresAt);
+
+    /**
+     * Record successful sends; only rows this worker still leases are touched
+     */
+    @Modifying
+    @Query("UPDATE RideReminder r SET r.status = com.ridesharing.entity.ReminderStatus.SENT, r.sentAt = :now, " +
+           "r.errorMessage = null, r.nextAttemptAt = null, r.leaseOwner = null, r.leaseExpiresAt = null, r.updatedAt = :now " +
+           "WHERE r.id IN :ids AND r.leaseOwner = :owner")
+    int markSent(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("now") LocalDateTime now);
+
+    /**
+     * Record failed sends that share an error message; only rows this worker still leases are touched
+     * Rows with retries left become FAILED with next_attempt_at = now + min(maxDelay, baseDelay * 2^retry_count),
+     * shortened by a random fraction of up to :jitter per row; the rest become DEAD_LETTER.
+     * retry_count is assigned last because MySQL evaluates SET assignments left to right.
+     */
+    @Modifying
+    @Query(value = "UPDATE ride_reminders SET " +
+                   "status = CASE WHEN retry_count + 1 >= max_retries THEN 'DEAD_LETTER' ELSE 'FAILED' END, " +
+                   "next_attempt_at = CASE WHEN retry_count + 1 >= max_retries THEN NULL ELSE " +
+                   "TIMESTAMPADD(SECOND, FLOOR(LEAST(CAST(:maxDelay AS DECIMAL(12,3)), CAST(:baseDelay AS DECIMAL(12,3)) * POWER(2, retry_count)) " +
+                   "* (1 - CAST(:jitter AS DECIMAL(12,3)) * RAND())), CAST(:now AS DATETIME)) END, " +
+                   "error_message = :error, lease_owner = NULL, lease_expires_at = NULL, updated_at = :now, " +
+                   "retry_count = retry_count + 1 " +
+                   "WHERE id IN (:ids) AND lease_owner = :owner", nativeQuery = true)
+    int markFailed(@Param("ids") Collection<Long> ids, @Param("owner") String owner, @Param("error") String error,
+                   @Param("now") LocalDateTime now, @Param("baseDelay") long baseDelaySeconds,
+                   @Param("maxDelay") long maxDelaySeconds, @Param("jitter") double jitter);
+
+    /**
+     * Load reminders with booking, ride, driver and passenger in one statement (no lazy N+1 when sending)
+     */
+    @Query("SELECT r FROM RideReminder r JOIN FETCH r.booking b JOIN FETCH b.ride ride " +
+           "JOIN FETCH ride.driver JOIN FETCH b.passenger WHERE r.id IN :ids")
+    List<RideReminder> findAllWithDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Ids of a booking's reminders
+     */
+    @Query("SELECT r.id FROM RideReminder r WHERE r.booking.id = :bookingId")
+    List<Long> findIdsByBookingId(@Param("bookingId") Long bookingId);
+
+    /**
+     * Ids of a booking's SCHEDULED reminders
+     */
+    @Query("SELECT r.id FROM RideReminder r WHERE r.booking.id = :bookingId " +
+           "AND r.status = com.ridesharing.entity.ReminderStatus.SCHEDULED")
+    List<Long> findScheduledIdsByBookingId(@Param("bookingId") Long bookingId);
+
+    /**
+     * Remove every reminder of a booking in one statement (rescheduling)
+     */
+    @Modifying
+    @Query("DELETE FROM RideReminder r WHERE r.booking.id = :bookingId")
+    int deleteByBookingId(@Param("bookingId") Long bookingId);
+
+    /**
+     * Cancel a booking's SCHEDULED reminders in one statement
+     */
+    @Modifying
+    @Query("UPDATE RideReminder r SET r.status = com.ridesharing.entity.ReminderStatus.CANCELLED, " +
+           "r.leaseOwner = null, r.leaseExpiresAt = null, r.updatedAt = :now " +
+           "WHERE r.booking.id = :bookingId AND r.status = com.ridesharing.entity.ReminderStatus.SCHEDULED")
+    int cancelScheduledByBookingId(@Param("bookingId") Long bookingId, @Param("now") LocalDateTime now);
+
+    /**
+     * Lock the next chunk of finished reminders (SENT, CANCELLED, DEAD_LETTER or FAILED with no
+     * retries left) last touched before the cutoff, walking the primary key upwards from :afterId
+     * Rows another cleanup run has locked are skipped
+     */
+    @Query(value = "SELECT id FROM ride_reminders WHERE id > :afterId " +
+                   "AND (status IN ('SENT', 'CANCELLED', 'DEAD_LETTER') OR (status = 'FAILED' AND retry_count >= max_retries)) " +
+                   "AND COALESCE(updated_at, created_at) < :cutoff " +
+                   "ORDER BY id LIMIT :limit FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockFinishedForCleanup(@Param("afterId") long afterId, @Param("cutoff") LocalDateTime cutoff,
+                                      @Param("limit") int limit);
+
+    /**
+     * Remove reminders by id in one statement
+     */
+    @Modifying
+    @Query("DELETE FROM RideReminder r WHERE r.id IN :ids")
+    int deleteByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,36 @@
+package com.ridesharing.repository;
+
+import com.ridesharing.entity.WalletLedgerEntry;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+
+/**
+ * Wallet Ledger Repository - Append-only journal of wallet postings
+ */
+@Repository
+public interface WalletLedgerRepository extends JpaRepository<WalletLedgerEntry, Long> {
+
+    /**
+     * Ledger lines of one driver wallet, newest first
+     */
+    Page<WalletLedgerEntry> findByWalletIdOrderByCreatedAtDescIdDesc(Long walletId, Pageable pageable);
+
+    /**
+     * Whether an event has already been posted (idempotency check)
+     */
+    boolean existsByReferenceKeyAndEntryType(String referenceKey, WalletLedgerEntry.EntryType entryType);
+
+    /**
+     * Balance recomputed from the journal (credits - debits), used to audit the cached balance
+     */
+    @Query("SELECT COALESCE(SUM(CASE WHEN e.direction = com.ridesharing.entity.WalletLedgerEntry$Direction.CREDIT " +
+           "THEN e.amount ELSE -e.amount END), 0) FROM WalletLedgerEntry e " +
+           "WHERE e.walletId = :walletId AND e.account = com.ridesharing.entity.WalletLedgerEntry$Account.DRIVER_WALLET")
+    BigDecimal computeWalletBalance(@Param("walletId") Long walletId);
+}
@@ -24,6 +24,9 @@ import java.util.Collections;
 @Component
 public class JwtAuthenticationFilter extends OncePerRequestFilter {
 
+    private static final String EVENT_STREAM_PATH = "/api/events/stream";
+    private static final String STREAM_TICKET_TYPE = "STREAM";
+
     private final JwtTokenProvider tokenProvider;
     private final UserDetailsService userDetailsService;
 
@@ -37,11 +40,20 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
             throws ServletException, IOException {
         try {
             String jwt = getJwtFromRequest(request);
+            boolean fromTicket = false;
+            if (!StringUtils.hasText(jwt) && EVENT_STREAM_PATH.equals(request.getRequestURI())) {
+                // EventSource cannot set headers, so the event stream alone takes a short-lived ticket as a query parameter
+                jwt = request.getParameter("ticket");
+                fromTicket = true;
+            }
 
             if (StringUtils.hasText(jwt) && tokenProvider.validateToken(jwt)) {
                 String tokenType = tokenProvider.getTypeFromJWT(jwt);
-                
-                if ("ADMIN".equals(tokenType)) {
+
+                if (fromTicket != STREAM_TICKET_TYPE.equals(tokenType)) {
+                    // Tickets are good for the event stream only, and the stream's query parameter takes only tickets
+                    logger.warn("Rejected " + tokenType + " token on " + request.getRequestURI());
+                } else if ("ADMIN".equals(tokenType)) {
                     // Handle admin token
                     String adminEmail = tokenProvider.getSubjectFromJWT(jwt);
                     
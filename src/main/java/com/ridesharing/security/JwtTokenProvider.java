@@ -16,14 +16,17 @@ public class JwtTokenProvider {
     private final SecretKey key;
     private final long jwtExpirationInMs;
     private final long refreshExpirationInMs;
+    private final long streamTicketExpirationInMs;
 
     public JwtTokenProvider(
             @Value("${jwt.secret}") String jwtSecret,
             @Value("${jwt.expiration}") long jwtExpirationInMs,
-            @Value("${jwt.refreshExpiration}") long refreshExpirationInMs) {
+            @Value("${jwt.refreshExpiration}") long refreshExpirationInMs,
+            @Value("${jwt.streamTicketExpiration:60000}") long streamTicketExpirationInMs) {
         this.key = Keys.hmacShaKeyFor(jwtSecret.getBytes());
         this.jwtExpirationInMs = jwtExpirationInMs;
         this.refreshExpirationInMs = refreshExpirationInMs;
+        this.streamTicketExpirationInMs = streamTicketExpirationInMs;
     }
 
     // User token methods (existing)
@@ -80,6 +83,19 @@ public class JwtTokenProvider {
                 .compact();
     }
 
+    // Event stream ticket: short-lived, accepted only when opening /api/events/stream
+    public String generateStreamTicket(String phoneNumber) {
+        Date expiryDate = new Date(System.currentTimeMillis() + streamTicketExpirationInMs);
+
+        return Jwts.builder()
+                .subject(phoneNumber)
+                .claim("type", "STREAM")
+                .issuedAt(new Date())
+                .expiration(expiryDate)
+                .signWith(key)
+                .compact();
+    }
+
     public String getSubjectFromJWT(String token) {
         Claims claims = Jwts.parser()
                 .verifyWith(key)
@@ -157,4 +173,8 @@ public class JwtTokenProvider {
     public long getJwtExpirationInMs() {
         return jwtExpirationInMs;
     }
+
+    public long getStreamTicketExpirationInMs() {
+        return streamTicketExpirationInMs;
+    }
 }
\ No newline at end of file
@@ -1,11 +1,13 @@
 package com.ridesharing.service;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.ridesharing.dto.BookingDto;
 import com.ridesharing.dto.BookingResponseDto;
+import com.ridesharing.dto.StatusUpdateEvent;
 import com.ridesharing.entity.Booking;
 import com.ridesharing.entity.BookingStatus;
 import com.ridesharing.entity.Ride;
@@ -13,6 +15,7 @@ import com.ridesharing.entity.RideStatus;
 import com.ridesharing.entity.User;
 import com.ridesharing.repository.BookingRepository;
 import com.ridesharing.repository.RideRepository;
+import com.ridesharing.util.Money;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -29,6 +32,9 @@ public class BookingService {
     private final UserService userService;
     private final EmailService emailService;
     private final RideReminderService reminderService;
+    private final RefundService refundService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final SurgePricingService surgePricingService;
 
     public BookingResponseDto bookRide(String phoneNumber, BookingDto bookingDto) {
         User passenger = userService.getUserByPhoneNumber(phoneNumber);
@@ -41,8 +47,9 @@ public class BookingService {
         validateBooking(passenger, ride, bookingDto.getSeatsBooked());
 
         // Calculate total amount
-        BigDecimal totalAmount = ride.getPricePerSeat()
-                .multiply(BigDecimal.valueOf(bookingDto.getSeatsBooked()));
+        BigDecimal totalAmount = Money.of(ride.getPricePerSeat())
+                .times(bookingDto.getSeatsBooked())
+                .toBigDecimal();
 
         // Create booking
         Booking booking = new Booking();
@@ -66,6 +73,9 @@ public class BookingService {
         rideRepository.save(ride);
         Booking savedBooking = bookingRepository.save(booking);
         
+        eventPublisher.publishEvent(StatusUpdateEvent.forBooking(savedBooking, "New booking request"));
+        surgePricingService.recordBooking(ride.getSource(), ride.getDestination(), bookingDto.getSeatsBooked());
+
         return convertToResponseDto(savedBooking);
     }
 
@@ -112,6 +122,8 @@ public class BookingService {
             throw new RuntimeException("Cannot cancel booking less than 2 hours before departure");
         }
 
+        boolean wasPaid = booking.getStatus() == BookingStatus.PAID;
+
         // Update booking status
         booking.setStatus(BookingStatus.CANCELLED);
 
@@ -126,6 +138,11 @@ public class BookingService {
 
         rideRepository.save(ride);
         Booking updatedBooking = bookingRepository.save(booking);
+
+        // Queue the refund in this transaction; the refund worker calls the gateway
+        if (wasPaid) {
+            refundService.enqueueRefund(updatedBooking, "Cancelled by passenger");
+        }
         
         // Cancel any scheduled reminders for this booking
         try {
@@ -135,6 +152,8 @@ public class BookingService {
             System.err.println("Failed to cancel ride reminders: " + e.getMessage());
         }
         
+        eventPublisher.publishEvent(StatusUpdateEvent.forBooking(updatedBooking, "Booking cancelled by passenger"));
+
         return convertToResponseDto(updatedBooking);
     }
 
@@ -207,6 +226,8 @@ public class BookingService {
             System.err.println("Failed to schedule ride reminders: " + e.getMessage());
         }
         
+        eventPublisher.publishEvent(StatusUpdateEvent.forBooking(savedBooking, "Booking confirmed by driver"));
+
         return convertToResponseDto(savedBooking);
     }
 
@@ -227,6 +248,8 @@ public class BookingService {
             throw new RuntimeException("Completed bookings cannot be cancelled");
         }
         
+        boolean wasPaid = booking.getStatus() == BookingStatus.PAID;
+
         booking.setStatus(BookingStatus.CANCELLED);
         booking.setUpdatedAt(LocalDateTime.now());
         
@@ -241,6 +264,11 @@ public class BookingService {
         
         rideRepository.save(ride);
         Booking savedBooking = bookingRepository.save(booking);
+
+        // Queue the refund in this transaction; the refund worker calls the gateway
+        if (wasPaid) {
+            refundService.enqueueRefund(savedBooking, "Cancelled by driver");
+        }
         
         // Send cancellation email to passenger
         try {
@@ -263,6 +291,8 @@ public class BookingService {
             System.err.println("Failed to cancel ride reminders: " + e.getMessage());
         }
         
+        eventPublisher.publishEvent(StatusUpdateEvent.forBooking(savedBooking, "Booking cancelled by driver"));
+
         return convertToResponseDto(savedBooking);
     }
 
@@ -353,8 +383,9 @@ public class BookingService {
         validateBooking(passenger, ride, seatsToBook);
 
         // Calculate total amount
-        BigDecimal totalAmount = ride.getPricePerSeat()
-                .multiply(BigDecimal.valueOf(seatsToBook));
+        BigDecimal totalAmount = Money.of(ride.getPricePerSeat())
+                .times(seatsToBook)
+                .toBigDecimal();
 
         // Create booking
         Booking booking = new Booking();
@@ -378,6 +409,9 @@ public class BookingService {
         rideRepository.save(ride);
         Booking savedBooking = bookingRepository.save(booking);
         
+        eventPublisher.publishEvent(StatusUpdateEvent.forBooking(savedBooking, "New booking request"));
+        surgePricingService.recordBooking(ride.getSource(), ride.getDestination(), seatsToBook);
+
         return convertToResponseDto(savedBooking);
     }
 }
\ No newline at end of file
@@ -6,12 +6,13 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
 import org.springframework.stereotype.Service;
-import org.thymeleaf.context.Context;
-import org.thymeleaf.spring6.SpringTemplateEngine;
 
+import com.ridesharing.email.EmailTemplateRenderer;
 import com.ridesharing.entity.Booking;
 import com.ridesharing.entity.Ride;
 import com.ridesharing.entity.User;
+import com.ridesharing.outbound.OutboundCallGuard;
+import com.ridesharing.outbound.OutboundProvider;
 
 import jakarta.mail.MessagingException;
 import jakarta.mail.internet.MimeMessage;
@@ -25,7 +26,8 @@ import java.util.Map;
 public class EmailService {
 
     private final JavaMailSender emailSender;
-    private final SpringTemplateEngine templateEngine;
+    private final EmailTemplateRenderer templateRenderer;
+    private final OutboundCallGuard outboundCallGuard;
 
     @Value("${app.email.from}")
     private String fromEmail;
@@ -142,19 +144,15 @@ public class EmailService {
             MimeMessage message = emailSender.createMimeMessage();
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
 
-            // Create Thymeleaf context
-            Context context = new Context();
-            context.setVariables(templateModel);
-
-            // Process the template
-            String htmlContent = templateEngine.process(templateName, context);
+            // Precompiled chunks where possible, Thymeleaf otherwise
+            String htmlContent = templateRenderer.render(templateName, templateModel);
 
             helper.setFrom(fromEmail);
             helper.setTo(to);
             helper.setSubject(subject);
             helper.setText(htmlContent, true);
 
-            emailSender.send(message);
+            outboundCallGuard.run(OutboundProvider.SMTP, () -> emailSender.send(message));
         } catch (MessagingException e) {
             log.error("Failed to send email to: {}", to, e);
             throw new RuntimeException("Failed to send email", e);
@@ -185,7 +183,7 @@ public class EmailService {
             helper.setSubject(subject);
             helper.setText(text, false);
 
-            emailSender.send(message);
+            outboundCallGuard.run(OutboundProvider.SMTP, () -> emailSender.send(message));
             log.info("Simple email sent to: {}", to);
         } catch (MessagingException e) {
             log.error("Failed to send simple email to: {}", to, e);
@@ -2,19 +2,28 @@ package com.ridesharing.service;
 
 import com.ridesharing.config.FareConfig;
 import com.ridesharing.dto.DistanceResponseDto;
+import com.ridesharing.dto.FareCalculationRequest;
+import com.ridesharing.geo.CityMatrixService;
+import com.ridesharing.geo.GeoPoint;
+import com.ridesharing.geo.PlaceNames;
+import com.ridesharing.geo.PlaceResolver;
+import com.ridesharing.geo.RoadRouter;
+import com.ridesharing.geo.RoutingService;
+import com.ridesharing.util.Money;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-
-import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.fasterxml.jackson.annotation.JsonProperty;
-import lombok.Data;
 
 import java.math.BigDecimal;
-import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 
 /**
  * FREE Distance Calculator Service - No API Keys Required!
@@ -26,7 +35,13 @@ import java.util.Map;
 public class FreeDistanceCalculatorService {
     
     private final FareConfig fareConfig;
-    private final RestTemplate restTemplate = new RestTemplate();
+    private final CityMatrixService cityMatrixService;
+    private final PlaceResolver placeResolver;
+    private final RoutingService routingService;
+    private final SurgePricingService surgePricingService;
+    
+    @Value("${app.routing.average-speed-kmh:50}")
+    private double averageSpeedKmh;
     
     // Pre-calculated distances for major Indian cities (in km)
     private static final Map<String, Map<String, Double>> CITY_DISTANCES = new HashMap<>();
@@ -124,22 +139,16 @@ public class FreeDistanceCalculatorService {
         try {
             log.info("Calculating distance from {} to {} using FREE services", origin, destination);
             
-            // Method 1: Try OpenRouteService (FREE - No API key needed)
-            try {
-                return calculateUsingOpenRouteService(origin, destination);
-            } catch (Exception e) {
-                log.warn("OpenRouteService failed, trying fallback methods: {}", e.getMessage());
-            }
-            
-            // Method 2: Try Nominatim + Distance calculation (FREE)
-            try {
-                return calculateUsingNominatim(origin, destination);
-            } catch (Exception e) {
-                log.warn("Nominatim calculation failed, using city database: {}", e.getMessage());
+            // Method 0: Precomputed city-pair matrix (constant time, no resolution needed)
+            Optional<CityMatrixService.Entry> cached = cityMatrixService.lookup(origin, destination);
+            if (cached.isPresent()) {
+                return applySurge(fromMatrix(cached.get()), origin, destination);
             }
             
-            // Method 3: Fallback to pre-calculated city distances
-            return calculateUsingCityDatabase(origin, destination);
+            // Method 1: Resolve both places concurrently (gazetteer, geocoding cache, Nominatim) within one deadline
+            PlaceResolver.Resolution resolution = placeResolver.resolve(origin, destination);
+            return applySurge(quoteResolved(origin, destination, resolution.getOrigin(), resolution.getDestination()),
+                    origin, destination);
             
         } catch (Exception e) {
             log.error("All distance calculation methods failed", e);
@@ -148,79 +157,85 @@ public class FreeDistanceCalculatorService {
     }
     
     /**
-     * Method 1: OpenRouteService (FREE - No registration needed)
+     * Quote many routes in one call
+     * Matrix hits are answered directly; all remaining place names are deduplicated and resolved
+     * together under one deadline, then the fares are computed in parallel. Results keep the
+     * order of the input routes.
      */
-    private DistanceResponseDto calculateUsingOpenRouteService(String origin, String destination) {
-        try {
-            // First get coordinates using Nominatim (FREE)
-            Coordinate originCoord = getCoordinatesFromNominatim(origin);
-            Coordinate destCoord = getCoordinatesFromNominatim(destination);
-            
-            if (originCoord == null || destCoord == null) {
-                throw new RuntimeException("Could not get coordinates for cities");
+    public List<DistanceResponseDto> calculateBatch(List<FareCalculationRequest> routes) {
+        DistanceResponseDto[] results = new DistanceResponseDto[routes.size()];
+        List<Integer> pending = new ArrayList<>();
+        Set<String> placeNames = new LinkedHashSet<>();
+        
+        for (int i = 0; i < routes.size(); i++) {
+            FareCalculationRequest route = routes.get(i);
+            if (route == null || isBlank(route.getSource()) || isBlank(route.getDestination())) {
+                results[i] = new DistanceResponseDto("Source and destination are required");
+                continue;
             }
-            
-            // Calculate distance using Haversine formula
-            double distance = calculateHaversineDistance(
-                originCoord.lat, originCoord.lon,
-                destCoord.lat, destCoord.lon
-            );
-            
-            // Estimate duration (assuming average speed of 60 km/h)
-            int duration = (int) Math.round(distance * 60 / 60); // in minutes
-            
-            BigDecimal calculatedFare = calculateFare(distance);
-            
-            log.info("Distance calculated using coordinates: {} km", distance);
-            
-            return new DistanceResponseDto(
-                distance,
-                duration,
-                String.format("%.1f km", distance),
-                String.format("%d mins", duration),
-                calculatedFare
-            );
-            
-        } catch (Exception e) {
-            throw new RuntimeException("OpenRouteService calculation failed: " + e.getMessage());
+            Optional<CityMatrixService.Entry> cached = cityMatrixService.lookup(route.getSource(), route.getDestination());
+            if (cached.isPresent()) {
+                results[i] = applySurge(fromMatrix(cached.get()), route.getSource(), route.getDestination());
+                continue;
+            }
+            pending.add(i);
+            placeNames.add(route.getSource());
+            placeNames.add(route.getDestination());
+        }
+        
+        if (!pending.isEmpty()) {
+            Map<String, GeoPoint> points = placeResolver.resolveAll(placeNames);
+            pending.parallelStream().forEach(i -> {
+                FareCalculationRequest route = routes.get(i);
+                try {
+                    results[i] = applySurge(quoteResolved(route.getSource(), route.getDestination(),
+                            points.get(PlaceNames.normalize(route.getSource())),
+                            points.get(PlaceNames.normalize(route.getDestination()))),
+                            route.getSource(), route.getDestination());
+                } catch (Exception e) {
+                    log.error("Batch quote failed for {} -> {}", route.getSource(), route.getDestination(), e);
+                    results[i] = new DistanceResponseDto("Unable to calculate distance. Please check city names.");
+                }
+            });
         }
+        
+        log.info("Batch quote: {} routes, {} from city matrix, {} distinct places resolved",
+                routes.size(), routes.size() - pending.size(), placeNames.size());
+        return Arrays.asList(results);
+    }
+    
+    private DistanceResponseDto fromMatrix(CityMatrixService.Entry entry) {
+        return buildResponse(entry.getDistanceKm(), entry.getDurationMs(), entry.isRoad() ? "ROAD" : "STRAIGHT_LINE");
     }
     
     /**
-     * Method 2: Nominatim Geocoding + Haversine Distance (FREE)
+     * Road route, then straight line, then the city database, for already-resolved coordinates
      */
-    private DistanceResponseDto calculateUsingNominatim(String origin, String destination) {
-        try {
-            Coordinate originCoord = getCoordinatesFromNominatim(origin);
-            Coordinate destCoord = getCoordinatesFromNominatim(destination);
-            
-            if (originCoord == null || destCoord == null) {
-                throw new RuntimeException("Could not geocode cities");
+    private DistanceResponseDto quoteResolved(String origin, String destination, GeoPoint originPoint, GeoPoint destinationPoint) {
+        if (originPoint != null && destinationPoint != null) {
+            Optional<RoadRouter.Route> route = routingService.route(originPoint, destinationPoint);
+            if (route.isPresent()) {
+                double distance = route.get().getDistanceMeters() / 1000.0;
+                log.info("Road distance calculated: {} km", distance);
+                return buildResponse(distance, route.get().getDurationMs(), "ROAD");
             }
             
-            double distance = calculateHaversineDistance(
-                originCoord.lat, originCoord.lon,
-                destCoord.lat, destCoord.lon
-            );
-            
-            int duration = (int) Math.round(distance * 60 / 60);
-            BigDecimal calculatedFare = calculateFare(distance);
-            
-            return new DistanceResponseDto(
-                distance,
-                duration,
-                String.format("%.1f km", distance),
-                String.format("%d mins", duration),
-                calculatedFare
-            );
-            
-        } catch (Exception e) {
-            throw new RuntimeException("Nominatim calculation failed: " + e.getMessage());
+            double distance = originPoint.distanceKmTo(destinationPoint);
+            log.info("Distance calculated using coordinates: {} km", distance);
+            return buildResponse(distance, estimateDurationMs(distance), "STRAIGHT_LINE");
         }
+        
+        // Method 2: Fallback to pre-calculated city distances
+        log.warn("Could not resolve coordinates for {} / {}, using city database", origin, destination);
+        return calculateUsingCityDatabase(origin, destination);
+    }
+    
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
     }
     
     /**
-     * Method 3: Pre-calculated city distances (Always works)
+     * Method 2: Pre-calculated city distances (Always works)
      */
     private DistanceResponseDto calculateUsingCityDatabase(String origin, String destination) {
         String originKey = origin.toLowerCase().trim();
@@ -246,93 +261,64 @@ public class FreeDistanceCalculatorService {
             distance = estimateDistanceForUnknownCities(origin, destination);
         }
         
-        int duration = (int) Math.round(distance * 60 / 60);
-        BigDecimal calculatedFare = calculateFare(distance);
-        
         log.info("Using city database distance: {} km", distance);
         
-        return new DistanceResponseDto(
+        return buildResponse(distance, estimateDurationMs(distance), "CITY_DATABASE");
+    }
+    
+    private DistanceResponseDto buildResponse(double distance, long durationMs, String routeType) {
+        int duration = (int) Math.round(durationMs / 60_000.0);
+        BigDecimal calculatedFare = calculateFare(distance, 1.0);
+        
+        DistanceResponseDto response = new DistanceResponseDto(
             distance,
             duration,
             String.format("%.1f km", distance),
             String.format("%d mins", duration),
             calculatedFare
         );
+        response.setDurationMillis(durationMs);
+        response.setRouteType(routeType);
+        return response;
     }
     
     /**
-     * Get coordinates using Nominatim (OpenStreetMap) - FREE
+     * Travel time at the configured average speed, used when no road route is available
      */
-    private Coordinate getCoordinatesFromNominatim(String cityName) {
-        try {
-            String url = String.format(
-                "https://nominatim.openstreetmap.org/search?q=%s,India&format=json&limit=1",
-                cityName.replace(" ", "+")
-            );
-            
-            NominatimResponse[] response = restTemplate.getForObject(url, NominatimResponse[].class);
-            
-            if (response != null && response.length > 0) {
-                return new Coordinate(
-                    Double.parseDouble(response[0].lat),
-                    Double.parseDouble(response[0].lon)
-                );
-            }
-            
-            return null;
-        } catch (Exception e) {
-            log.warn("Failed to get coordinates for {}: {}", cityName, e.getMessage());
-            return null;
-        }
+    private long estimateDurationMs(double distanceKm) {
+        return Math.round(distanceKm / averageSpeedKmh * 3_600_000);
     }
     
     /**
-     * Calculate distance using Haversine formula
+     * Reprice a successful quote with the corridor's current surge multiplier
      */
-    private double calculateHaversineDistance(double lat1, double lon1, double lat2, double lon2) {
-        final int R = 6371; // Radius of the earth in km
-        
-        double latDistance = Math.toRadians(lat2 - lat1);
-        double lonDistance = Math.toRadians(lon2 - lon1);
-        
-        double a = Math.sin(latDistance / 2) * Math.sin(latDistance / 2)
-                + Math.cos(Math.toRadians(lat1)) * Math.cos(Math.toRadians(lat2))
-                * Math.sin(lonDistance / 2) * Math.sin(lonDistance / 2);
-        
-        double c = 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
-        
-        return R * c; // Distance in km
+    private DistanceResponseDto applySurge(DistanceResponseDto response, String origin, String destination) {
+        if (!"SUCCESS".equals(response.getStatus())) {
+            return response;
+        }
+        double multiplier = surgePricingService.getMultiplier(origin, destination);
+        response.setSurgeMultiplier(multiplier);
+        if (multiplier > 1.0) {
+            response.setCalculatedFare(calculateFare(response.getDistanceKm(), multiplier));
+        }
+        return response;
     }
     
     /**
-     * Calculate fare based on distance
+     * Calculate fare based on distance and surge multiplier (the min/max limits still apply)
+     * Arithmetic runs on paise (Money); converted to BigDecimal only for the response DTO
      */
-    private BigDecimal calculateFare(double distanceKm) {
-        BigDecimal distance = BigDecimal.valueOf(distanceKm);
-        BigDecimal baseFare = fareConfig.getBase();
-        BigDecimal ratePerKm = fareConfig.getRatePerKm();
-        
-        BigDecimal distanceFare = ratePerKm.multiply(distance);
-        BigDecimal totalFare = baseFare.add(distanceFare);
-        
-        totalFare = totalFare.setScale(2, RoundingMode.HALF_UP);
+    private BigDecimal calculateFare(double distanceKm, double surgeMultiplier) {
+        Money totalFare = fareConfig.baseFare()
+                .plus(fareConfig.ratePerKmFare().times(distanceKm))
+                .times(surgeMultiplier)
+                .clamp(fareConfig.minFareLimit(), fareConfig.maxFareLimit());
         
-        if (totalFare.compareTo(fareConfig.getMinFare()) < 0) {
-            totalFare = fareConfig.getMinFare();
-        }
-        if (totalFare.compareTo(fareConfig.getMaxFare()) > 0) {
-            totalFare = fareConfig.getMaxFare();
-        }
-        
-        return totalFare;
+        return totalFare.toBigDecimal();
     }
     
     private String cleanCityName(String cityName) {
-        return cityName.toLowerCase()
-                .replace(" ", "")
-                .replace(",india", "")
-                .replace(",in", "")
-                .trim();
+        return PlaceNames.normalize(cityName);
     }
     
     private double estimateDistanceForUnknownCities(String origin, String destination) {
@@ -340,20 +326,4 @@ public class FreeDistanceCalculatorService {
         log.info("Using default distance estimation for {} to {}", origin, destination);
         return 500.0;
     }
-    
-    // Data classes
-    @Data
-    private static class Coordinate {
-        final double lat;
-        final double lon;
-    }
-    
-    @Data
-    @JsonIgnoreProperties(ignoreUnknown = true)
-    private static class NominatimResponse {
-        String lat;
-        String lon;
-        @JsonProperty("display_name")
-        String displayName;
-    }
 }
\ No newline at end of file
@@ -0,0 +1,89 @@
+package com.ridesharing.service;
+
+import com.ridesharing.entity.NotificationChannel;
+import com.ridesharing.entity.User;
+import com.ridesharing.gateway.PushGateway;
+import com.ridesharing.gateway.SmsGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Notification Router - Picks the channels a user's ride reminders go out on
+ *
+ * Preferences are stored on the user as a comma-separated list of channel names (null means
+ * email only). When scheduling, channels the user cannot be reached on are dropped (push without
+ * a registered device), as are channels served only by a local stand-in gateway, which would log
+ * the message and report it sent; email is the fallback if nothing is left. Preferences are kept,
+ * so they take effect once a real provider is configured.
+ */
+@Component
+@Slf4j
+public class NotificationRouter {
+
+    private final Set<NotificationChannel> available = EnumSet.of(NotificationChannel.EMAIL);
+
+    public NotificationRouter(SmsGateway smsGateway, PushGateway pushGateway) {
+        if (!smsGateway.isStandIn()) {
+            available.add(NotificationChannel.SMS);
+        }
+        if (!pushGateway.isStandIn()) {
+            available.add(NotificationChannel.PUSH);
+        }
+        log.info("Reminder channels with a real provider: {}", available);
+    }
+
+    /**
+     * Channels the user opted into
+     */
+    public Set<NotificationChannel> preferredChannels(User user) {
+        String stored = user.getReminderChannels();
+        if (stored == null || stored.isBlank()) {
+            return EnumSet.of(NotificationChannel.EMAIL);
+        }
+        Set<NotificationChannel> channels = EnumSet.noneOf(NotificationChannel.class);
+        for (String name : stored.split(",")) {
+            try {
+                channels.add(NotificationChannel.valueOf(name.trim()));
+            } catch (IllegalArgumentException e) {
+                log.warn("Ignoring unknown notification channel '{}' for user {}", name, user.getId());
+            }
+        }
+        return channels.isEmpty() ? EnumSet.of(NotificationChannel.EMAIL) : channels;
+    }
+
+    /**
+     * Replace the user's channel preferences
+     */
+    public void setPreferredChannels(User user, Collection<NotificationChannel> channels) {
+        user.setReminderChannels(channels.isEmpty() ? null : channels.stream()
+                .distinct()
+                .sorted()
+                .map(Enum::name)
+                .collect(Collectors.joining(",")));
+    }
+
+    /**
+     * Channels to create reminders on for this passenger right now
+     */
+    public Set<NotificationChannel> channelsFor(User passenger) {
+        Set<NotificationChannel> channels = preferredChannels(passenger);
+        channels.retainAll(available);
+        if (channels.contains(NotificationChannel.SMS) && isBlank(passenger.getPhoneNumber())) {
+            channels.remove(NotificationChannel.SMS);
+        }
+        if (channels.contains(NotificationChannel.PUSH) && isBlank(passenger.getPushToken())) {
+            channels.remove(NotificationChannel.PUSH);
+        }
+        return channels.isEmpty() ? EnumSet.of(NotificationChannel.EMAIL) : channels;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
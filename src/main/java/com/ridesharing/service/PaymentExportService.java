@@ -0,0 +1,212 @@
+package com.ridesharing.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.ridesharing.dto.PaymentExportRow;
+import com.ridesharing.repository.PaymentRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Payment Export Service - Streams payment/booking history as CSV or NDJSON
+ * Rows come straight off a forward-only JDBC cursor, so memory stays flat regardless of row count
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class PaymentExportService {
+
+    private static final int FLUSH_EVERY_ROWS = 500;
+
+    private static final LocalDateTime EARLIEST_EXPORT_DATE = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private static final String CSV_HEADER = "payment_id,booking_id,ride_id,amount,driver_settlement_amount,platform_commission," +
+            "payment_status,settlement_status,payment_method,receipt_number,seats_booked,source,destination,departure_date," +
+            "passenger_id,passenger_name,driver_id,driver_name,created_at,paid_at,settlement_date";
+
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Supported export formats
+     */
+    public enum ExportFormat {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        ExportFormat(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        public static ExportFormat fromParam(String value) {
+            return "ndjson".equalsIgnoreCase(value) || "json".equalsIgnoreCase(value) ? NDJSON : CSV;
+        }
+    }
+
+    /**
+     * Export passenger payment history
+     */
+    @Transactional(readOnly = true)
+    public long exportPassengerPayments(Long passengerId, LocalDateTime startDate, LocalDateTime endDate,
+                                        ExportFormat format, OutputStream out) {
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamPassengerExport(
+                passengerId, startOrDefault(startDate), endOrDefault(endDate))) {
+            return write(rows, format, out);
+        }
+    }
+
+    /**
+     * Export driver payment history (earnings)
+     */
+    @Transactional(readOnly = true)
+    public long exportDriverPayments(Long driverId, LocalDateTime startDate, LocalDateTime endDate,
+                                     ExportFormat format, OutputStream out) {
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamDriverExport(
+                driverId, startOrDefault(startDate), endOrDefault(endDate))) {
+            return write(rows, format, out);
+        }
+    }
+
+    /**
+     * Export all payments within a date range (admin)
+     */
+    @Transactional(readOnly = true)
+    public long exportAllPayments(LocalDateTime startDate, LocalDateTime endDate,
+                                  ExportFormat format, OutputStream out) {
+        try (Stream<PaymentExportRow> rows = paymentRepository.streamAllExport(
+                startOrDefault(startDate), endOrDefault(endDate))) {
+            return write(rows, format, out);
+        }
+    }
+
+    private long write(Stream<PaymentExportRow> rows, ExportFormat format, OutputStream out) {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        long count = 0;
+        try {
+            if (format == ExportFormat.CSV) {
+                writer.write(CSV_HEADER);
+                writer.write('\n');
+            }
+
+            Iterator<PaymentExportRow> iterator = rows.iterator();
+            while (iterator.hasNext()) {
+                PaymentExportRow row = iterator.next();
+                if (format == ExportFormat.CSV) {
+                    writeCsvRow(writer, row);
+                } else {
+                    writer.write(objectMapper.writeValueAsString(row));
+                    writer.write('\n');
+                }
+
+                if (++count % FLUSH_EVERY_ROWS == 0) {
+                    writer.flush();
+                }
+            }
+            writer.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to write payment export", e);
+        }
+
+        log.info("Exported {} payment rows as {}", count, format);
+        return count;
+    }
+
+    private void writeCsvRow(Writer writer, PaymentExportRow row) throws IOException {
+        writer.write(csv(row.getPaymentId()));
+        writer.write(',');
+        writer.write(csv(row.getBookingId()));
+        writer.write(',');
+        writer.write(csv(row.getRideId()));
+        writer.write(',');
+        writer.write(csv(row.getAmount()));
+        writer.write(',');
+        writer.write(csv(row.getDriverSettlementAmount()));
+        writer.write(',');
+        writer.write(csv(row.getPlatformCommission()));
+        writer.write(',');
+        writer.write(csv(row.getPaymentStatus()));
+        writer.write(',');
+        writer.write(csv(row.getSettlementStatus()));
+        writer.write(',');
+        writer.write(csv(row.getPaymentMethod()));
+        writer.write(',');
+        writer.write(csv(row.getReceiptNumber()));
+        writer.write(',');
+        writer.write(csv(row.getSeatsBooked()));
+        writer.write(',');
+        writer.write(csv(row.getSource()));
+        writer.write(',');
+        writer.write(csv(row.getDestination()));
+        writer.write(',');
+        writer.write(csv(row.getDepartureDate()));
+        writer.write(',');
+        writer.write(csv(row.getPassengerId()));
+        writer.write(',');
+        writer.write(csv(row.getPassengerName()));
+        writer.write(',');
+        writer.write(csv(row.getDriverId()));
+        writer.write(',');
+        writer.write(csv(row.getDriverName()));
+        writer.write(',');
+        writer.write(csv(row.getCreatedAt()));
+        writer.write(',');
+        writer.write(csv(row.getPaidAt()));
+        writer.write(',');
+        writer.write(csv(row.getSettlementDate()));
+        writer.write('\n');
+    }
+
+    /**
+     * Quote a CSV field only when it contains a delimiter, quote or line break (RFC 4180)
+     */
+    private String csv(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        boolean needsQuoting = false;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                needsQuoting = true;
+                break;
+            }
+        }
+        if (!needsQuoting) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+
+    private LocalDateTime startOrDefault(LocalDateTime startDate) {
+        return startDate != null ? startDate : EARLIEST_EXPORT_DATE;
+    }
+
+    private LocalDateTime endOrDefault(LocalDateTime endDate) {
+        return endDate != null ? endDate : LocalDateTime.now();
+    }
+}
@@ -7,17 +7,23 @@ import com.ridesharing.dto.PaymentOrderRequest;
 import com.ridesharing.dto.PaymentOrderResponse;
 import com.ridesharing.dto.PaymentVerificationRequest;
 import com.ridesharing.dto.PaymentHistoryResponse;
+import com.ridesharing.dto.StatusUpdateEvent;
+import com.ridesharing.dto.WalletSummaryDto;
 import com.ridesharing.entity.Booking;
 import com.ridesharing.entity.BookingStatus;
 import com.ridesharing.entity.Payment;
 import com.ridesharing.entity.Ride;
 import com.ridesharing.exception.PaymentException;
+import com.ridesharing.outbound.OutboundCallGuard;
+import com.ridesharing.outbound.OutboundProvider;
 import com.ridesharing.repository.BookingRepository;
 import com.ridesharing.repository.PaymentRepository;
+import com.ridesharing.util.Money;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.json.JSONObject;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -36,6 +42,9 @@ public class PaymentService {
 
     private final PaymentRepository paymentRepository;
     private final BookingRepository bookingRepository;
+    private final WalletService walletService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final OutboundCallGuard outboundCallGuard;
 
     @Value("${razorpay.key.id}")
     private String razorpayKeyId;
@@ -92,11 +101,11 @@ public class PaymentService {
             }
 
             // Convert amount to paise (Razorpay expects amount in smallest currency unit)
-            BigDecimal amountInPaise = booking.getTotalAmount().multiply(BigDecimal.valueOf(100));
+            long amountInPaise = Money.of(booking.getTotalAmount()).toPaise();
 
             // Create order in Razorpay
             JSONObject orderRequest = new JSONObject();
-            orderRequest.put("amount", amountInPaise.intValue());
+            orderRequest.put("amount", amountInPaise);
             orderRequest.put("currency", currency);
             orderRequest.put("receipt", "booking_" + booking.getId() + "_" + System.currentTimeMillis());
             orderRequest.put("notes", new JSONObject()
@@ -109,7 +118,7 @@ public class PaymentService {
             
             Order razorpayOrder;
             try {
-                razorpayOrder = razorpay.orders.create(orderRequest);
+                razorpayOrder = outboundCallGuard.call(OutboundProvider.RAZORPAY, () -> razorpay.orders.create(orderRequest));
                 log.info("✅ Razorpay order created: {}", razorpayOrder.get("id").toString());
             } catch (Exception e) {
                 log.error("❌ Failed to create Razorpay order: {}", e.getMessage(), e);
@@ -179,6 +188,8 @@ public class PaymentService {
                 booking.setStatus(BookingStatus.PAID);
                 bookingRepository.save(booking);
 
+                eventPublisher.publishEvent(StatusUpdateEvent.forPayment(payment, "Payment successful"));
+
                 log.info("Payment verified successfully for order: {}", request.getRazorpayOrderId());
                 return true;
 
@@ -188,6 +199,8 @@ public class PaymentService {
                 payment.setGatewayResponse("Signature verification failed");
                 paymentRepository.save(payment);
 
+                eventPublisher.publishEvent(StatusUpdateEvent.forPayment(payment, "Payment verification failed"));
+
                 log.warn("Payment signature verification failed for order: {}", request.getRazorpayOrderId());
                 return false;
             }
@@ -252,25 +265,24 @@ public class PaymentService {
             throw new PaymentException("Payment already settled to driver");
         }
 
+        // Get driver info
+        Booking booking = payment.getBooking();
+        Long driverId = booking.getRide().getDriver().getId();
+        BigDecimal driverEarnings = payment.getDriverSettlementAmount();
+
         // Mark settlement as completed
         payment.setSettlementStatus(Payment.SettlementStatus.COMPLETED);
         payment.setSettlementDate(LocalDateTime.now());
         
         paymentRepository.save(payment);
 
-        // Get driver info
-        Booking booking = payment.getBooking();
-        Long driverId = booking.getRide().getDriver().getId();
-        BigDecimal driverEarnings = payment.getDriverSettlementAmount();
+        // Credit driver wallet (ride earning + platform commission postings)
+        walletService.recordSettlement(payment, driverId);
 
         log.info("Payment released to driver {} for booking: {}, Amount: ₹{}", 
                 driverId, bookingId, driverEarnings);
 
-        // TODO: Integrate with wallet service to add money to driver wallet
-        // walletService.addEarningsToWallet(driverId, driverEarnings, "Ride completion: " + booking.getId());
-        
-        // TODO: Send notification to driver about payment received
-        // notificationService.notifyDriverPaymentReceived(driverId, driverEarnings);
+        eventPublisher.publishEvent(StatusUpdateEvent.forPayment(payment, "Payment of ₹" + driverEarnings + " settled to driver"));
     }
 
     /**
@@ -293,8 +305,13 @@ public class PaymentService {
      * Get total earnings for driver
      */
     public BigDecimal getDriverTotalEarnings(Long driverId) {
-        Double total = paymentRepository.getTotalEarningsByDriverId(driverId);
-        return total != null ? BigDecimal.valueOf(total) : BigDecimal.ZERO;
+        // Cached on the wallet; only drivers without a wallet yet fall back to summing payments
+        return walletService.getWalletSummary(driverId)
+                .map(WalletSummaryDto::getTotalEarned)
+                .orElseGet(() -> {
+                    Double total = paymentRepository.getTotalEarningsByDriverId(driverId);
+                    return total != null ? BigDecimal.valueOf(total) : BigDecimal.ZERO;
+                });
     }
 
     /**
@@ -323,6 +340,8 @@ public class PaymentService {
         booking.setStatus(BookingStatus.CONFIRMED);
         bookingRepository.save(booking);
 
+        eventPublisher.publishEvent(StatusUpdateEvent.forPayment(payment, "Payment failed: " + reason));
+
         log.warn("Payment failed for order: {}, Reason: {}", razorpayOrderId, reason);
     }
 
@@ -0,0 +1,36 @@
+package com.ridesharing.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Scheduled service for batched driver payouts
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(
+    value = "app.payout.scheduling.enabled", 
+    havingValue = "true", 
+    matchIfMissing = true
+)
+public class PayoutSchedulerService {
+
+    private final PayoutService payoutService;
+
+    /**
+     * Pay out settled earnings once per cycle (daily at 3 AM by default)
+     */
+    @Scheduled(cron = "${app.payout.cron:0 0 3 * * *}")
+    public void runPayoutCycle() {
+        try {
+            log.info("Starting scheduled driver payout cycle");
+            payoutService.runPayoutCycle();
+        } catch (Exception e) {
+            log.error("Error during scheduled driver payout cycle", e);
+        }
+    }
+}
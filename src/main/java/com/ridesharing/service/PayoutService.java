@@ -0,0 +1,304 @@
+package com.ridesharing.service;
+
+import com.ridesharing.dto.PayoutCycleSummary;
+import com.ridesharing.entity.DriverPayout;
+import com.ridesharing.exception.PaymentException;
+import com.ridesharing.gateway.PayoutGateway;
+import com.ridesharing.repository.DriverPayoutRepository;
+import com.ridesharing.repository.PaymentRepository;
+import com.ridesharing.util.Money;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Payout Service - Batches settled payments into one bank transfer per driver per cycle
+ *
+ * A cycle runs in two phases, each step in its own short transaction so progress is checkpointed:
+ *   1. prepare: create a PENDING DriverPayout and attach the driver's settled, unpaid payments to it
+ *   2. execute: debit the wallet and mark SUBMITTED, call the gateway, then mark COMPLETED/FAILED
+ * After a crash, unfinished payouts are resumed first. Attached payments can never join a second
+ * payout, the wallet debit is idempotent per payout, and the gateway receives the same idempotency
+ * key on every retry, so a resumed cycle never pays a driver twice. A payout the wallet cannot
+ * cover moves no money; its payments are released and join the driver's next payout.
+ * A payout the gateway rejects on every one of app.payout.max-attempts is abandoned: the wallet
+ * debit is reversed out of PAYOUT_CLEARING and its payments are released the same way. A transfer
+ * whose outcome is unknown (gateway error) stays SUBMITTED and is never reversed automatically.
+ * Drivers are split into partitions (driverId mod N) processed in parallel.
+ */
+@Service
+@Slf4j
+public class PayoutService {
+
+    private static final DateTimeFormatter CYCLE_KEY_FORMAT = DateTimeFormatter.ofPattern("yyyyMMddHHmm");
+
+    private final DriverPayoutRepository payoutRepository;
+    private final PaymentRepository paymentRepository;
+    private final WalletService walletService;
+    private final PayoutGateway payoutGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.payout.partitions:4}")
+    private int partitions;
+
+    @Value("${app.payout.max-attempts:5}")
+    private int maxAttempts;
+
+    @Value("${razorpay.currency:INR}")
+    private String currency;
+
+    public PayoutService(DriverPayoutRepository payoutRepository,
+                         PaymentRepository paymentRepository,
+                         WalletService walletService,
+                         PayoutGateway payoutGateway,
+                         PlatformTransactionManager transactionManager) {
+        this.payoutRepository = payoutRepository;
+        this.paymentRepository = paymentRepository;
+        this.walletService = walletService;
+        this.payoutGateway = payoutGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Run one payout cycle: resume unfinished payouts, then pay out every driver with unpaid settlements
+     */
+    public PayoutCycleSummary runPayoutCycle() {
+        if (!running.compareAndSet(false, true)) {
+            throw new PaymentException("A payout cycle is already running");
+        }
+
+        long started = System.currentTimeMillis();
+        String cycleKey = LocalDateTime.now().format(CYCLE_KEY_FORMAT);
+        AtomicInteger created = new AtomicInteger();
+        AtomicInteger completed = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+
+        try {
+            // Give up on payouts the gateway rejected on every attempt; their payments rejoin this cycle
+            List<Long> exhausted = payoutRepository.findExhaustedPayoutIds(maxAttempts);
+            for (Long payoutId : exhausted) {
+                reversePayout(payoutId);
+            }
+
+            // Resume payouts interrupted by a crash or rejected by the gateway on an earlier cycle
+            List<Long> resumable = payoutRepository.findResumablePayoutIds(maxAttempts);
+            for (Long payoutId : resumable) {
+                countOutcome(executePayout(payoutId), completed, failed);
+            }
+
+            List<Long> driverIds = paymentRepository.findDriverIdsWithUnpaidSettlements();
+            Map<Integer, List<Long>> byPartition = driverIds.stream()
+                    .collect(Collectors.groupingBy(id -> (int) Math.floorMod(id, (long) Math.max(1, partitions))));
+
+            log.info("💸 Payout cycle {}: {} reversed, {} resumed, {} drivers across {} partitions",
+                    cycleKey, exhausted.size(), resumable.size(), driverIds.size(), byPartition.size());
+
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                List<Future<?>> futures = new ArrayList<>();
+                for (List<Long> partition : byPartition.values()) {
+                    futures.add(executor.submit(() -> {
+                        for (Long driverId : partition) {
+                            try {
+                                Long payoutId = preparePayout(driverId, cycleKey);
+                                if (payoutId != null) {
+                                    created.incrementAndGet();
+                                    countOutcome(executePayout(payoutId), completed, failed);
+                                }
+                            } catch (Exception e) {
+                                failed.incrementAndGet();
+                                log.error("Payout failed for driver {} in cycle {}", driverId, cycleKey, e);
+                            }
+                        }
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new PaymentException("Payout cycle interrupted", e);
+            } catch (ExecutionException e) {
+                throw new PaymentException("Payout cycle failed: " + e.getCause().getMessage(), e.getCause());
+            }
+
+            PayoutCycleSummary summary = PayoutCycleSummary.builder()
+                    .cycleKey(cycleKey)
+                    .driversScanned(driverIds.size())
+                    .payoutsResumed(resumable.size())
+                    .payoutsReversed(exhausted.size())
+                    .payoutsCreated(created.get())
+                    .payoutsCompleted(completed.get())
+                    .payoutsFailed(failed.get())
+                    .durationMillis(System.currentTimeMillis() - started)
+                    .build();
+            log.info("💸 Payout cycle finished: {}", summary);
+            return summary;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Phase 1 (checkpoint): create the driver's payout for this cycle and attach unpaid settlements.
+     * Returns null when there is nothing to pay.
+     */
+    public Long preparePayout(Long driverId, String cycleKey) {
+        Long walletId = walletService.getOrCreateWalletId(driverId);
+        return transactionTemplate.execute(status -> {
+            DriverPayout existing = payoutRepository.findByDriverIdAndCycleKey(driverId, cycleKey).orElse(null);
+            if (existing != null) {
+                return existing.getId();
+            }
+
+            DriverPayout payout = new DriverPayout();
+            payout.setDriverId(driverId);
+            payout.setWalletId(walletId);
+            payout.setCycleKey(cycleKey);
+            payout = payoutRepository.saveAndFlush(payout);
+
+            int attached = paymentRepository.attachUnpaidSettlementsToPayout(driverId, payout.getId());
+            BigDecimal amount = paymentRepository.sumDriverSettlementByPayoutId(payout.getId());
+            if (attached == 0 || amount.signum() <= 0) {
+                // Nothing left to pay (picked up by a concurrent cycle); roll back the empty payout
+                status.setRollbackOnly();
+                return null;
+            }
+
+            payout.setPaymentCount(attached);
+            payout.setAmount(amount);
+            return payoutRepository.save(payout).getId();
+        });
+    }
+
+    /**
+     * Phase 2: debit the wallet, send the transfer and record the outcome. Safe to call repeatedly.
+     */
+    public DriverPayout.PayoutStatus executePayout(Long payoutId) {
+        DriverPayout submitted = transactionTemplate.execute(status -> {
+            DriverPayout payout = payoutRepository.findById(payoutId)
+                    .orElseThrow(() -> new PaymentException("Payout not found: " + payoutId));
+            if (payout.getStatus() == DriverPayout.PayoutStatus.COMPLETED) {
+                return null;
+            }
+
+            payout.setAttempts(payout.getAttempts() + 1);
+            boolean debited = walletService.recordPayout(payout.getWalletId(), Money.of(payout.getAmount()),
+                    "payout:" + payout.getId(), "Payout " + payout.getCycleKey());
+            if (!debited) {
+                // Nothing was debited, so hand the payments back instead of stranding them on this payout
+                int released = paymentRepository.detachFromPayout(payout.getId());
+                payout.setStatus(DriverPayout.PayoutStatus.FAILED);
+                payout.setPaymentCount(0);
+                payout.setFailureReason("Insufficient wallet balance; " + released + " payments released to the next cycle");
+                payoutRepository.save(payout);
+                log.warn("💸❌ Payout {} to driver {} not covered by the wallet, {} payments released",
+                        payoutId, payout.getDriverId(), released);
+                return null;
+            }
+
+            payout.setStatus(DriverPayout.PayoutStatus.SUBMITTED);
+            return payoutRepository.save(payout);
+        });
+
+        if (submitted == null) {
+            return payoutRepository.findById(payoutId).map(DriverPayout::getStatus).orElse(DriverPayout.PayoutStatus.FAILED);
+        }
+
+        PayoutGateway.PayoutResult result;
+        String gatewayError = null;
+        try {
+            result = payoutGateway.transfer(PayoutGateway.PayoutInstruction.builder()
+                    .idempotencyKey(submitted.getIdempotencyKey())
+                    .driverId(submitted.getDriverId())
+                    .amount(submitted.getAmount())
+                    .currency(currency)
+                    .narration("SmartRide payout " + submitted.getCycleKey())
+                    .build());
+        } catch (Exception e) {
+            log.error("Payout gateway error for payout {}", payoutId, e);
+            result = null;
+            gatewayError = "Gateway error: " + e.getMessage();
+        }
+
+        PayoutGateway.PayoutResult outcome = result;
+        String error = gatewayError;
+        return transactionTemplate.execute(status -> {
+            DriverPayout payout = payoutRepository.findById(payoutId).orElseThrow();
+            if (outcome == null) {
+                // The transfer may or may not have gone through; stay SUBMITTED and retry with the same key
+                payout.setFailureReason(error);
+            } else if (outcome.isSuccess()) {
+                payout.setStatus(DriverPayout.PayoutStatus.COMPLETED);
+                payout.setGatewayReference(outcome.getReference());
+                payout.setFailureReason(null);
+                payout.setCompletedAt(LocalDateTime.now());
+                log.info("💸✅ Payout {} of ₹{} sent to driver {} ({})",
+                        payoutId, payout.getAmount(), payout.getDriverId(), outcome.getReference());
+            } else {
+                // Wallet stays debited (funds in PAYOUT_CLEARING); the next cycle retries with the same key
+                payout.setStatus(DriverPayout.PayoutStatus.FAILED);
+                payout.setFailureReason(outcome.getFailureReason());
+                log.warn("💸❌ Payout {} to driver {} failed: {}", payoutId, payout.getDriverId(), outcome.getFailureReason());
+            }
+            return payoutRepository.save(payout).getStatus();
+        });
+    }
+
+    /**
+     * Abandon a payout the gateway rejected on its last allowed attempt: credit the wallet debit
+     * back from PAYOUT_CLEARING and release its payments to the driver's next payout
+     */
+    public boolean reversePayout(Long payoutId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> {
+            DriverPayout payout = payoutRepository.findById(payoutId)
+                    .orElseThrow(() -> new PaymentException("Payout not found: " + payoutId));
+            if (payout.getStatus() != DriverPayout.PayoutStatus.FAILED || payout.getAttempts() < maxAttempts) {
+                return false;
+            }
+
+            walletService.recordPayoutReversal(payout.getWalletId(), Money.of(payout.getAmount()),
+                    "payout:" + payout.getId(), "Payout " + payout.getCycleKey() + " reversed");
+            int released = paymentRepository.detachFromPayout(payout.getId());
+            payout.setStatus(DriverPayout.PayoutStatus.REVERSED);
+            payout.setPaymentCount(0);
+            payout.setFailureReason("Rejected on " + payout.getAttempts() + " attempts; "
+                    + released + " payments released to the next cycle");
+            payoutRepository.save(payout);
+            log.warn("💸↩️ Payout {} of ₹{} to driver {} reversed after {} rejected attempts, {} payments released",
+                    payoutId, payout.getAmount(), payout.getDriverId(), payout.getAttempts(), released);
+            return true;
+        }));
+    }
+
+    /**
+     * Get payout history for driver
+     */
+    public List<DriverPayout> getDriverPayouts(Long driverId) {
+        return payoutRepository.findByDriverIdOrderByCreatedAtDesc(driverId);
+    }
+
+    private void countOutcome(DriverPayout.PayoutStatus status, AtomicInteger completed, AtomicInteger failed) {
+        if (status == DriverPayout.PayoutStatus.COMPLETED) {
+            completed.incrementAndGet();
+        } else if (status == DriverPayout.PayoutStatus.FAILED || status == DriverPayout.PayoutStatus.SUBMITTED) {
+            failed.incrementAndGet();
+        }
+    }
+}
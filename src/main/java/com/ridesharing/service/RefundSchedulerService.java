@@ -0,0 +1,36 @@
+package com.ridesharing.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Scheduled worker draining the refund queue
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(
+    value = "app.refund.scheduling.enabled", 
+    havingValue = "true", 
+    matchIfMissing = true
+)
+public class RefundSchedulerService {
+
+    private final RefundService refundService;
+
+    /**
+     * Process queued refunds every 10 seconds (fixed delay, so runs never overlap)
+     */
+    @Scheduled(fixedDelayString = "${app.refund.poll-interval-ms:10000}")
+    public void processRefundQueue() {
+        try {
+            log.debug("Starting scheduled processing of refund queue");
+            refundService.processRefundQueue();
+        } catch (Exception e) {
+            log.error("Error during scheduled processing of refund queue", e);
+        }
+    }
+}
@@ -0,0 +1,315 @@
+package com.ridesharing.service;
+
+import com.ridesharing.dto.RefundQueueStats;
+import com.ridesharing.dto.StatusUpdateEvent;
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.Payment;
+import com.ridesharing.entity.RefundRequest;
+import com.ridesharing.gateway.RefundGateway;
+import com.ridesharing.repository.PaymentRepository;
+import com.ridesharing.repository.RefundRequestRepository;
+import com.ridesharing.util.NodeIds;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Refund Service - Queues refunds for cancelled paid bookings and drains the queue in the background
+ *
+ * Cancelling only inserts a QUEUED RefundRequest (in the cancellation transaction) and stops the
+ * payment from being settled or paid out; the gateway is never called on the request thread.
+ * The worker claims the oldest pending refunds with SELECT ... FOR UPDATE SKIP LOCKED, checkpointing
+ * them as PROCESSING under a lease in a short transaction of its own, so several nodes can drain the
+ * queue without sending the same refund. It then groups them by ride, calls the gateway with a
+ * per-refund idempotency key and records each ride's outcomes together, only for refunds it still
+ * leases. A crashed node's refunds become claimable again once their lease lapses.
+ * A refund that was sent before (timed out, failed or interrupted) is first looked up at the gateway
+ * by that key, so a refund the gateway did create is recorded instead of being sent twice.
+ */
+@Service
+@Slf4j
+public class RefundService {
+
+    private final RefundRequestRepository refundRepository;
+    private final PaymentRepository paymentRepository;
+    private final WalletService walletService;
+    private final RefundGateway refundGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+    private final String nodeId;
+
+    // Backlog snapshot refreshed on every worker run and exported as gauges
+    private final AtomicLong pendingRefunds = new AtomicLong();
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private volatile LocalDateTime oldestPendingAt;
+
+    @Value("${app.refund.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.refund.max-attempts:5}")
+    private int maxAttempts;
+
+    // Minimum wait before a failed or interrupted refund is sent again
+    @Value("${app.refund.retry-delay-ms:300000}")
+    private long retryDelayMs;
+
+    // Must comfortably exceed the time to send one claimed batch
+    @Value("${app.refund.lease-seconds:900}")
+    private long leaseSeconds;
+
+    public RefundService(RefundRequestRepository refundRepository,
+                         PaymentRepository paymentRepository,
+                         WalletService walletService,
+                         RefundGateway refundGateway,
+                         PlatformTransactionManager transactionManager,
+                         ApplicationEventPublisher eventPublisher,
+                         MeterRegistry meterRegistry,
+                         @Value("${app.refund.node-id:}") String nodeId) {
+        this.refundRepository = refundRepository;
+        this.paymentRepository = paymentRepository;
+        this.walletService = walletService;
+        this.refundGateway = refundGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.eventPublisher = eventPublisher;
+        this.nodeId = NodeIds.resolve(nodeId);
+
+        Gauge.builder("refund.queue.pending", pendingRefunds, AtomicLong::get)
+                .description("Refunds waiting for the gateway")
+                .register(meterRegistry);
+        Gauge.builder("refund.queue.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest pending refund")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a refund for a cancelled booking if it was paid. Joins the caller's transaction.
+     */
+    @Transactional
+    public void enqueueRefund(Booking booking, String reason) {
+        Optional<Payment> paymentOpt = paymentRepository.findByBookingId(booking.getId());
+        if (paymentOpt.isEmpty() || paymentOpt.get().getPaymentStatus() != Payment.PaymentStatus.COMPLETED) {
+            log.info("No captured payment for cancelled booking {}, nothing to refund", booking.getId());
+            return;
+        }
+
+        Payment payment = paymentOpt.get();
+        if (refundRepository.existsByPaymentId(payment.getId())) {
+            return;
+        }
+
+        RefundRequest refund = new RefundRequest();
+        refund.setPaymentId(payment.getId());
+        refund.setBookingId(booking.getId());
+        refund.setRideId(booking.getRide().getId());
+        refund.setDriverId(booking.getRide().getDriver().getId());
+        refund.setGatewayPaymentId(payment.getRazorpayPaymentId());
+        refund.setAmount(payment.getAmount());
+        refund.setReason(reason);
+        refundRepository.save(refund);
+
+        // Keep the payment out of settlement and payout cycles while the refund is pending
+        payment.setSettlementStatus(Payment.SettlementStatus.CANCELLED);
+        paymentRepository.save(payment);
+
+        log.info("↩️ Refund of ₹{} queued for booking {} ({})", payment.getAmount(), booking.getId(), reason);
+    }
+
+    /**
+     * Drain one batch of the refund queue, ride by ride. Returns the number of refunds completed.
+     */
+    public int processRefundQueue() {
+        refreshBacklog();
+
+        List<RefundRequest> due = claimBatch();
+        if (due.isEmpty()) {
+            return 0;
+        }
+
+        Map<Long, List<RefundRequest>> byRide = due.stream()
+                .collect(Collectors.groupingBy(RefundRequest::getRideId, LinkedHashMap::new, Collectors.toList()));
+
+        int completed = 0;
+        for (Map.Entry<Long, List<RefundRequest>> entry : byRide.entrySet()) {
+            try {
+                completed += processRideBatch(entry.getKey(), entry.getValue());
+            } catch (Exception e) {
+                log.error("Refund batch failed for ride {}", entry.getKey(), e);
+            }
+        }
+
+        refreshBacklog();
+        log.info("↩️ Refund worker: {} of {} refunds completed across {} rides, {} pending (lag {}s)",
+                completed, due.size(), byRide.size(), pendingRefunds.get(), lagSeconds.get());
+        return completed;
+    }
+
+    /**
+     * Lock, checkpoint and lease up to batchSize refunds in one short transaction
+     */
+    private List<RefundRequest> claimBatch() {
+        List<RefundRequest> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime retryBefore = now.minus(Duration.ofMillis(retryDelayMs));
+            List<Long> ids = refundRepository.lockProcessableForClaim(maxAttempts, retryBefore, now, batchSize);
+            if (ids.isEmpty()) {
+                return List.of();
+            }
+            refundRepository.claim(ids, nodeId, now.plusSeconds(leaseSeconds), now);
+            List<RefundRequest> refunds = new ArrayList<>(refundRepository.findAllById(ids));
+            refunds.sort(Comparator.comparing(RefundRequest::getCreatedAt).thenComparing(RefundRequest::getId));
+            return refunds;
+        });
+        return claimed != null ? claimed : List.of();
+    }
+
+    private int processRideBatch(Long rideId, List<RefundRequest> refunds) {
+        List<RefundGateway.RefundResult> results = new ArrayList<>(refunds.size());
+        for (RefundRequest refund : refunds) {
+            results.add(sendOnce(refund));
+        }
+
+        Integer completed = transactionTemplate.execute(status -> {
+            int count = 0;
+            for (int i = 0; i < refunds.size(); i++) {
+                if (recordOutcome(refunds.get(i).getId(), results.get(i))) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        log.info("↩️ Ride {}: {}/{} refunds completed", rideId, completed, refunds.size());
+        return completed != null ? completed : 0;
+    }
+
+    /**
+     * Call the gateway for one refund, unless an earlier attempt already created it there
+     */
+    private RefundGateway.RefundResult sendOnce(RefundRequest refund) {
+        RefundGateway.RefundInstruction instruction = RefundGateway.RefundInstruction.builder()
+                .idempotencyKey(refund.getIdempotencyKey())
+                .gatewayPaymentId(refund.getGatewayPaymentId())
+                .amount(refund.getAmount())
+                .reason(refund.getReason())
+                .build();
+        // attempts already counts this claim, so more than one means an earlier send
+        if (refund.getAttempts() > 1) {
+            try {
+                Optional<RefundGateway.RefundResult> existing = refundGateway.findRefund(instruction);
+                if (existing.isPresent()) {
+                    log.info("↩️ Refund {} already exists at the gateway ({}), not resending",
+                            refund.getId(), existing.get().getRefundId());
+                    return existing.get();
+                }
+            } catch (Exception e) {
+                // Cannot tell whether the earlier attempt went through; try again on a later run
+                return RefundGateway.RefundResult.builder()
+                        .success(false)
+                        .outcomeUnknown(true)
+                        .failureReason("Lookup failed: " + e.getMessage())
+                        .build();
+            }
+        }
+        try {
+            return refundGateway.refund(instruction);
+        } catch (Exception e) {
+            // Thrown mid-call, so the gateway may have created the refund
+            return RefundGateway.RefundResult.builder()
+                    .success(false)
+                    .outcomeUnknown(true)
+                    .failureReason(e.getMessage())
+                    .build();
+        }
+    }
+
+    private boolean recordOutcome(Long refundId, RefundGateway.RefundResult result) {
+        RefundRequest refund = refundRepository.findById(refundId).orElseThrow();
+        if (!nodeId.equals(refund.getLeaseOwner())) {
+            // Lease lapsed and another node took the refund over; it looks the refund up before resending
+            log.warn("↩️ Refund {} is no longer leased by this node, outcome left to {}", refundId, refund.getLeaseOwner());
+            return false;
+        }
+        refund.setLeaseOwner(null);
+        refund.setLeaseExpiresAt(null);
+        if (result.isOutcomeUnknown()) {
+            // Stays PROCESSING; the next attempt looks it up by idempotency key before resending
+            refund.setFailureReason(result.getFailureReason());
+            refundRepository.save(refund);
+            log.warn("↩️⏳ Refund {} for booking {} has an unknown outcome (attempt {}): {}",
+                    refundId, refund.getBookingId(), refund.getAttempts(), result.getFailureReason());
+            return false;
+        }
+        if (!result.isSuccess()) {
+            refund.setStatus(RefundRequest.RefundStatus.FAILED);
+            refund.setFailureReason(result.getFailureReason());
+            refundRepository.save(refund);
+            log.warn("↩️❌ Refund {} for booking {} failed (attempt {}): {}",
+                    refundId, refund.getBookingId(), refund.getAttempts(), result.getFailureReason());
+            return false;
+        }
+
+        refund.setStatus(RefundRequest.RefundStatus.COMPLETED);
+        refund.setGatewayRefundId(result.getRefundId());
+        refund.setFailureReason(null);
+        refund.setProcessedAt(LocalDateTime.now());
+        refundRepository.save(refund);
+
+        Payment payment = paymentRepository.findById(refund.getPaymentId()).orElseThrow();
+        payment.setPaymentStatus(Payment.PaymentStatus.REFUNDED);
+        payment.setSettlementStatus(Payment.SettlementStatus.CANCELLED);
+        paymentRepository.save(payment);
+
+        // Claw back the driver's share if the payment had already been settled to the wallet
+        walletService.recordRefundReversal(payment, refund.getDriverId());
+
+        eventPublisher.publishEvent(StatusUpdateEvent.forPayment(payment, "Refund of ₹" + refund.getAmount() + " processed"));
+        return true;
+    }
+
+    /**
+     * Get refund for booking
+     */
+    public Optional<RefundRequest> getRefundForBooking(Long bookingId) {
+        return refundRepository.findByBookingId(bookingId);
+    }
+
+    /**
+     * Get refund queue backlog and lag
+     */
+    public RefundQueueStats getQueueStats() {
+        refreshBacklog();
+        return RefundQueueStats.builder()
+                .pending(pendingRefunds.get())
+                .completed(refundRepository.countByStatus(RefundRequest.RefundStatus.COMPLETED))
+                .failedPermanently(refundRepository.countExhausted(maxAttempts))
+                .oldestPendingAt(oldestPendingAt)
+                .lagSeconds(lagSeconds.get())
+                .build();
+    }
+
+    private void refreshBacklog() {
+        Object[] backlog = refundRepository.getBacklog(maxAttempts).get(0);
+        long pending = backlog[0] != null ? ((Number) backlog[0]).longValue() : 0L;
+        LocalDateTime oldest = (LocalDateTime) backlog[1];
+        pendingRefunds.set(pending);
+        oldestPendingAt = oldest;
+        lagSeconds.set(oldest != null ? Math.max(0, Duration.between(oldest, LocalDateTime.now()).getSeconds()) : 0L);
+    }
+}
@@ -0,0 +1,94 @@
+package com.ridesharing.service;
+
+import com.ridesharing.entity.NotificationChannel;
+import com.ridesharing.entity.RideReminder;
+import com.ridesharing.repository.RideReminderRepository;
+import com.ridesharing.util.NodeIds;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Reminder Claim Service - Lets any number of app instances share the ride_reminders queue
+ *
+ * A worker locks candidate rows with SELECT ... FOR UPDATE SKIP LOCKED (rows another worker is
+ * claiming are skipped, not waited on), stamps them with its node id and a lease expiry, and
+ * commits straight away in its own transaction; the send happens afterwards. Claimed rows are
+ * invisible to every other node until the outcome is recorded (which clears the lease) or the
+ * lease lapses, so a crashed node's reminders become claimable again on their own.
+ */
+@Service
+@Slf4j
+public class ReminderClaimService {
+
+    private final RideReminderRepository reminderRepository;
+    private final String nodeId;
+
+    // Must comfortably exceed the time to send one claimed batch
+    @Value("${app.reminders.lease-seconds:300}")
+    private long leaseSeconds;
+
+    public ReminderClaimService(RideReminderRepository reminderRepository,
+                                @Value("${app.reminders.node-id:}") String nodeId) {
+        this.reminderRepository = reminderRepository;
+        this.nodeId = NodeIds.resolve(nodeId);
+        log.info("Reminder worker node id: {}", this.nodeId);
+    }
+
+    /**
+     * Claim up to limit SCHEDULED reminders on the channel that are due
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> claimDue(NotificationChannel channel, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return lease(reminderRepository.lockDueForClaim(channel.name(), now, limit), now);
+    }
+
+    /**
+     * Claim up to limit of the given reminders on the channel; ids that were sent, cancelled or
+     * claimed elsewhere are dropped
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> claim(Collection<Long> reminderIds, NotificationChannel channel, int limit) {
+        if (reminderIds.isEmpty()) {
+            return List.of();
+        }
+        LocalDateTime now = LocalDateTime.now();
+        return lease(reminderRepository.lockScheduledForClaim(reminderIds, channel.name(), now, limit), now);
+    }
+
+    /**
+     * Claim up to limit FAILED reminders on the channel that still have retries left
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public List<Long> claimRetryable(NotificationChannel channel, int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        return lease(reminderRepository.lockRetryableForClaim(channel.name(), now, limit), now);
+    }
+
+    /**
+     * Whether this node still holds a live lease on the reminder
+     */
+    public boolean holds(RideReminder reminder) {
+        return nodeId.equals(reminder.getLeaseOwner())
+                && reminder.getLeaseExpiresAt() != null
+                && reminder.getLeaseExpiresAt().isAfter(LocalDateTime.now());
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    private List<Long> lease(List<Long> ids, LocalDateTime now) {
+        if (!ids.isEmpty()) {
+            reminderRepository.lease(ids, nodeId, now.plusSeconds(leaseSeconds));
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,147 @@
+package com.ridesharing.service;
+
+import com.ridesharing.repository.RideReminderArchiveRepository;
+import com.ridesharing.repository.RideReminderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Reminder Cleanup Service - Keeps ride_reminders down to live work
+ *
+ * Finished reminders (sent, cancelled, dead-lettered, or failed with no retries left) that have
+ * not changed for app.reminders.cleanup.retention-days are moved to ride_reminders_archive, or
+ * deleted when app.reminders.cleanup.mode=delete. The table is walked in primary-key order, one
+ * chunk of at most chunk-size rows per short transaction, so no statement locks more than one
+ * chunk. After each chunk the job sleeps for pause-ms plus as long as the chunk took, which keeps
+ * it to under half of the database's time and gives replicas room to catch up. A run stops after
+ * max-runtime-minutes and the next run picks up where the table still has old rows.
+ */
+@Service
+@Slf4j
+public class ReminderCleanupService {
+
+    private final RideReminderRepository reminderRepository;
+    private final RideReminderArchiveRepository archiveRepository;
+    private final ReminderStatusCounters statusCounters;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter archivedCounter;
+    private final Counter deletedCounter;
+
+    @Value("${app.reminders.cleanup.mode:archive}")
+    private String mode;
+
+    @Value("${app.reminders.cleanup.retention-days:30}")
+    private long retentionDays;
+
+    @Value("${app.reminders.cleanup.chunk-size:500}")
+    private int chunkSize;
+
+    @Value("${app.reminders.cleanup.pause-ms:200}")
+    private long pauseMs;
+
+    @Value("${app.reminders.cleanup.max-runtime-minutes:30}")
+    private long maxRuntimeMinutes;
+
+    public ReminderCleanupService(RideReminderRepository reminderRepository,
+                                  RideReminderArchiveRepository archiveRepository,
+                                  ReminderStatusCounters statusCounters,
+                                  PlatformTransactionManager transactionManager,
+                                  MeterRegistry meterRegistry) {
+        this.reminderRepository = reminderRepository;
+        this.archiveRepository = archiveRepository;
+        this.statusCounters = statusCounters;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.archivedCounter = Counter.builder("reminders.cleanup.rows")
+                .tag("action", "archived")
+                .description("Finished reminders moved to the archive table")
+                .register(meterRegistry);
+        this.deletedCounter = Counter.builder("reminders.cleanup.rows")
+                .tag("action", "deleted")
+                .description("Finished reminders deleted without archiving")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Archive or delete finished reminders older than the retention window, chunk by chunk
+     */
+    public CleanupReport cleanUpFinishedReminders() {
+        boolean archive = !"delete".equalsIgnoreCase(mode);
+        LocalDateTime cutoff = LocalDateTime.now().minusDays(retentionDays);
+        long started = System.nanoTime();
+        long deadline = started + Duration.ofMinutes(maxRuntimeMinutes).toNanos();
+
+        long afterId = 0;
+        long rows = 0;
+        int chunks = 0;
+        boolean complete = false;
+        try {
+            while (System.nanoTime() < deadline) {
+                long chunkStarted = System.nanoTime();
+                long fromId = afterId;
+                List<Long> ids = transactionTemplate.execute(status -> processChunk(fromId, cutoff, archive));
+                if (ids == null || ids.isEmpty()) {
+                    complete = true;
+                    break;
+                }
+                afterId = ids.get(ids.size() - 1);
+                rows += ids.size();
+                chunks++;
+                (archive ? archivedCounter : deletedCounter).increment(ids.size());
+                if (ids.size() < chunkSize) {
+                    complete = true;
+                    break;
+                }
+                Thread.sleep(pauseMs + Duration.ofNanos(System.nanoTime() - chunkStarted).toMillis());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Reminder cleanup interrupted after {} rows", rows);
+        }
+
+        if (rows > 0) {
+            // Removed rows span several statuses; one GROUP BY is cheaper than tracking each chunk
+            statusCounters.reconcile();
+        }
+
+        CleanupReport report = new CleanupReport(archive ? "archive" : "delete", cutoff, rows, chunks,
+                Duration.ofNanos(System.nanoTime() - started).toMillis(), complete);
+        log.info("🧹 Reminder cleanup: {} {} rows older than {} in {} chunks, {} ms{}", report.getMode(),
+                report.getRows(), cutoff, chunks, report.getElapsedMs(), complete ? "" : " (stopped early, more left)");
+        return report;
+    }
+
+    private List<Long> processChunk(long afterId, LocalDateTime cutoff, boolean archive) {
+        List<Long> ids = reminderRepository.lockFinishedForCleanup(afterId, cutoff, chunkSize);
+        if (ids.isEmpty()) {
+            return ids;
+        }
+        if (archive) {
+            archiveRepository.archive(ids, LocalDateTime.now());
+        }
+        reminderRepository.deleteByIdIn(ids);
+        return ids;
+    }
+
+    /**
+     * Outcome of one cleanup run
+     */
+    @lombok.Value
+    public static class CleanupReport {
+        String mode;
+        LocalDateTime cutoff;
+        long rows;
+        int chunks;
+        long elapsedMs;
+        // False when the run hit max-runtime-minutes with old rows still left
+        boolean complete;
+    }
+}
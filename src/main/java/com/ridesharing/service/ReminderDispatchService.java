@@ -0,0 +1,469 @@
+package com.ridesharing.service;
+
+import com.ridesharing.config.NotificationConfig;
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.NotificationChannel;
+import com.ridesharing.entity.ReminderStatus;
+import com.ridesharing.entity.ReminderType;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideReminder;
+import com.ridesharing.entity.User;
+import com.ridesharing.gateway.PushGateway;
+import com.ridesharing.gateway.PushGateway.PushMessage;
+import com.ridesharing.gateway.PushGateway.PushResult;
+import com.ridesharing.gateway.SmsGateway;
+import com.ridesharing.gateway.SmsGateway.SmsMessage;
+import com.ridesharing.gateway.SmsGateway.SmsResult;
+import com.ridesharing.repository.RideReminderRepository;
+import com.ridesharing.util.RateLimiter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiFunction;
+
+/**
+ * Reminder Dispatch Service - Sends claimed reminders in parallel on virtual threads, one lane per channel
+ *
+ * A claimed batch is read with one fetch-joined query in a short read-only transaction
+ * (everything the message needs is copied out) and split by channel. Each channel (email, SMS,
+ * push) has its own lane: its own concurrency cap, rate limit and batch size from
+ * app.notifications.<channel>.*, and it writes its outcomes back with bulk updates as soon as its
+ * own sends finish. A slow SMS provider therefore only backs up the SMS lane; email outcomes are
+ * committed without waiting for it. No database connection is held while a message is on the wire.
+ * Outcome updates are fenced on the lease owner, so a node whose lease lapsed mid-send cannot
+ * overwrite the row another node has since claimed.
+ */
+@Service
+@Slf4j
+public class ReminderDispatchService {
+
+    private static final int ERROR_MESSAGE_LENGTH = 255;
+
+    private final RideReminderRepository reminderRepository;
+    private final ReminderClaimService reminderClaims;
+    private final ReminderStatusCounters statusCounters;
+    private final EmailService emailService;
+    private final SmsGateway smsGateway;
+    private final PushGateway pushGateway;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate readOnlyTemplate;
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<NotificationChannel, ChannelLane> lanes = new EnumMap<>(NotificationChannel.class);
+
+    // Retry backoff: base * 2^(failures so far), capped, minus up to jitter * delay at random
+    @Value("${app.reminders.retry.base-delay-seconds:60}")
+    private long retryBaseDelaySeconds;
+
+    @Value("${app.reminders.retry.max-delay-seconds:3600}")
+    private long retryMaxDelaySeconds;
+
+    @Value("${app.reminders.retry.jitter:0.5}")
+    private double retryJitter;
+
+    public ReminderDispatchService(RideReminderRepository reminderRepository,
+                                   ReminderClaimService reminderClaims,
+                                   ReminderStatusCounters statusCounters,
+                                   EmailService emailService,
+                                   SmsGateway smsGateway,
+                                   PushGateway pushGateway,
+                                   NotificationConfig notificationConfig,
+                                   PlatformTransactionManager transactionManager,
+                                   MeterRegistry meterRegistry) {
+        this.reminderRepository = reminderRepository;
+        this.reminderClaims = reminderClaims;
+        this.statusCounters = statusCounters;
+        this.emailService = emailService;
+        this.smsGateway = smsGateway;
+        this.pushGateway = pushGateway;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate = new TransactionTemplate(transactionManager);
+        this.readOnlyTemplate.setReadOnly(true);
+        for (NotificationChannel channel : NotificationChannel.values()) {
+            lanes.put(channel, new ChannelLane(channel, notificationConfig.limitsFor(channel), meterRegistry));
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        senders.shutdown();
+    }
+
+    /**
+     * Claim and send reminders until every channel is drained; returns the number claimed
+     * Channels drain side by side, each claiming its own batch size, so one slow channel does not
+     * hold back the others
+     */
+    public int drain(BiFunction<NotificationChannel, Integer, List<Long>> claimer) {
+        List<CompletableFuture<Integer>> drains = new ArrayList<>();
+        for (ChannelLane lane : lanes.values()) {
+            drains.add(CompletableFuture.supplyAsync(() -> drain(lane, claimer), senders));
+        }
+        return drains.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    private int drain(ChannelLane lane, BiFunction<NotificationChannel, Integer, List<Long>> claimer) {
+        int claimedTotal = 0;
+        try {
+            List<Long> claimed;
+            do {
+                claimed = claimer.apply(lane.channel, lane.batchSize);
+                dispatch(claimed);
+                claimedTotal += claimed.size();
+            } while (claimed.size() == lane.batchSize);
+        } catch (Exception e) {
+            log.error("Error draining {} reminders", lane.channel, e);
+        }
+        return claimedTotal;
+    }
+
+    /**
+     * Send reminders this node has claimed and record the outcomes; returns the number sent
+     */
+    public int dispatch(List<Long> claimedIds) {
+        if (claimedIds.isEmpty()) {
+            return 0;
+        }
+
+        List<ReminderNotification> notifications = readOnlyTemplate.execute(status -> prepare(claimedIds));
+        if (notifications == null || notifications.isEmpty()) {
+            return 0;
+        }
+
+        Map<NotificationChannel, List<ReminderNotification>> byChannel = new EnumMap<>(NotificationChannel.class);
+        for (ReminderNotification notification : notifications) {
+            byChannel.computeIfAbsent(notification.getChannel(), channel -> new ArrayList<>()).add(notification);
+        }
+        if (byChannel.size() == 1) {
+            Map.Entry<NotificationChannel, List<ReminderNotification>> only = byChannel.entrySet().iterator().next();
+            return lanes.get(only.getKey()).dispatch(only.getValue());
+        }
+
+        List<CompletableFuture<Integer>> futures = new ArrayList<>(byChannel.size());
+        byChannel.forEach((channel, batch) ->
+                futures.add(CompletableFuture.supplyAsync(() -> lanes.get(channel).dispatch(batch), senders)));
+        return futures.stream().mapToInt(CompletableFuture::join).sum();
+    }
+
+    private List<ReminderNotification> prepare(List<Long> claimedIds) {
+        List<ReminderNotification> notifications = new ArrayList<>(claimedIds.size());
+        for (RideReminder reminder : reminderRepository.findAllWithDetailsByIdIn(claimedIds)) {
+            if (!reminderClaims.holds(reminder)) {
+                continue;
+            }
+            Booking booking = reminder.getBooking();
+            Ride ride = booking.getRide();
+            User passenger = booking.getPassenger();
+            User driver = ride.getDriver();
+            NotificationChannel channel = reminder.getNotificationChannel();
+            notifications.add(new ReminderNotification(
+                    reminder.getId(),
+                    booking.getId(),
+                    channel,
+                    switch (channel) {
+                        case EMAIL -> reminder.getRecipientEmail();
+                        case SMS -> passenger.getPhoneNumber();
+                        case PUSH -> passenger.getPushToken();
+                    },
+                    getReminderSubject(reminder.getReminderType()),
+                    channel == NotificationChannel.EMAIL
+                            ? createReminderEmailModel(reminder, passenger, booking, ride, driver) : null,
+                    channel == NotificationChannel.EMAIL ? null : createReminderText(reminder, ride, driver),
+                    reminder.getScheduledTime(),
+                    reminder.getStatus(),
+                    reminder.getRetryCount() + 1 >= reminder.getMaxRetries()));
+        }
+        return notifications;
+    }
+
+    /**
+     * Hand one notification to its provider; throws if it was not accepted
+     */
+    private void deliver(ReminderNotification notification) {
+        switch (notification.getChannel()) {
+            case EMAIL -> emailService.sendRideReminderEmail(
+                    notification.getRecipient(), notification.getSubject(), notification.getModel());
+            case SMS -> {
+                SmsResult result = smsGateway.send(SmsMessage.builder()
+                        .to(notification.getRecipient())
+                        .body(notification.getText())
+                        .build());
+                if (!result.isSuccess()) {
+                    throw new IllegalStateException(result.getFailureReason());
+                }
+            }
+            case PUSH -> {
+                if (notification.getRecipient() == null) {
+                    throw new IllegalStateException("No push device registered");
+                }
+                PushResult result = pushGateway.send(PushMessage.builder()
+                        .deviceToken(notification.getRecipient())
+                        .title(notification.getSubject())
+                        .body(notification.getText())
+                        .data(Map.of("bookingId", String.valueOf(notification.getBookingId())))
+                        .build());
+                if (!result.isSuccess()) {
+                    throw new IllegalStateException(result.getFailureReason());
+                }
+            }
+        }
+    }
+
+    private void record(List<Outcome> outcomes) {
+        LocalDateTime now = LocalDateTime.now();
+        String owner = reminderClaims.getNodeId();
+        List<ReminderNotification> sent = new ArrayList<>();
+        // A burst of failures usually shares one cause (provider down), so group them into few updates
+        Map<String, List<ReminderNotification>> failedByError = new LinkedHashMap<>();
+        for (Outcome outcome : outcomes) {
+            if (outcome.isSent()) {
+                sent.add(outcome.getNotification());
+            } else {
+                failedByError.computeIfAbsent(truncate(outcome.getError()), error -> new ArrayList<>())
+                        .add(outcome.getNotification());
+            }
+        }
+        if (!sent.isEmpty()) {
+            int updated = reminderRepository.markSent(ids(sent), owner, now);
+            countTransitions(sent, updated, true);
+        }
+        failedByError.forEach((error, failed) -> {
+            int updated = reminderRepository.markFailed(ids(failed), owner, error, now,
+                    retryBaseDelaySeconds, retryMaxDelaySeconds, retryJitter);
+            countTransitions(failed, updated, false);
+        });
+    }
+
+    /**
+     * Move the recorded reminders between status counters
+     * Skipped if some rows were fenced off (lease lost); the periodic reconcile corrects that case
+     */
+    private void countTransitions(List<ReminderNotification> notifications, int updated, boolean sent) {
+        if (updated != notifications.size()) {
+            return;
+        }
+        Map<ReminderStatus, Map<ReminderStatus, Long>> moves = new EnumMap<>(ReminderStatus.class);
+        for (ReminderNotification notification : notifications) {
+            ReminderStatus to = sent ? ReminderStatus.SENT
+                    : notification.isLastAttempt() ? ReminderStatus.DEAD_LETTER : ReminderStatus.FAILED;
+            moves.computeIfAbsent(notification.getStatus(), from -> new EnumMap<>(ReminderStatus.class))
+                    .merge(to, 1L, Long::sum);
+        }
+        moves.forEach((from, targets) ->
+                targets.forEach((to, count) -> statusCounters.movedAfterCommit(from, to, count)));
+    }
+
+    private static List<Long> ids(List<ReminderNotification> notifications) {
+        return notifications.stream().map(ReminderNotification::getReminderId).toList();
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return "Unknown error";
+        }
+        return error.length() > ERROR_MESSAGE_LENGTH ? error.substring(0, ERROR_MESSAGE_LENGTH) : error;
+    }
+
+    /**
+     * Get appropriate subject line for reminder type
+     */
+    private String getReminderSubject(ReminderType type) {
+        return switch (type) {
+            case THIRTY_MINUTES_BEFORE -> "Ride Reminder: Your ride starts in 30 minutes - SmartRide";
+            case ONE_HOUR_BEFORE -> "Ride Reminder: Your ride starts in 1 hour - SmartRide";
+            case TWENTY_FOUR_HOURS_BEFORE -> "Ride Reminder: Your ride is tomorrow - SmartRide";
+            case ONE_HOUR_BEFORE_FINAL -> "Final Reminder: Your ride starts in 1 hour - SmartRide";
+        };
+    }
+
+    /**
+     * Create email template model for reminder
+     */
+    private Map<String, Object> createReminderEmailModel(RideReminder reminder, User passenger,
+                                                        Booking booking, Ride ride, User driver) {
+        Map<String, Object> model = new HashMap<>();
+
+        // Passenger details
+        model.put("passengerName", passenger.getFirstName() + " " + passenger.getLastName());
+
+        // Ride details
+        model.put("source", ride.getSource());
+        model.put("destination", ride.getDestination());
+        model.put("departureDate", ride.getDepartureDate().toLocalDate().toString());
+        model.put("departureTime", ride.getDepartureDate().toLocalTime().toString());
+        model.put("seatsBooked", booking.getSeatsBooked());
+
+        // Driver details
+        model.put("driverName", driver.getFirstName() + " " + driver.getLastName());
+        model.put("driverPhone", driver.getPhoneNumber());
+        model.put("vehicleInfo", ride.getVehicleNumber() + " (" + ride.getVehicleType() + ")");
+
+        // Reminder specific
+        model.put("reminderType", reminder.getReminderType().toString());
+        model.put("message", reminder.getMessage());
+
+        return model;
+    }
+
+    /**
+     * Create the plain-text body used for SMS and push reminders
+     */
+    private String createReminderText(RideReminder reminder, Ride ride, User driver) {
+        return String.format("SmartRide: %s Driver: %s %s (%s), vehicle %s.",
+                reminder.getMessage(), driver.getFirstName(), driver.getLastName(),
+                driver.getPhoneNumber(), ride.getVehicleNumber());
+    }
+
+    /**
+     * One channel's sending lane: concurrency cap, rate limit, batch size and metrics of its own
+     */
+    private final class ChannelLane {
+
+        private final NotificationChannel channel;
+        private final int batchSize;
+        private final Semaphore permits;
+        private final RateLimiter rateLimiter;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final Counter sentCounter;
+        private final Counter failedCounter;
+        private final Timer sendTimer;
+        private final Timer deliveryDelay;
+
+        ChannelLane(NotificationChannel channel, NotificationConfig.ChannelLimits limits, MeterRegistry meterRegistry) {
+            this.channel = channel;
+            this.batchSize = Math.max(1, limits.getBatchSize());
+            this.permits = new Semaphore(Math.max(1, limits.getConcurrency()));
+            this.rateLimiter = new RateLimiter(limits.getRatePerSecond());
+
+            String tag = channel.name().toLowerCase();
+            // Throughput is the rate of reminders.dispatched
+            this.sentCounter = Counter.builder("reminders.dispatched")
+                    .tag("channel", tag)
+                    .tag("outcome", "sent")
+                    .description("Reminders sent")
+                    .register(meterRegistry);
+            this.failedCounter = Counter.builder("reminders.dispatched")
+                    .tag("channel", tag)
+                    .tag("outcome", "failed")
+                    .description("Reminders that failed to send")
+                    .register(meterRegistry);
+            this.sendTimer = Timer.builder("reminders.dispatch.send")
+                    .tag("channel", tag)
+                    .description("Provider send latency per reminder")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            this.deliveryDelay = Timer.builder("reminders.delivery.delay")
+                    .tag("channel", tag)
+                    .description("Time between a reminder's scheduled time and its delivery")
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+            Gauge.builder("reminders.dispatch.inflight", inFlight, AtomicInteger::get)
+                    .tag("channel", tag)
+                    .description("Reminders currently being sent")
+                    .register(meterRegistry);
+        }
+
+        /**
+         * Send the lane's reminders batch by batch, recording each batch as soon as it is done
+         */
+        int dispatch(List<ReminderNotification> notifications) {
+            int sent = 0;
+            for (int from = 0; from < notifications.size(); from += batchSize) {
+                sent += dispatchBatch(notifications.subList(from, Math.min(notifications.size(), from + batchSize)));
+            }
+            return sent;
+        }
+
+        private int dispatchBatch(List<ReminderNotification> batch) {
+            long started = System.nanoTime();
+            List<CompletableFuture<Outcome>> futures = new ArrayList<>(batch.size());
+            for (ReminderNotification notification : batch) {
+                futures.add(CompletableFuture.supplyAsync(() -> send(notification), senders));
+            }
+            List<Outcome> outcomes = futures.stream().map(CompletableFuture::join).toList();
+
+            transactionTemplate.executeWithoutResult(status -> record(outcomes));
+
+            int sent = (int) outcomes.stream().filter(Outcome::isSent).count();
+            long elapsedMs = Math.max(1, Duration.ofNanos(System.nanoTime() - started).toMillis());
+            log.info("📧 Dispatched {} {} reminders: {} sent, {} failed in {} ms ({}/s)", outcomes.size(), channel,
+                    sent, outcomes.size() - sent, elapsedMs, outcomes.size() * 1000L / elapsedMs);
+            return sent;
+        }
+
+        private Outcome send(ReminderNotification notification) {
+            try {
+                rateLimiter.acquire();
+                permits.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return new Outcome(notification, false, "Interrupted before sending");
+            }
+            inFlight.incrementAndGet();
+            long started = System.nanoTime();
+            try {
+                deliver(notification);
+                sentCounter.increment();
+                deliveryDelay.record(Duration.between(notification.getScheduledTime(), LocalDateTime.now()));
+                log.debug("Sent {} reminder {} for booking {}",
+                        channel, notification.getReminderId(), notification.getBookingId());
+                return new Outcome(notification, true, null);
+            } catch (Exception e) {
+                failedCounter.increment();
+                log.error("Failed to send {} reminder {} for booking {}",
+                        channel, notification.getReminderId(), notification.getBookingId(), e);
+                return new Outcome(notification, false, e.getMessage());
+            } finally {
+                sendTimer.record(Duration.ofNanos(System.nanoTime() - started));
+                inFlight.decrementAndGet();
+                permits.release();
+            }
+        }
+    }
+
+    /**
+     * Everything needed to send one reminder, detached from the persistence context
+     * Email reminders carry a template model, SMS and push reminders a plain-text body
+     */
+    @lombok.Value
+    private static class ReminderNotification {
+        Long reminderId;
+        Long bookingId;
+        NotificationChannel channel;
+        String recipient;
+        String subject;
+        Map<String, Object> model;
+        String text;
+        LocalDateTime scheduledTime;
+        // Status when claimed, and whether a failure now would dead-letter it (for the status counters)
+        ReminderStatus status;
+        boolean lastAttempt;
+    }
+
+    @lombok.Value
+    private static class Outcome {
+        ReminderNotification notification;
+        boolean sent;
+        String error;
+    }
+}
@@ -8,7 +8,7 @@ import org.springframework.stereotype.Service;
 
 /**
  * Scheduled service for automatically processing ride reminders
- * Runs periodic tasks to send due reminders and retry failed ones
+ * Runs periodic tasks to feed the reminder timing wheel, retry failed reminders and clean up old ones
  */
 @Service
 @RequiredArgsConstructor
@@ -21,27 +21,31 @@ import org.springframework.stereotype.Service;
 public class ReminderSchedulerService {
 
     private final RideReminderService reminderService;
+    private final ReminderWheelService reminderWheel;
+    private final ReminderCleanupService reminderCleanup;
+    private final ReminderStatusCounters statusCounters;
 
     /**
-     * Process due reminders every 5 minutes
-     * This ensures timely delivery of reminders within a reasonable window
+     * Reload the timing wheel from the database at startup and every 15 minutes
+     * Reminders normally fire from the wheel; this sweep is the safety net for reminders
+     * beyond the wheel's horizon and rows written elsewhere
      */
-    @Scheduled(fixedRate = 300000) // 5 minutes = 300,000 milliseconds
-    public void processDueReminders() {
+    @Scheduled(fixedDelayString = "${app.reminders.sweep-interval-ms:900000}")
+    public void sweepDueReminders() {
         try {
-            log.debug("Starting scheduled processing of due reminders");
-            reminderService.processDueReminders();
-            log.debug("Completed scheduled processing of due reminders");
+            log.debug("Starting reminder sweep");
+            reminderWheel.sweep();
+            log.debug("Completed reminder sweep");
         } catch (Exception e) {
-            log.error("Error during scheduled processing of due reminders", e);
+            log.error("Error during reminder sweep", e);
         }
     }
 
     /**
-     * Retry failed reminders every 30 minutes
-     * This gives failed reminders a chance to be sent again
+     * Retry failed reminders whose backoff has elapsed, every minute
+     * The per-reminder backoff decides when a reminder is sent again, not this interval
      */
-    @Scheduled(fixedRate = 1800000) // 30 minutes = 1,800,000 milliseconds
+    @Scheduled(fixedDelayString = "${app.reminders.retry-interval-ms:60000}")
     public void retryFailedReminders() {
         try {
             log.debug("Starting scheduled retry of failed reminders");
@@ -54,21 +58,33 @@ public class ReminderSchedulerService {
 
     /**
      * Clean up old reminders daily at 2 AM
-     * Remove reminders for rides that have already completed
+     * Finished reminders past the retention window are archived (or deleted) in small chunks
      */
-    @Scheduled(cron = "0 0 2 * * *") // Daily at 2:00 AM
+    @Scheduled(cron = "${app.reminders.cleanup.cron:0 0 2 * * *}") // Daily at 2:00 AM
     public void cleanupOldReminders() {
         try {
             log.info("Starting scheduled cleanup of old reminders");
-            // This would be implemented to clean up reminders for completed/cancelled rides
-            // For now, we'll just log the intention
-            log.info("Old reminder cleanup would run here (not implemented yet)");
+            reminderCleanup.cleanUpFinishedReminders();
             log.info("Completed scheduled cleanup of old reminders");
         } catch (Exception e) {
             log.error("Error during scheduled cleanup of old reminders", e);
         }
     }
 
+    /**
+     * Reload the reminder status counters from the database every 15 minutes
+     * Picks up transitions made by other nodes; one GROUP BY status query
+     */
+    @Scheduled(initialDelayString = "${app.reminders.stats.reconcile-interval-ms:900000}",
+               fixedDelayString = "${app.reminders.stats.reconcile-interval-ms:900000}")
+    public void reconcileStatusCounters() {
+        try {
+            statusCounters.reconcile();
+        } catch (Exception e) {
+            log.error("Error reconciling reminder status counters", e);
+        }
+    }
+
     /**
      * Log reminder statistics every hour
      * Helps with monitoring the health of the reminder system
@@ -77,8 +93,8 @@ public class ReminderSchedulerService {
     public void logReminderStatistics() {
         try {
             var stats = reminderService.getReminderStatistics();
-            log.info("Reminder Statistics - Scheduled: {}, Sent: {}, Failed: {}, Cancelled: {}", 
-                    stats.get("scheduled"), stats.get("sent"), stats.get("failed"), stats.get("cancelled"));
+            log.info("Reminder Statistics - Scheduled: {}, Sent: {}, Failed: {}, Dead letter: {}, Cancelled: {}", 
+                    stats.get("scheduled"), stats.get("sent"), stats.get("failed"), stats.get("deadLetter"), stats.get("cancelled"));
         } catch (Exception e) {
             log.error("Error logging reminder statistics", e);
         }
@@ -0,0 +1,96 @@
+package com.ridesharing.service;
+
+import com.ridesharing.entity.ReminderStatus;
+import com.ridesharing.repository.RideReminderRepository;
+import com.ridesharing.util.AfterCommit;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Live count of ride reminders per status, exposed as the reminders.status gauge
+ *
+ * Loaded with a single GROUP BY status query on first use, then kept current by the services that
+ * move reminders between statuses (applied after their transaction commits). Reading the counts
+ * costs nothing. Transitions made by other nodes are not seen here, so the counts are reloaded
+ * from the database on a slow schedule (app.reminders.stats.reconcile-interval-ms) to correct drift.
+ */
+@Service
+@Slf4j
+public class ReminderStatusCounters {
+
+    private final RideReminderRepository reminderRepository;
+    private final Map<ReminderStatus, AtomicLong> counts = new EnumMap<>(ReminderStatus.class);
+    private volatile boolean loaded;
+
+    public ReminderStatusCounters(RideReminderRepository reminderRepository, MeterRegistry meterRegistry) {
+        this.reminderRepository = reminderRepository;
+        for (ReminderStatus status : ReminderStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("reminders.status", count, AtomicLong::get)
+                    .tag("status", status.name().toLowerCase())
+                    .description("Ride reminders currently in each status")
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * Current count per status; loads from the database the first time
+     */
+    public Map<ReminderStatus, Long> snapshot() {
+        if (!loaded) {
+            reconcile();
+        }
+        Map<ReminderStatus, Long> snapshot = new EnumMap<>(ReminderStatus.class);
+        counts.forEach((status, count) -> snapshot.put(status, Math.max(0, count.get())));
+        return snapshot;
+    }
+
+    /**
+     * Reload every count with one GROUP BY status query
+     */
+    public void reconcile() {
+        Map<ReminderStatus, Long> fresh = new EnumMap<>(ReminderStatus.class);
+        for (Object[] row : reminderRepository.countGroupedByStatus()) {
+            fresh.put((ReminderStatus) row[0], ((Number) row[1]).longValue());
+        }
+        counts.forEach((status, count) -> count.set(fresh.getOrDefault(status, 0L)));
+        loaded = true;
+        log.debug("Reminder status counts reloaded: {}", fresh);
+    }
+
+    /**
+     * Count reminders created in the current transaction
+     */
+    public void addedAfterCommit(ReminderStatus status, long reminders) {
+        AfterCommit.run(() -> counts.get(status).addAndGet(reminders));
+    }
+
+    /**
+     * Count reminders deleted in the current transaction, given as (status, count) rows
+     */
+    public void removedAfterCommit(List<Object[]> countsByStatus) {
+        AfterCommit.run(() -> countsByStatus.forEach(row ->
+                counts.get((ReminderStatus) row[0]).addAndGet(-((Number) row[1]).longValue())));
+    }
+
+    /**
+     * Count reminders moved from one status to another in the current transaction
+     */
+    public void movedAfterCommit(ReminderStatus from, ReminderStatus to, long reminders) {
+        if (from == to || reminders == 0) {
+            return;
+        }
+        AfterCommit.run(() -> {
+            counts.get(from).addAndGet(-reminders);
+            counts.get(to).addAndGet(reminders);
+        });
+    }
+}
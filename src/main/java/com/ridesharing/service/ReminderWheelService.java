@@ -0,0 +1,161 @@
+package com.ridesharing.service;
+
+import com.ridesharing.dto.RemindersDueEvent;
+import com.ridesharing.entity.ReminderStatus;
+import com.ridesharing.entity.RideReminder;
+import com.ridesharing.repository.RideReminderRepository;
+import com.ridesharing.util.AfterCommit;
+import com.ridesharing.util.TimingWheel;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory reminder scheduler - fires each reminder within about a second of its scheduled time
+ *
+ * Reminders due within app.reminders.wheel.horizon-minutes are held in a {@link TimingWheel}
+ * ticked by a single daemon thread. Expired ids are handed off on a virtual thread as a
+ * {@link RemindersDueEvent}; the thread that ticks the wheel never sends mail itself.
+ * RideReminderService adds and removes reminders after its transactions commit, and
+ * {@link #sweep()} (startup plus a low-frequency schedule) reloads everything due inside the
+ * horizon from the database. That covers reminders further out and anything that missed the
+ * hooks, such as rows written by another node.
+ */
+@Service
+@Slf4j
+public class ReminderWheelService {
+
+    private final RideReminderRepository reminderRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    // With scheduling disabled nothing fires automatically, wheel included
+    @Value("${app.reminders.scheduling.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.reminders.wheel.tick-ms:250}")
+    private long tickMs;
+
+    @Value("${app.reminders.wheel.slots:4096}")
+    private int slots;
+
+    @Value("${app.reminders.wheel.horizon-minutes:60}")
+    private long horizonMinutes;
+
+    private TimingWheel wheel;
+    private final Set<Long> dispatching = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "reminder-wheel");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final ExecutorService dispatcher = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ReminderWheelService(RideReminderRepository reminderRepository,
+                                ApplicationEventPublisher eventPublisher,
+                                MeterRegistry meterRegistry) {
+        this.reminderRepository = reminderRepository;
+        this.eventPublisher = eventPublisher;
+
+        Gauge.builder("reminders.wheel.size", this, service -> service.wheel == null ? 0 : service.wheel.size())
+                .description("Reminders waiting in the in-memory timing wheel")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        wheel = new TimingWheel(tickMs, slots, System.currentTimeMillis());
+        if (enabled) {
+            ticker.scheduleAtFixedRate(this::tick, tickMs, tickMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        ticker.shutdownNow();
+        dispatcher.shutdown();
+    }
+
+    /**
+     * Load every SCHEDULED reminder due inside the horizon (overdue ones fire on the next tick)
+     */
+    public int sweep() {
+        LocalDateTime until = LocalDateTime.now().plusMinutes(horizonMinutes);
+        List<RideReminder> upcoming = reminderRepository.findDueReminders(ReminderStatus.SCHEDULED, until);
+        int added = 0;
+        for (RideReminder reminder : upcoming) {
+            if (add(reminder.getId(), reminder.getScheduledTime())) {
+                added++;
+            }
+        }
+        if (added > 0) {
+            log.info("⏰ Reminder sweep added {} reminders to the wheel ({} waiting)", added, wheel.size());
+        }
+        return added;
+    }
+
+    /**
+     * Track new reminders once the surrounding transaction commits
+     */
+    public void scheduleAfterCommit(Collection<RideReminder> reminders) {
+        AfterCommit.run(() -> reminders.forEach(reminder -> add(reminder.getId(), reminder.getScheduledTime())));
+    }
+
+    /**
+     * Forget reminders once the surrounding transaction commits
+     */
+    public void cancelAfterCommit(Collection<Long> reminderIds) {
+        AfterCommit.run(() -> reminderIds.forEach(wheel::cancel));
+    }
+
+    private boolean add(Long id, LocalDateTime scheduledTime) {
+        if (!enabled || id == null || scheduledTime.isAfter(LocalDateTime.now().plusMinutes(horizonMinutes))) {
+            return false; // picked up by a later sweep
+        }
+        if (dispatching.contains(id)) {
+            return false; // already being sent
+        }
+        return wheel.schedule(id, scheduledTime.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    }
+
+    private void tick() {
+        try {
+            long[] expired = wheel.advance(System.currentTimeMillis());
+            if (expired.length == 0) {
+                return;
+            }
+            List<Long> ids = Arrays.stream(expired).boxed().toList();
+            dispatching.addAll(ids);
+            dispatcher.execute(() -> dispatch(ids));
+        } catch (RuntimeException e) {
+            log.error("Reminder wheel tick failed", e);
+        }
+    }
+
+    private void dispatch(List<Long> ids) {
+        try {
+            eventPublisher.publishEvent(new RemindersDueEvent(ids));
+        } catch (RuntimeException e) {
+            // Rows stay SCHEDULED, so the next sweep puts them back on the wheel
+            log.error("Failed to dispatch {} due reminders", ids.size(), e);
+        } finally {
+            ids.forEach(dispatching::remove);
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package com.ridesharing.service;
 
+import com.ridesharing.dto.RemindersDueEvent;
 import com.ridesharing.entity.*;
 import com.ridesharing.repository.RideReminderRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -14,10 +16,11 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 /**
  * Service for managing ride reminder notifications
- * Handles scheduling and sending of email reminders based on booking-to-ride time differences
+ * Handles scheduling and sending of reminders (email, SMS, push) based on booking-to-ride time differences
  */
 @Service
 @RequiredArgsConstructor
@@ -26,6 +29,11 @@ public class RideReminderService {
 
     private final RideReminderRepository reminderRepository;
     private final EmailService emailService;
+    private final ReminderWheelService reminderWheel;
+    private final ReminderClaimService reminderClaims;
+    private final ReminderDispatchService reminderDispatcher;
+    private final NotificationRouter notificationRouter;
+    private final ReminderStatusCounters statusCounters;
 
     /**
      * Schedule reminders for a confirmed booking
@@ -33,6 +41,7 @@ public class RideReminderService {
      * - If booking time < 1 hour before ride: send 30min reminder
      * - If booking time 1-24 hours before ride: send 1h reminder  
      * - If booking time > 24 hours before ride: send 24h + 1h reminders
+     * Each reminder is created once per channel the passenger gets reminders on
      */
     @Transactional
     public void scheduleRemindersForBooking(Booking booking) {
@@ -54,9 +63,14 @@ public class RideReminderService {
                     booking.getId(), hoursDifference, minutesDifference, bookingTime, rideTime, LocalDateTime.now());
 
             // Clear any existing reminders for this booking
-            List<RideReminder> existingReminders = reminderRepository.findByBookingId(booking.getId());
-            reminderRepository.deleteAll(existingReminders);
+            List<Long> existingIds = reminderRepository.findIdsByBookingId(booking.getId());
+            if (!existingIds.isEmpty()) {
+                statusCounters.removedAfterCommit(reminderRepository.countByBookingIdGroupedByStatus(booking.getId()));
+                reminderRepository.deleteByBookingId(booking.getId());
+                reminderWheel.cancelAfterCommit(existingIds);
+            }
 
+            Set<NotificationChannel> channels = notificationRouter.channelsFor(booking.getPassenger());
             List<RideReminder> remindersToCreate = new ArrayList<>();
 
             if (hoursDifference < 1) {
@@ -64,8 +78,7 @@ public class RideReminderService {
                 LocalDateTime reminderTime = rideTime.minusMinutes(30);
                 // For short bookings, allow scheduling even if reminder time is close to now
                 if (reminderTime.isAfter(LocalDateTime.now().minusMinutes(5))) {
-                    RideReminder reminder = createReminder(booking, ReminderType.THIRTY_MINUTES_BEFORE, reminderTime);
-                    remindersToCreate.add(reminder);
+                    remindersToCreate.addAll(createReminders(booking, ReminderType.THIRTY_MINUTES_BEFORE, reminderTime, channels));
                     log.info("Scheduling 30-minute reminder for booking {} at {}", booking.getId(), reminderTime);
                 } else {
                     log.warn("30-minute reminder time {} is too close to current time for booking {}", reminderTime, booking.getId());
@@ -74,8 +87,7 @@ public class RideReminderService {
                 // 1-24 hours: send 1-hour reminder
                 LocalDateTime reminderTime = rideTime.minusHours(1);
                 if (reminderTime.isAfter(LocalDateTime.now())) {
-                    RideReminder reminder = createReminder(booking, ReminderType.ONE_HOUR_BEFORE, reminderTime);
-                    remindersToCreate.add(reminder);
+                    remindersToCreate.addAll(createReminders(booking, ReminderType.ONE_HOUR_BEFORE, reminderTime, channels));
                 }
             } else {
                 // More than 24 hours: send 24-hour reminder AND 1-hour reminder
@@ -83,20 +95,20 @@ public class RideReminderService {
                 LocalDateTime oneHourReminderTime = rideTime.minusHours(1);
                 
                 if (twentyFourHourReminderTime.isAfter(LocalDateTime.now())) {
-                    RideReminder reminder24h = createReminder(booking, ReminderType.TWENTY_FOUR_HOURS_BEFORE, twentyFourHourReminderTime);
-                    remindersToCreate.add(reminder24h);
+                    remindersToCreate.addAll(createReminders(booking, ReminderType.TWENTY_FOUR_HOURS_BEFORE, twentyFourHourReminderTime, channels));
                 }
                 
                 if (oneHourReminderTime.isAfter(LocalDateTime.now())) {
-                    RideReminder reminder1h = createReminder(booking, ReminderType.ONE_HOUR_BEFORE_FINAL, oneHourReminderTime);
-                    remindersToCreate.add(reminder1h);
+                    remindersToCreate.addAll(createReminders(booking, ReminderType.ONE_HOUR_BEFORE_FINAL, oneHourReminderTime, channels));
                 }
             }
 
             // Save all reminders
             if (!remindersToCreate.isEmpty()) {
                 reminderRepository.saveAll(remindersToCreate);
-                log.info("Created {} reminders for booking {}", remindersToCreate.size(), booking.getId());
+                statusCounters.addedAfterCommit(ReminderStatus.SCHEDULED, remindersToCreate.size());
+                reminderWheel.scheduleAfterCommit(remindersToCreate);
+                log.info("Created {} reminders for booking {} on {}", remindersToCreate.size(), booking.getId(), channels);
             } else {
                 log.info("No reminders needed for booking {} (ride time is too soon)", booking.getId());
             }
@@ -108,16 +120,23 @@ public class RideReminderService {
     }
 
     /**
-     * Create a single reminder instance
+     * Create one reminder instance per channel
      */
-    private RideReminder createReminder(Booking booking, ReminderType type, LocalDateTime scheduledTime) {
-        RideReminder reminder = new RideReminder();
-        reminder.setBooking(booking);
-        reminder.setReminderType(type);
-        reminder.setScheduledTime(scheduledTime);
-        reminder.setRecipientEmail(booking.getPassenger().getEmail());
-        reminder.setMessage(generateReminderMessage(booking, type));
-        return reminder;
+    private List<RideReminder> createReminders(Booking booking, ReminderType type, LocalDateTime scheduledTime,
+                                               Set<NotificationChannel> channels) {
+        String message = generateReminderMessage(booking, type);
+        List<RideReminder> reminders = new ArrayList<>(channels.size());
+        for (NotificationChannel channel : channels) {
+            RideReminder reminder = new RideReminder();
+            reminder.setBooking(booking);
+            reminder.setReminderType(type);
+            reminder.setScheduledTime(scheduledTime);
+            reminder.setNotificationChannel(channel);
+            reminder.setRecipientEmail(booking.getPassenger().getEmail());
+            reminder.setMessage(message);
+            reminders.add(reminder);
+        }
+        return reminders;
     }
 
     /**
@@ -137,163 +156,64 @@ public class RideReminderService {
     }
 
     /**
-     * Process all due reminders
+     * Process all due reminders, claiming them batch by batch so other nodes can drain in parallel
+     * Each channel drains separately with its own batch size
+     * Not transactional: claims commit on their own and sends hold no connection
      */
-    @Transactional
     public void processDueReminders() {
         try {
-            List<RideReminder> dueReminders = reminderRepository.findDueReminders(
-                    ReminderStatus.SCHEDULED, LocalDateTime.now());
+            int processed = reminderDispatcher.drain(reminderClaims::claimDue);
             
-            log.info("Found {} due reminders to process", dueReminders.size());
-            
-            for (RideReminder reminder : dueReminders) {
-                try {
-                    sendReminderEmail(reminder);
-                    reminder.markAsSent();
-                    reminderRepository.save(reminder);
-                    log.info("Successfully sent reminder {} for booking {}", 
-                            reminder.getId(), reminder.getBooking().getId());
-                } catch (Exception e) {
-                    log.error("Failed to send reminder {} for booking {}", 
-                            reminder.getId(), reminder.getBooking().getId(), e);
-                    reminder.markAsFailed(e.getMessage());
-                    reminderRepository.save(reminder);
-                }
-            }
+            log.info("Processed {} due reminders", processed);
         } catch (Exception e) {
             log.error("Error processing due reminders", e);
         }
     }
 
     /**
-     * Retry failed reminders
+     * Send reminders handed over by the timing wheel
+     * Every node's wheel fires the same ids; only rows this node manages to claim are sent, so
+     * reminders that were cancelled, already sent, or claimed by another node are skipped.
+     * A burst is claimed one lane batch at a time, each under a fresh lease, so a slow channel
+     * never holds claims longer than one batch takes to send.
      */
-    @Transactional
-    public void retryFailedReminders() {
-        try {
-            List<RideReminder> failedReminders = reminderRepository.findRetryableReminders(ReminderStatus.FAILED);
-            
-            log.info("Found {} failed reminders to retry", failedReminders.size());
-            
-            for (RideReminder reminder : failedReminders) {
-                try {
-                    sendReminderEmail(reminder);
-                    reminder.markAsSent();
-                    reminderRepository.save(reminder);
-                    log.info("Successfully retried reminder {} for booking {}", 
-                            reminder.getId(), reminder.getBooking().getId());
-                } catch (Exception e) {
-                    log.error("Failed to retry reminder {} for booking {}", 
-                            reminder.getId(), reminder.getBooking().getId(), e);
-                    reminder.markAsFailed(e.getMessage());
-                    reminderRepository.save(reminder);
-                }
-            }
-        } catch (Exception e) {
-            log.error("Error retrying failed reminders", e);
-        }
+    @EventListener
+    public void onRemindersDue(RemindersDueEvent event) {
+        List<Long> released = event.getReminderIds();
+        int claimed = reminderDispatcher.drain((channel, limit) -> reminderClaims.claim(released, channel, limit));
+        
+        log.info("Timing wheel released {} reminders, {} claimed", released.size(), claimed);
     }
 
     /**
-     * Send reminder email using the existing EmailService
+     * Retry failed reminders whose backoff has elapsed, page by page
+     * Rows still backing off are not touched, so an SMTP outage is not hit with the whole backlog
      */
-    private void sendReminderEmail(RideReminder reminder) {
-        Booking booking = reminder.getBooking();
-        Ride ride = booking.getRide();
-        User passenger = booking.getPassenger();
-        User driver = ride.getDriver();
-
-        String subject = getReminderSubject(reminder.getReminderType());
-        Map<String, Object> templateModel = createReminderEmailModel(reminder, passenger, booking, ride, driver);
-        
+    public void retryFailedReminders() {
         try {
-            // Use the new template-based email method
-            emailService.sendRideReminderEmail(reminder.getRecipientEmail(), subject, templateModel);
+            int retried = reminderDispatcher.drain(reminderClaims::claimRetryable);
+            
+            if (retried > 0) {
+                log.info("Retried {} failed reminders", retried);
+            }
         } catch (Exception e) {
-            log.error("Failed to send reminder email", e);
-            throw e;
+            log.error("Error retrying failed reminders", e);
         }
     }
 
-    /**
-     * Get appropriate subject line for reminder type
-     */
-    private String getReminderSubject(ReminderType type) {
-        return switch (type) {
-            case THIRTY_MINUTES_BEFORE -> "Ride Reminder: Your ride starts in 30 minutes - SmartRide";
-            case ONE_HOUR_BEFORE -> "Ride Reminder: Your ride starts in 1 hour - SmartRide";
-            case TWENTY_FOUR_HOURS_BEFORE -> "Ride Reminder: Your ride is tomorrow - SmartRide";
-            case ONE_HOUR_BEFORE_FINAL -> "Final Reminder: Your ride starts in 1 hour - SmartRide";
-        };
-    }
-
-    /**
-     * Create email template model for reminder
-     */
-    private Map<String, Object> createReminderEmailModel(RideReminder reminder, User passenger, 
-                                                        Booking booking, Ride ride, User driver) {
-        Map<String, Object> model = new HashMap<>();
-        
-        // Passenger details
-        model.put("passengerName", passenger.getFirstName() + " " + passenger.getLastName());
-        
-        // Ride details
-        model.put("source", ride.getSource());
-        model.put("destination", ride.getDestination());
-        model.put("departureDate", ride.getDepartureDate().toLocalDate().toString());
-        model.put("departureTime", ride.getDepartureDate().toLocalTime().toString());
-        model.put("seatsBooked", booking.getSeatsBooked());
-        
-        // Driver details
-        model.put("driverName", driver.getFirstName() + " " + driver.getLastName());
-        model.put("driverPhone", driver.getPhoneNumber());
-        model.put("vehicleInfo", ride.getVehicleNumber() + " (" + ride.getVehicleType() + ")");
-        
-        // Reminder specific
-        model.put("reminderType", reminder.getReminderType().toString());
-        model.put("message", reminder.getMessage());
-        
-        return model;
-    }
-
-    /**
-     * Format reminder email content as simple text
-     */
-    private String formatReminderEmailContent(Map<String, Object> model) {
-        StringBuilder content = new StringBuilder();
-        content.append("Dear ").append(model.get("passengerName")).append(",\n\n");
-        content.append(model.get("message")).append("\n\n");
-        content.append("Ride Details:\n");
-        content.append("From: ").append(model.get("source")).append("\n");
-        content.append("To: ").append(model.get("destination")).append("\n");
-        content.append("Date: ").append(model.get("departureDate")).append("\n");
-        content.append("Time: ").append(model.get("departureTime")).append("\n");
-        content.append("Seats: ").append(model.get("seatsBooked")).append("\n\n");
-        content.append("Driver Details:\n");
-        content.append("Name: ").append(model.get("driverName")).append("\n");
-        content.append("Phone: ").append(model.get("driverPhone")).append("\n");
-        content.append("Vehicle: ").append(model.get("vehicleInfo")).append("\n\n");
-        content.append("Thank you for using SmartRide!\n");
-        content.append("Safe travels!");
-        
-        return content.toString();
-    }
-
     /**
      * Cancel all reminders for a booking (e.g., when booking is cancelled)
      */
     @Transactional
     public void cancelRemindersForBooking(Long bookingId) {
         try {
-            List<RideReminder> reminders = reminderRepository.findByBookingId(bookingId);
-            for (RideReminder reminder : reminders) {
-                if (reminder.getStatus() == ReminderStatus.SCHEDULED) {
-                    reminder.markAsCancelled();
-                }
+            List<Long> cancelledIds = reminderRepository.findScheduledIdsByBookingId(bookingId);
+            if (!cancelledIds.isEmpty()) {
+                int cancelled = reminderRepository.cancelScheduledByBookingId(bookingId, LocalDateTime.now());
+                statusCounters.movedAfterCommit(ReminderStatus.SCHEDULED, ReminderStatus.CANCELLED, cancelled);
+                reminderWheel.cancelAfterCommit(cancelledIds);
             }
-            reminderRepository.saveAll(reminders);
-            log.info("Cancelled {} reminders for booking {}", reminders.size(), bookingId);
+            log.info("Cancelled {} reminders for booking {}", cancelledIds.size(), bookingId);
         } catch (Exception e) {
             log.error("Error cancelling reminders for booking {}", bookingId, e);
         }
@@ -315,13 +235,16 @@ public class RideReminderService {
 
     /**
      * Get reminder statistics
+     * Served from the in-memory status counters; no query once they are loaded
      */
     public Map<String, Long> getReminderStatistics() {
+        Map<ReminderStatus, Long> counts = statusCounters.snapshot();
         Map<String, Long> stats = new HashMap<>();
-        stats.put("scheduled", reminderRepository.countByStatus(ReminderStatus.SCHEDULED));
-        stats.put("sent", reminderRepository.countByStatus(ReminderStatus.SENT));
-        stats.put("failed", reminderRepository.countByStatus(ReminderStatus.FAILED));
-        stats.put("cancelled", reminderRepository.countByStatus(ReminderStatus.CANCELLED));
+        stats.put("scheduled", counts.get(ReminderStatus.SCHEDULED));
+        stats.put("sent", counts.get(ReminderStatus.SENT));
+        stats.put("failed", counts.get(ReminderStatus.FAILED));
+        stats.put("deadLetter", counts.get(ReminderStatus.DEAD_LETTER));
+        stats.put("cancelled", counts.get(ReminderStatus.CANCELLED));
         return stats;
     }
 
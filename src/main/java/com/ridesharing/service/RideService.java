@@ -40,6 +40,7 @@ public class RideService {
     private final DriverDetailRepository driverDetailRepository;
     private final UserService userService;
     private final FreeDistanceCalculatorService freeDistanceCalculatorService;
+    private final SurgePricingService surgePricingService;
     private final PaymentService paymentService;
 
     public RideResponseDto postRide(String phoneNumber, RidePostDto ridePostDto) {
@@ -124,6 +125,10 @@ public class RideService {
             pageable
         );
 
+        // Demand/supply signal for surge pricing: one search plus the free seats it surfaced
+        long freeSeats = rides.getContent().stream().mapToLong(Ride::getAvailableSeats).sum();
+        surgePricingService.recordSearch(searchDto.getSource(), searchDto.getDestination(), freeSeats);
+
         return rides.map(this::convertToResponseDto);
     }
 
@@ -0,0 +1,204 @@
+package com.ridesharing.service;
+
+import com.ridesharing.dto.StatusUpdateEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * In-process broadcaster for booking/payment status updates over Server-Sent Events
+ *
+ * Services publish {@link StatusUpdateEvent}s as Spring application events; they are delivered only
+ * after the publishing transaction commits, so clients never see a state that was rolled back.
+ * Each connection has a small bounded buffer drained on a virtual thread: a slow client loses its
+ * oldest undelivered updates instead of blocking the publisher. A periodic heartbeat keeps proxies
+ * from closing idle streams and removes connections whose client has gone away.
+ */
+@Service
+@Slf4j
+public class StatusEventBroadcaster {
+
+    private final Map<Long, List<Connection>> connectionsByUser = new ConcurrentHashMap<>();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger openConnections = new AtomicInteger();
+    private final Counter droppedEvents;
+
+    @Value("${app.events.buffer-size:16}")
+    private int bufferSize;
+
+    @Value("${app.events.max-connections-per-user:5}")
+    private int maxConnectionsPerUser;
+
+    @Value("${app.events.emitter-timeout-ms:1800000}")
+    private long emitterTimeoutMs;
+
+    public StatusEventBroadcaster(MeterRegistry meterRegistry) {
+        Gauge.builder("events.connections", openConnections, AtomicInteger::get)
+                .description("Open status event streams")
+                .register(meterRegistry);
+        this.droppedEvents = Counter.builder("events.dropped")
+                .description("Status events dropped because a client buffer was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Open an event stream for a user
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = new SseEmitter(emitterTimeoutMs);
+        Connection connection = new Connection(userId, emitter);
+
+        List<Connection> connections = connectionsByUser.computeIfAbsent(userId, id -> new CopyOnWriteArrayList<>());
+        connections.add(connection);
+        openConnections.incrementAndGet();
+        // Several tabs are fine, but an unbounded number is a leak
+        while (connections.size() > maxConnectionsPerUser) {
+            connections.get(0).close();
+        }
+
+        emitter.onCompletion(connection::close);
+        emitter.onTimeout(connection::close);
+        emitter.onError(error -> connection.close());
+
+        connection.enqueue(SseEmitter.event().name("connected").data("ok"));
+        log.debug("Status event stream opened for user {}", userId);
+        return emitter;
+    }
+
+    /**
+     * Deliver a status update to every open stream of its recipients, after the transaction commits
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onStatusUpdate(StatusUpdateEvent event) {
+        Set<Long> recipients = event.getRecipientUserIds();
+        if (recipients == null) {
+            return;
+        }
+        for (Long userId : recipients) {
+            List<Connection> connections = connectionsByUser.get(userId);
+            if (connections == null) {
+                continue;
+            }
+            for (Connection connection : connections) {
+                connection.enqueue(SseEmitter.event()
+                        .name(event.getType())
+                        .data(event, MediaType.APPLICATION_JSON));
+            }
+        }
+    }
+
+    /**
+     * Heartbeat every 20 seconds; failed sends close the connection
+     */
+    @Scheduled(fixedRateString = "${app.events.heartbeat-ms:20000}")
+    public void sendHeartbeats() {
+        for (List<Connection> connections : connectionsByUser.values()) {
+            for (Connection connection : connections) {
+                connection.enqueue(SseEmitter.event().comment("heartbeat"));
+            }
+        }
+    }
+
+    public int getOpenConnections() {
+        return openConnections.get();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (List<Connection> connections : new ArrayList<>(connectionsByUser.values())) {
+            connections.forEach(Connection::close);
+        }
+        senders.shutdownNow();
+    }
+
+    /**
+     * One client stream with its bounded send buffer
+     */
+    private final class Connection {
+
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<SseEmitter.SseEventBuilder> buffer;
+        private final AtomicBoolean draining = new AtomicBoolean(false);
+        private final AtomicBoolean closed = new AtomicBoolean(false);
+
+        Connection(Long userId, SseEmitter emitter) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.buffer = new ArrayBlockingQueue<>(bufferSize);
+        }
+
+        void enqueue(SseEmitter.SseEventBuilder event) {
+            if (closed.get()) {
+                return;
+            }
+            while (!buffer.offer(event)) {
+                if (buffer.poll() != null) {
+                    droppedEvents.increment();
+                }
+            }
+            scheduleDrain();
+        }
+
+        private void scheduleDrain() {
+            if (closed.get() || buffer.isEmpty() || !draining.compareAndSet(false, true)) {
+                return;
+            }
+            senders.execute(() -> {
+                try {
+                    SseEmitter.SseEventBuilder next;
+                    while (!closed.get() && (next = buffer.poll()) != null) {
+                        emitter.send(next);
+                    }
+                } catch (Exception e) {
+                    // Client went away (broken pipe) or the emitter already completed
+                    close();
+                } finally {
+                    draining.set(false);
+                }
+                // Events enqueued while this drain was finishing
+                scheduleDrain();
+            });
+        }
+
+        void close() {
+            if (!closed.compareAndSet(false, true)) {
+                return;
+            }
+            buffer.clear();
+            connectionsByUser.computeIfPresent(userId, (id, connections) -> {
+                connections.remove(this);
+                return connections.isEmpty() ? null : connections;
+            });
+            openConnections.decrementAndGet();
+            try {
+                emitter.complete();
+            } catch (Exception ignored) {
+                // Already completed or failed
+            }
+            log.debug("Status event stream closed for user {}", userId);
+        }
+    }
+}
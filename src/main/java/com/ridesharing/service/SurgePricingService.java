@@ -0,0 +1,198 @@
+package com.ridesharing.service;
+
+import com.ridesharing.geo.PlaceNames;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Surge Pricing Service - Fare multiplier from live supply and demand per corridor
+ *
+ * Every normalized source -> destination corridor keeps a ring of time buckets with LongAdder
+ * counters for searches, seats booked and free seats seen in search results. Recording never
+ * locks, so the search and booking paths pay only a few adder increments.
+ *
+ * Over the sliding window:
+ *   demand = seats booked + search-weight * searches
+ *   supply = average free seats shown per search (at least 1)
+ *   multiplier = 1 + sensitivity * (demand / supply - threshold), clamped to [1, max-multiplier]
+ * Corridors with fewer than min-searches searches in the window are never surged.
+ */
+@Service
+@Slf4j
+public class SurgePricingService {
+
+    @Value("${app.surge.enabled:true}")
+    private boolean enabled;
+
+    @Value("${app.surge.bucket-seconds:60}")
+    private int bucketSeconds;
+
+    @Value("${app.surge.window-buckets:30}")
+    private int windowBuckets;
+
+    @Value("${app.surge.search-weight:0.2}")
+    private double searchWeight;
+
+    @Value("${app.surge.threshold:1.0}")
+    private double threshold;
+
+    @Value("${app.surge.sensitivity:0.5}")
+    private double sensitivity;
+
+    @Value("${app.surge.max-multiplier:2.0}")
+    private double maxMultiplier;
+
+    @Value("${app.surge.min-searches:10}")
+    private long minSearches;
+
+    private final Map<String, CorridorWindow> corridors = new ConcurrentHashMap<>();
+
+    public SurgePricingService(MeterRegistry meterRegistry) {
+        Gauge.builder("surge.corridors", corridors, Map::size)
+                .description("Corridors with live surge counters")
+                .register(meterRegistry);
+    }
+
+    /**
+     * A ride search on a corridor and the free seats it found
+     */
+    public void recordSearch(String source, String destination, long freeSeatsFound) {
+        CorridorWindow window = window(source, destination);
+        if (window != null) {
+            int slot = window.slot(currentBucket());
+            window.searches[slot].increment();
+            window.freeSeats[slot].add(freeSeatsFound);
+        }
+    }
+
+    /**
+     * Seats booked on a corridor
+     */
+    public void recordBooking(String source, String destination, int seats) {
+        CorridorWindow window = window(source, destination);
+        if (window != null) {
+            window.bookedSeats[window.slot(currentBucket())].add(seats);
+        }
+    }
+
+    /**
+     * Current fare multiplier for a corridor (1.0 when there is no surge)
+     */
+    public double getMultiplier(String source, String destination) {
+        if (!enabled) {
+            return 1.0;
+        }
+        CorridorWindow window = corridors.get(corridorKey(source, destination));
+        if (window == null) {
+            return 1.0;
+        }
+
+        long bucket = currentBucket();
+        long searches = window.sum(window.searches, bucket);
+        if (searches < minSearches) {
+            return 1.0;
+        }
+        double demand = window.sum(window.bookedSeats, bucket) + searchWeight * searches;
+        double supply = Math.max(1.0, (double) window.sum(window.freeSeats, bucket) / searches);
+
+        double multiplier = 1.0 + sensitivity * (demand / supply - threshold);
+        return Math.min(maxMultiplier, Math.max(1.0, multiplier));
+    }
+
+    /**
+     * Drop corridors with no activity inside the window
+     */
+    @Scheduled(fixedDelayString = "${app.surge.cleanup-interval-ms:300000}")
+    public void evictIdleCorridors() {
+        long oldestLive = currentBucket() - windowBuckets + 1;
+        int before = corridors.size();
+        corridors.values().removeIf(window -> window.latestBucket() < oldestLive);
+        int evicted = before - corridors.size();
+        if (evicted > 0) {
+            log.debug("Evicted {} idle surge corridors", evicted);
+        }
+    }
+
+    private CorridorWindow window(String source, String destination) {
+        if (!enabled) {
+            return null;
+        }
+        String key = corridorKey(source, destination);
+        return key == null ? null : corridors.computeIfAbsent(key, k -> new CorridorWindow(windowBuckets));
+    }
+
+    private static String corridorKey(String source, String destination) {
+        String from = PlaceNames.normalize(source);
+        String to = PlaceNames.normalize(destination);
+        return from.isEmpty() || to.isEmpty() ? null : from + '>' + to;
+    }
+
+    private long currentBucket() {
+        return System.currentTimeMillis() / (bucketSeconds * 1000L);
+    }
+
+    /**
+     * Ring of time buckets; slot i holds bucket bucketIds[i]. A slot is recycled the first time
+     * it is touched in a new bucket. Increments racing with that reset may be lost, which is
+     * acceptable for a pricing signal.
+     */
+    private static final class CorridorWindow {
+        final LongAdder[] searches;
+        final LongAdder[] bookedSeats;
+        final LongAdder[] freeSeats;
+        final AtomicLongArray bucketIds;
+
+        CorridorWindow(int buckets) {
+            searches = adders(buckets);
+            bookedSeats = adders(buckets);
+            freeSeats = adders(buckets);
+            bucketIds = new AtomicLongArray(buckets);
+        }
+
+        int slot(long bucket) {
+            int slot = (int) (bucket % bucketIds.length());
+            long current = bucketIds.get(slot);
+            if (current != bucket && bucketIds.compareAndSet(slot, current, bucket)) {
+                searches[slot].reset();
+                bookedSeats[slot].reset();
+                freeSeats[slot].reset();
+            }
+            return slot;
+        }
+
+        long sum(LongAdder[] counters, long bucket) {
+            long total = 0;
+            for (int slot = 0; slot < counters.length; slot++) {
+                if (bucket - bucketIds.get(slot) < counters.length) {
+                    total += counters[slot].sum();
+                }
+            }
+            return total;
+        }
+
+        long latestBucket() {
+            long latest = 0;
+            for (int slot = 0; slot < bucketIds.length(); slot++) {
+                latest = Math.max(latest, bucketIds.get(slot));
+            }
+            return latest;
+        }
+
+        private static LongAdder[] adders(int count) {
+            LongAdder[] adders = new LongAdder[count];
+            for (int i = 0; i < count; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+    }
+}
@@ -5,25 +5,29 @@ import com.twilio.type.PhoneNumber;
 import org.springframework.stereotype.Service;
 
 import com.ridesharing.config.TwilioConfig;
+import com.ridesharing.outbound.OutboundCallGuard;
+import com.ridesharing.outbound.OutboundProvider;
 
 @Service
 public class TwilioService {
 
     private final TwilioConfig twilioConfig;
+    private final OutboundCallGuard outboundCallGuard;
 
-    public TwilioService(TwilioConfig twilioConfig) {
+    public TwilioService(TwilioConfig twilioConfig, OutboundCallGuard outboundCallGuard) {
         this.twilioConfig = twilioConfig;
+        this.outboundCallGuard = outboundCallGuard;
     }
 
     public void sendOtp(String phoneNumber, String otp) {
         try {
             String messageBody = String.format("Your RideSharing verification code is: %s. This code will expire in 5 minutes.", otp);
             
-            Message message = Message.creator(
+            Message message = outboundCallGuard.call(OutboundProvider.TWILIO, () -> Message.creator(
                     new PhoneNumber(phoneNumber),
                     new PhoneNumber(twilioConfig.getFromNumber()),
                     messageBody
-            ).create();
+            ).create());
 
             System.out.println("OTP sent successfully. Message SID: " + message.getSid());
         } catch (Exception e) {
@@ -34,11 +38,11 @@ public class TwilioService {
 
     public void sendSms(String phoneNumber, String message) {
         try {
-            Message.creator(
+            outboundCallGuard.call(OutboundProvider.TWILIO, () -> Message.creator(
                     new PhoneNumber(phoneNumber),
                     new PhoneNumber(twilioConfig.getFromNumber()),
                     message
-            ).create();
+            ).create());
 
             System.out.println("SMS sent successfully to: " + phoneNumber);
         } catch (Exception e) {
@@ -26,10 +26,13 @@ public class UserService implements UserDetailsService {
     
     private final UserRepository userRepository;
     private final PasswordEncoder passwordEncoder;
+    private final NotificationRouter notificationRouter;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder) {
+    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder,
+                       NotificationRouter notificationRouter) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
+        this.notificationRouter = notificationRouter;
     }
 
     @Override
@@ -66,7 +69,7 @@ public class UserService implements UserDetailsService {
 
     public UserProfileDto getUserProfile(String phoneNumber) {
         User user = getUserByPhoneNumber(phoneNumber);
-        return new UserProfileDto(user.getFirstName(), user.getLastName(), user.getEmail(), user.getProfilePicture());
+        return toProfileDto(user);
     }
 
     public UserProfileDto updateUserProfile(String phoneNumber, UserProfileDto profileDto) {
@@ -84,10 +87,23 @@ public class UserService implements UserDetailsService {
         if (profileDto.getProfilePicture() != null) {
             user.setProfilePicture(profileDto.getProfilePicture());
         }
+        if (profileDto.getReminderChannels() != null) {
+            notificationRouter.setPreferredChannels(user, profileDto.getReminderChannels());
+        }
+        if (profileDto.getPushToken() != null) {
+            user.setPushToken(profileDto.getPushToken().isBlank() ? null : profileDto.getPushToken());
+        }
 
         User updatedUser = userRepository.save(user);
-        return new UserProfileDto(updatedUser.getFirstName(), updatedUser.getLastName(), 
-                                 updatedUser.getEmail(), updatedUser.getProfilePicture());
+        return toProfileDto(updatedUser);
+    }
+
+    private UserProfileDto toProfileDto(User user) {
+        UserProfileDto profileDto = new UserProfileDto(user.getFirstName(), user.getLastName(),
+                user.getEmail(), user.getProfilePicture());
+        profileDto.setReminderChannels(notificationRouter.preferredChannels(user));
+        profileDto.setPushToken(user.getPushToken());
+        return profileDto;
     }
 
     public void deleteUser(Long userId) {
@@ -0,0 +1,243 @@
+package com.ridesharing.service;
+
+import com.ridesharing.dto.WalletSummaryDto;
+import com.ridesharing.entity.DriverWallet;
+import com.ridesharing.entity.Payment;
+import com.ridesharing.entity.WalletLedgerEntry;
+import com.ridesharing.entity.WalletLedgerEntry.Account;
+import com.ridesharing.entity.WalletLedgerEntry.Direction;
+import com.ridesharing.entity.WalletLedgerEntry.EntryType;
+import com.ridesharing.exception.PaymentException;
+import com.ridesharing.repository.DriverWalletRepository;
+import com.ridesharing.repository.PaymentRepository;
+import com.ridesharing.repository.UserRepository;
+import com.ridesharing.repository.WalletLedgerRepository;
+import com.ridesharing.util.Money;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Wallet Service - Double-entry ledger for driver earnings, commission, payouts and refunds
+ *
+ * Every posting appends a balanced DEBIT/CREDIT pair to wallet_ledger_entries and adjusts the
+ * cached balance on driver_wallets with a single conditional UPDATE. Balance updates therefore
+ * serialize only on the affected wallet row, so settlements for different drivers run in parallel
+ * without any application-level lock. Postings are idempotent per reference key.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class WalletService {
+
+    private final DriverWalletRepository walletRepository;
+    private final WalletLedgerRepository ledgerRepository;
+    private final PaymentRepository paymentRepository;
+    private final UserRepository userRepository;
+    private final PlatformTransactionManager transactionManager;
+
+    /**
+     * Credit the driver share of a settled payment and book the platform commission
+     */
+    @Transactional
+    public void recordSettlement(Payment payment, Long driverId) {
+        String referenceKey = "settlement:" + payment.getId();
+        if (ledgerRepository.existsByReferenceKeyAndEntryType(referenceKey, EntryType.RIDE_EARNING)) {
+            log.warn("Settlement for payment {} already posted to wallet ledger", payment.getId());
+            return;
+        }
+
+        Long walletId = getOrCreateWalletId(driverId);
+        Money driverShare = moneyOrZero(payment.getDriverSettlementAmount());
+        Money commission = moneyOrZero(payment.getPlatformCommission());
+
+        postPair(EntryType.RIDE_EARNING, referenceKey, payment.getId(),
+                Account.GATEWAY_CLEARING, null, Account.DRIVER_WALLET, walletId,
+                driverShare, "Ride earning for booking " + payment.getBooking().getId());
+        if (!commission.isZero()) {
+            postPair(EntryType.COMMISSION, referenceKey, payment.getId(),
+                    Account.GATEWAY_CLEARING, null, Account.PLATFORM_REVENUE, null,
+                    commission, "Platform commission for booking " + payment.getBooking().getId());
+        }
+
+        walletRepository.creditEarnings(walletId, driverShare.toBigDecimal());
+        log.info("Wallet {} credited ₹{} for payment {}", walletId, driverShare, payment.getId());
+    }
+
+    /**
+     * Debit a payout from the wallet; returns false (and posts nothing) if the balance cannot cover it
+     */
+    @Transactional
+    public boolean recordPayout(Long walletId, Money amount, String referenceKey, String description) {
+        if (ledgerRepository.existsByReferenceKeyAndEntryType(referenceKey, EntryType.PAYOUT)) {
+            log.warn("Payout {} already posted to wallet ledger", referenceKey);
+            return true;
+        }
+
+        if (walletRepository.debitPayout(walletId, amount.toBigDecimal()) == 0) {
+            log.warn("Wallet {} cannot cover payout of ₹{}", walletId, amount);
+            return false;
+        }
+
+        postPair(EntryType.PAYOUT, referenceKey, null,
+                Account.DRIVER_WALLET, walletId, Account.PAYOUT_CLEARING, null,
+                amount, description);
+        return true;
+    }
+
+    /**
+     * Credit back a payout debit whose transfer was abandoned (no-op if it was never debited)
+     */
+    @Transactional
+    public void recordPayoutReversal(Long walletId, Money amount, String payoutReferenceKey, String description) {
+        String referenceKey = payoutReferenceKey + ":reversal";
+        if (!ledgerRepository.existsByReferenceKeyAndEntryType(payoutReferenceKey, EntryType.PAYOUT)
+                || ledgerRepository.existsByReferenceKeyAndEntryType(referenceKey, EntryType.PAYOUT)) {
+            return;
+        }
+
+        postPair(EntryType.PAYOUT, referenceKey, null,
+                Account.PAYOUT_CLEARING, null, Account.DRIVER_WALLET, walletId,
+                amount, description);
+        walletRepository.reversePayout(walletId, amount.toBigDecimal());
+        log.info("Wallet {} credited back ₹{} for abandoned payout {}", walletId, amount, payoutReferenceKey);
+    }
+
+    /**
+     * Reverse a settled payment that is being refunded (no-op if it was never settled to the wallet)
+     */
+    @Transactional
+    public void recordRefundReversal(Payment payment, Long driverId) {
+        String settlementKey = "settlement:" + payment.getId();
+        String referenceKey = "refund:" + payment.getId();
+        if (!ledgerRepository.existsByReferenceKeyAndEntryType(settlementKey, EntryType.RIDE_EARNING)
+                || ledgerRepository.existsByReferenceKeyAndEntryType(referenceKey, EntryType.REFUND)) {
+            return;
+        }
+
+        Long walletId = getOrCreateWalletId(driverId);
+        Money driverShare = moneyOrZero(payment.getDriverSettlementAmount());
+        Money commission = moneyOrZero(payment.getPlatformCommission());
+
+        postPair(EntryType.REFUND, referenceKey, payment.getId(),
+                Account.DRIVER_WALLET, walletId, Account.GATEWAY_CLEARING, null,
+                driverShare,
+                "Refund reversal for booking " + payment.getBooking().getId());
+        if (!commission.isZero()) {
+            postPair(EntryType.REFUND, referenceKey + ":commission", payment.getId(),
+                    Account.PLATFORM_REVENUE, null, Account.GATEWAY_CLEARING, null,
+                    commission, "Commission reversal for booking " + payment.getBooking().getId());
+        }
+
+        walletRepository.reverseEarnings(walletId, driverShare.toBigDecimal());
+        log.info("Wallet {} debited ₹{} for refunded payment {}", walletId, driverShare, payment.getId());
+    }
+
+    /**
+     * Get cached wallet balances for a driver
+     */
+    @Transactional(readOnly = true)
+    public Optional<WalletSummaryDto> getWalletSummary(Long driverId) {
+        return walletRepository.findByDriverId(driverId).map(wallet -> WalletSummaryDto.builder()
+                .walletId(wallet.getId())
+                .driverId(driverId)
+                .balance(wallet.getBalance())
+                .totalEarned(wallet.getTotalEarned())
+                .totalPaidOut(wallet.getTotalPaidOut())
+                .updatedAt(wallet.getUpdatedAt())
+                .build());
+    }
+
+    /**
+     * Get ledger lines for a driver's wallet, newest first
+     */
+    @Transactional(readOnly = true)
+    public Page<WalletLedgerEntry> getLedger(Long driverId, Pageable pageable) {
+        DriverWallet wallet = walletRepository.findByDriverId(driverId)
+                .orElseThrow(() -> new PaymentException("Wallet not found for driver: " + driverId));
+        return ledgerRepository.findByWalletIdOrderByCreatedAtDescIdDesc(wallet.getId(), pageable);
+    }
+
+    /**
+     * Find or create the driver's wallet and return its id
+     *
+     * Runs in its own transaction so that a wallet created here (or concurrently by another
+     * request) is committed and visible before the caller posts to it. Earnings settled before
+     * the wallet existed are carried over as an OPENING_BALANCE posting.
+     */
+    public Long getOrCreateWalletId(Long driverId) {
+        TransactionTemplate tx = new TransactionTemplate(transactionManager);
+        tx.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        try {
+            return tx.execute(status -> walletRepository.findByDriverId(driverId)
+                    .map(DriverWallet::getId)
+                    .orElseGet(() -> createWallet(driverId)));
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Wallet for driver {} was created concurrently", driverId);
+            return tx.execute(status -> walletRepository.findByDriverId(driverId)
+                    .map(DriverWallet::getId)
+                    .orElseThrow(() -> new PaymentException("Wallet not found for driver: " + driverId)));
+        }
+    }
+
+    private Long createWallet(Long driverId) {
+        DriverWallet wallet = new DriverWallet();
+        wallet.setDriver(userRepository.getReferenceById(driverId));
+        wallet = walletRepository.saveAndFlush(wallet);
+
+        Double settledBefore = paymentRepository.getTotalEarningsByDriverId(driverId);
+        Money opening = settledBefore != null ? Money.of(BigDecimal.valueOf(settledBefore)) : Money.ZERO;
+        if (!opening.isZero()) {
+            postPair(EntryType.OPENING_BALANCE, "opening:" + wallet.getId(), null,
+                    Account.GATEWAY_CLEARING, null, Account.DRIVER_WALLET, wallet.getId(),
+                    opening, "Earnings settled before wallet creation");
+            walletRepository.creditEarnings(wallet.getId(), opening.toBigDecimal());
+        }
+
+        log.info("Created wallet {} for driver {} with opening balance ₹{}", wallet.getId(), driverId, opening);
+        return wallet.getId();
+    }
+
+    private void postPair(EntryType type, String referenceKey, Long paymentId,
+                          Account debitAccount, Long debitWalletId,
+                          Account creditAccount, Long creditWalletId,
+                          Money amount, String description) {
+        String transactionId = UUID.randomUUID().toString();
+        ledgerRepository.saveAll(List.of(
+                entry(transactionId, type, referenceKey, paymentId, debitAccount, Direction.DEBIT, debitWalletId, amount, description),
+                entry(transactionId, type, referenceKey, paymentId, creditAccount, Direction.CREDIT, creditWalletId, amount, description)
+        ));
+    }
+
+    private WalletLedgerEntry entry(String transactionId, EntryType type, String referenceKey, Long paymentId,
+                                    Account account, Direction direction, Long walletId,
+                                    Money amount, String description) {
+        WalletLedgerEntry entry = new WalletLedgerEntry();
+        entry.setTransactionId(transactionId);
+        entry.setEntryType(type);
+        entry.setReferenceKey(referenceKey);
+        entry.setPaymentId(paymentId);
+        entry.setAccount(account);
+        entry.setDirection(direction);
+        entry.setWalletId(walletId);
+        entry.setAmount(amount.toBigDecimal());
+        entry.setDescription(description);
+        return entry;
+    }
+
+    private Money moneyOrZero(BigDecimal amount) {
+        return amount != null ? Money.of(amount) : Money.ZERO;
+    }
+}
@@ -0,0 +1,153 @@
+package com.ridesharing.util;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Objects;
+
+/**
+ * Compact money value stored as a whole number of paise (1/100 rupee)
+ *
+ * Used for fare, booking and settlement arithmetic instead of chained BigDecimal operations.
+ * Entities and DTOs keep BigDecimal columns/fields; convert with {@link #of(BigDecimal)} and
+ * {@link #toBigDecimal()} at the JPA/JSON boundary.
+ *
+ * Not allocation-free: every non-zero result is a new 16-byte object (far less than the
+ * BigDecimal/BigInteger pairs it replaces, and often scalar-replaced by the JIT). Code that must
+ * not allocate at all should work on {@link #toPaise()} longs.
+ *
+ * Rounding rule: every operation that can produce a fraction of a paisa rounds HALF_UP
+ * (half away from zero), matching the previous setScale(2, RoundingMode.HALF_UP) behaviour.
+ * All arithmetic is overflow-checked.
+ */
+public final class Money implements Comparable<Money> {
+
+    public static final Money ZERO = new Money(0L);
+
+    private static final long PAISE_PER_RUPEE = 100L;
+    private static final long BASIS_POINTS_PER_UNIT = 10_000L;
+
+    private final long paise;
+
+    private Money(long paise) {
+        this.paise = paise;
+    }
+
+    public static Money ofPaise(long paise) {
+        return paise == 0L ? ZERO : new Money(paise);
+    }
+
+    public static Money ofRupees(long rupees) {
+        return ofPaise(Math.multiplyExact(rupees, PAISE_PER_RUPEE));
+    }
+
+    /**
+     * Convert a rupee amount, rounding HALF_UP to whole paise
+     */
+    public static Money of(BigDecimal rupees) {
+        Objects.requireNonNull(rupees, "amount");
+        return ofPaise(rupees.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact());
+    }
+
+    /**
+     * Convert a percentage (e.g. 10.0 for 10%) to basis points
+     *
+     * Exact only: a rate finer than 0.01% (e.g. 12.345) throws ArithmeticException rather than
+     * being silently rounded to a different commission rate.
+     */
+    public static long basisPoints(BigDecimal percentage) {
+        Objects.requireNonNull(percentage, "percentage");
+        return percentage.movePointRight(2).setScale(0, RoundingMode.UNNECESSARY).longValueExact();
+    }
+
+    public long toPaise() {
+        return paise;
+    }
+
+    @JsonValue
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(paise, 2);
+    }
+
+    public Money plus(Money other) {
+        return ofPaise(Math.addExact(paise, other.paise));
+    }
+
+    public Money minus(Money other) {
+        return ofPaise(Math.subtractExact(paise, other.paise));
+    }
+
+    public Money times(long quantity) {
+        return ofPaise(Math.multiplyExact(paise, quantity));
+    }
+
+    /**
+     * Multiply by a fractional factor (e.g. a distance in km), rounding HALF_UP to whole paise
+     */
+    public Money times(double factor) {
+        double product = paise * factor;
+        if (Double.isNaN(product) || Math.abs(product) >= Long.MAX_VALUE) {
+            throw new ArithmeticException("Money overflow: " + this + " * " + factor);
+        }
+        return ofPaise(roundHalfUp(product));
+    }
+
+    /**
+     * Percentage of this amount expressed in basis points (1000 = 10%), rounding HALF_UP
+     */
+    public Money percentage(long basisPoints) {
+        long product = Math.multiplyExact(paise, basisPoints);
+        long quotient = product / BASIS_POINTS_PER_UNIT;
+        long remainder = product % BASIS_POINTS_PER_UNIT;
+        if (Math.abs(remainder) * 2 >= BASIS_POINTS_PER_UNIT) {
+            quotient += Long.signum(product);
+        }
+        return ofPaise(quotient);
+    }
+
+    public Money clamp(Money min, Money max) {
+        if (paise < min.paise) {
+            return min;
+        }
+        if (paise > max.paise) {
+            return max;
+        }
+        return this;
+    }
+
+    public boolean isNegative() {
+        return paise < 0;
+    }
+
+    public boolean isZero() {
+        return paise == 0;
+    }
+
+    @Override
+    public int compareTo(Money other) {
+        return Long.compare(paise, other.paise);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof Money)) return false;
+        return paise == ((Money) o).paise;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(paise);
+    }
+
+    @Override
+    public String toString() {
+        long abs = Math.abs(paise);
+        return (paise < 0 ? "-" : "") + (abs / PAISE_PER_RUPEE) + "." + (abs % PAISE_PER_RUPEE < 10 ? "0" : "") + (abs % PAISE_PER_RUPEE);
+    }
+
+    private static long roundHalfUp(double value) {
+        return (long) (value >= 0 ? Math.floor(value + 0.5) : Math.ceil(value - 0.5));
+    }
+}
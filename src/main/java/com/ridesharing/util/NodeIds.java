@@ -0,0 +1,31 @@
+package com.ridesharing.util;
+
+import java.net.InetAddress;
+import java.util.UUID;
+
+/**
+ * Worker node ids for queue leases (lease_owner columns, at most 64 characters)
+ */
+public final class NodeIds {
+
+    private NodeIds() {
+    }
+
+    /**
+     * The configured id, or hostname plus a random suffix when none is set
+     */
+    public static String resolve(String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "node";
+        }
+        // Suffix keeps two instances on one host (or a restarted instance) distinct
+        String id = host + "-" + UUID.randomUUID().toString().substring(0, 8);
+        return id.length() > 64 ? id.substring(id.length() - 64) : id;
+    }
+}
@@ -0,0 +1,125 @@
+package com.ridesharing.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Hashed timing wheel for long ids (e.g. reminder ids) keyed by a due time in epoch millis
+ *
+ * Time is cut into ticks of tickMillis; an entry due at time t goes into slot
+ * ceil(t / tickMillis) mod slotCount and expires on the first {@link #advance} whose tick has
+ * reached it, so it fires no earlier than t and at most one tick later. Entries further away than
+ * one revolution share slots and are simply skipped until their tick comes round.
+ * schedule, cancel and contains are O(1). All methods are synchronized.
+ */
+public final class TimingWheel {
+
+    private final long tickMillis;
+    private final Entry[] slots;
+    private final Map<Long, Entry> entries = new HashMap<>();
+    private long currentTick;
+
+    public TimingWheel(long tickMillis, int slotCount, long nowMillis) {
+        if (tickMillis <= 0 || slotCount <= 0) {
+            throw new IllegalArgumentException("tickMillis and slotCount must be positive");
+        }
+        this.tickMillis = tickMillis;
+        this.slots = new Entry[slotCount];
+        this.currentTick = Math.floorDiv(nowMillis, tickMillis);
+    }
+
+    /**
+     * Add an id; returns false if it is already scheduled. Overdue ids fire on the next tick.
+     */
+    public synchronized boolean schedule(long id, long dueAtMillis) {
+        if (entries.containsKey(id)) {
+            return false;
+        }
+        long tick = Math.max(Math.floorDiv(dueAtMillis + tickMillis - 1, tickMillis), currentTick + 1);
+        Entry entry = new Entry(id, tick);
+        int slot = slotOf(tick);
+        entry.next = slots[slot];
+        if (entry.next != null) {
+            entry.next.prev = entry;
+        }
+        slots[slot] = entry;
+        entries.put(id, entry);
+        return true;
+    }
+
+    public synchronized boolean cancel(long id) {
+        Entry entry = entries.remove(id);
+        if (entry == null) {
+            return false;
+        }
+        unlink(entry);
+        return true;
+    }
+
+    public synchronized boolean contains(long id) {
+        return entries.containsKey(id);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    /**
+     * Move the wheel up to nowMillis and return the ids that expired
+     */
+    public synchronized long[] advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis, tickMillis);
+        long[] expired = new long[8];
+        int count = 0;
+
+        // After a long pause one full revolution visits every slot
+        long firstTick = Math.max(currentTick + 1, targetTick - slots.length + 1);
+        for (long tick = firstTick; tick <= targetTick; tick++) {
+            Entry entry = slots[slotOf(tick)];
+            while (entry != null) {
+                Entry next = entry.next;
+                if (entry.tick <= targetTick) {
+                    unlink(entry);
+                    entries.remove(entry.id);
+                    if (count == expired.length) {
+                        expired = Arrays.copyOf(expired, count * 2);
+                    }
+                    expired[count++] = entry.id;
+                }
+                entry = next;
+            }
+        }
+        currentTick = Math.max(currentTick, targetTick);
+        return Arrays.copyOf(expired, count);
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.length);
+    }
+
+    private void unlink(Entry entry) {
+        if (entry.prev != null) {
+            entry.prev.next = entry.next;
+        } else {
+            slots[slotOf(entry.tick)] = entry.next;
+        }
+        if (entry.next != null) {
+            entry.next.prev = entry.prev;
+        }
+        entry.prev = null;
+        entry.next = null;
+    }
+
+    private static final class Entry {
+        final long id;
+        final long tick;
+        Entry prev;
+        Entry next;
+
+        Entry(long id, long tick) {
+            this.id = id;
+            this.tick = tick;
+        }
+    }
+}
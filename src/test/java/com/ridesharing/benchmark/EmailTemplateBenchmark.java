@@ -0,0 +1,139 @@
+package com.ridesharing.benchmark;
+
+import com.ridesharing.email.EmailTemplateRenderer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Renders a batch of 10k ride reminders through Thymeleaf and through the precompiled templates
+ *
+ * Run from the IDE or with:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ridesharing.benchmark.EmailTemplateBenchmark
+ * Setup fails if the two paths produce different HTML for any template that precompiles.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmailTemplateBenchmark {
+
+    private static final int REMINDERS = 10_000;
+    private static final String TEMPLATE = "ride-reminder";
+
+    private SpringTemplateEngine templateEngine;
+    private EmailTemplateRenderer renderer;
+    private Map<String, Object>[] models;
+
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setUp() {
+        // Same resolution as Boot's Thymeleaf auto-configuration
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        resolver.setTemplateMode(TemplateMode.HTML);
+        resolver.setCharacterEncoding("UTF-8");
+        resolver.setCacheable(true);
+        templateEngine = new SpringTemplateEngine();
+        templateEngine.setTemplateResolver(resolver);
+
+        renderer = new EmailTemplateRenderer(templateEngine);
+        renderer.precompileTemplates();
+        if (!renderer.isCompiled(TEMPLATE)) {
+            throw new IllegalStateException(TEMPLATE + " did not precompile");
+        }
+
+        models = new Map[REMINDERS];
+        for (int i = 0; i < REMINDERS; i++) {
+            models[i] = model(i);
+        }
+        for (String name : List.of("ride-reminder", "booking-confirmed", "booking-cancelled", "booking-status-update")) {
+            for (int i = 0; i < 50; i++) {
+                String expected = thymeleaf(name, models[i]);
+                if (!expected.equals(renderer.render(name, models[i]))) {
+                    throw new IllegalStateException("Precompiled " + name + " differs from Thymeleaf for model " + i);
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void thymeleaf(Blackhole bh) {
+        for (Map<String, Object> model : models) {
+            bh.consume(thymeleaf(TEMPLATE, model));
+        }
+    }
+
+    @Benchmark
+    public void precompiled(Blackhole bh) {
+        for (Map<String, Object> model : models) {
+            bh.consume(renderer.render(TEMPLATE, model));
+        }
+    }
+
+    private String thymeleaf(String name, Map<String, Object> model) {
+        Context context = new Context();
+        context.setVariables(model);
+        return templateEngine.process(name, context);
+    }
+
+    private static Map<String, Object> model(int i) {
+        Map<String, Object> model = new HashMap<>();
+        // Names with markup-significant characters exercise the escaping
+        model.put("passengerName", i % 7 == 0 ? "Rhea D'Souza & <Co>" : "Passenger " + i);
+        model.put("source", "Pune");
+        model.put("destination", i % 2 == 0 ? "Mumbai" : "Navi \"Mumbai\"");
+        model.put("departureDate", "2026-10-" + (10 + i % 20));
+        model.put("departureTime", (6 + i % 12) + ":30");
+        model.put("seatsBooked", 1 + i % 4);
+        model.put("driverName", "Driver " + (i % 300));
+        model.put("driverPhone", "+9198" + String.format("%08d", i));
+        model.put("vehicleInfo", "MH12AB" + (1000 + i % 9000) + " (Sedan)");
+        model.put("reminderType", "ONE_HOUR_BEFORE");
+        model.put("message", "Your ride from Pune to Mumbai is scheduled in 1 hour. Please be ready!");
+        model.put("currentYear", 2026);
+        model.put("supportEmail", "support@smartride.com");
+        model.put("bookingId", (long) i);
+        model.put("bookingDate", "01 Oct 2026, 10:15 AM");
+        model.put("totalAmount", "₹450.00");
+        model.put("rideId", (long) (i % 300));
+        model.put("pricePerSeat", "₹450.00");
+        model.put("status", "CONFIRMED");
+        model.put("statusMessage", "Your booking has been confirmed by the driver!");
+        model.put("statusColor", "#10B981");
+        return model;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(EmailTemplateBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
@@ -0,0 +1,127 @@
+package com.ridesharing.benchmark;
+
+import com.ridesharing.util.Money;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the BigDecimal fare/booking/settlement arithmetic with the paise-based Money type
+ *
+ * Run from the IDE or with:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ridesharing.benchmark.MoneyArithmeticBenchmark
+ * The GC profiler reports the allocation rate (gc.alloc.rate.norm = bytes per operation).
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class MoneyArithmeticBenchmark {
+
+    private static final int SAMPLES = 1024;
+
+    // Same defaults as FareConfig / app.platform.commission
+    private final BigDecimal base = new BigDecimal("50.00");
+    private final BigDecimal ratePerKm = new BigDecimal("10.00");
+    private final BigDecimal minFare = new BigDecimal("50.00");
+    private final BigDecimal maxFare = new BigDecimal("2000.00");
+    private final BigDecimal commissionPercentage = new BigDecimal("10.0");
+
+    private final Money baseMoney = Money.of(base);
+    private final Money ratePerKmMoney = Money.of(ratePerKm);
+    private final Money minFareMoney = Money.of(minFare);
+    private final Money maxFareMoney = Money.of(maxFare);
+    private final long commissionBasisPoints = Money.basisPoints(commissionPercentage);
+
+    private double[] distances;
+    private BigDecimal[] prices;
+    private Money[] priceMoney;
+    private int[] seats;
+    private int cursor;
+
+    @Setup
+    public void setUp() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        distances = new double[SAMPLES];
+        prices = new BigDecimal[SAMPLES];
+        priceMoney = new Money[SAMPLES];
+        seats = new int[SAMPLES];
+        for (int i = 0; i < SAMPLES; i++) {
+            distances[i] = 1 + random.nextDouble() * 250;
+            prices[i] = BigDecimal.valueOf(5000 + random.nextInt(200_000), 2);
+            priceMoney[i] = Money.of(prices[i]);
+            seats[i] = 1 + random.nextInt(4);
+        }
+    }
+
+    @Benchmark
+    public void fareBigDecimal(Blackhole bh) {
+        int i = next();
+        BigDecimal totalFare = base.add(ratePerKm.multiply(BigDecimal.valueOf(distances[i])))
+                .setScale(2, RoundingMode.HALF_UP);
+        if (totalFare.compareTo(minFare) < 0) {
+            totalFare = minFare;
+        }
+        if (totalFare.compareTo(maxFare) > 0) {
+            totalFare = maxFare;
+        }
+        bh.consume(totalFare);
+    }
+
+    @Benchmark
+    public void fareMoney(Blackhole bh) {
+        int i = next();
+        bh.consume(baseMoney.plus(ratePerKmMoney.times(distances[i])).clamp(minFareMoney, maxFareMoney).toPaise());
+    }
+
+    @Benchmark
+    public void bookingAndSettlementBigDecimal(Blackhole bh) {
+        int i = next();
+        BigDecimal total = prices[i].multiply(BigDecimal.valueOf(seats[i]));
+        BigDecimal commission = total.multiply(commissionPercentage).divide(BigDecimal.valueOf(100));
+        bh.consume(total.subtract(commission));
+        bh.consume(commission);
+    }
+
+    @Benchmark
+    public void bookingAndSettlementMoney(Blackhole bh) {
+        int i = next();
+        Money total = priceMoney[i].times(seats[i]);
+        Money commission = total.percentage(commissionBasisPoints);
+        bh.consume(total.minus(commission).toPaise());
+        bh.consume(commission.toPaise());
+    }
+
+    private int next() {
+        cursor = (cursor + 1) & (SAMPLES - 1);
+        return cursor;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(MoneyArithmeticBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build();
+        new Runner(options).run();
+    }
+}
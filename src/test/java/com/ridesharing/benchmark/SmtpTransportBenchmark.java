@@ -0,0 +1,122 @@
+package com.ridesharing.benchmark;
+
+import com.ridesharing.outbound.PooledJavaMailSender;
+import com.ridesharing.standin.FaultProfile;
+import com.ridesharing.standin.SmtpStandIn;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+import java.io.IOException;
+import java.util.Properties;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Messages per second through Boot's per-send JavaMailSenderImpl versus the pooled sender,
+ * offline against the local SMTP stand-in
+ *
+ * Run from the IDE or with:
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ridesharing.benchmark.SmtpTransportBenchmark
+ * The stand-in has no TLS or AUTH, so real servers widen the gap: each new connection there
+ * also pays a STARTTLS handshake and an AUTH round trip.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(8)
+@Fork(1)
+public class SmtpTransportBenchmark {
+
+    private static final int BATCH = 20;
+
+    private SmtpStandIn smtp;
+    private JavaMailSenderImpl perSendSender;
+    private PooledJavaMailSender pooledSender;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        smtp = new SmtpStandIn(0, FaultProfile.HEALTHY).start();
+
+        perSendSender = new JavaMailSenderImpl();
+        configure(perSendSender);
+
+        pooledSender = new PooledJavaMailSender(8, 1000, 60_000, 10_000, new SimpleMeterRegistry());
+        configure(pooledSender);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        System.out.printf("%nStand-in: %d messages over %d connections%n",
+                smtp.getMessagesAccepted(), smtp.getConnectionsOpened());
+        pooledSender.destroy();
+        smtp.close();
+    }
+
+    @Benchmark
+    public void connectionPerMessage() throws MessagingException {
+        perSendSender.send(message(perSendSender));
+    }
+
+    @Benchmark
+    public void pooledSession() throws MessagingException {
+        pooledSender.send(message(pooledSender));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void pooledSessionBatch() throws MessagingException {
+        MimeMessage[] batch = new MimeMessage[BATCH];
+        for (int i = 0; i < BATCH; i++) {
+            batch[i] = message(pooledSender);
+        }
+        pooledSender.send(batch);
+    }
+
+    private void configure(JavaMailSenderImpl sender) {
+        sender.setHost("localhost");
+        sender.setPort(smtp.getPort());
+        Properties properties = new Properties();
+        properties.setProperty("mail.smtp.auth", "false");
+        properties.setProperty("mail.smtp.starttls.enable", "false");
+        sender.setJavaMailProperties(properties);
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl sender) throws MessagingException {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom("SmartRide <noreply@smartride.local>");
+        helper.setTo("passenger@example.com");
+        helper.setSubject("Ride Reminder: Your ride starts in 1 hour - SmartRide");
+        helper.setText("<p>Your ride from Pune to Mumbai is scheduled in 1 hour. Please be ready!</p>", true);
+        return message;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        Options options = new OptionsBuilder()
+                .include(SmtpTransportBenchmark.class.getSimpleName())
+                .build();
+        new Runner(options).run();
+    }
+}
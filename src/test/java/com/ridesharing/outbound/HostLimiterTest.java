@@ -0,0 +1,65 @@
+package com.ridesharing.outbound;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Per-host limiter: queued requests whose caller gave up are never sent and do not stall the queue
+ */
+class HostLimiterTest {
+
+    @Test
+    void cancellingAQueuedRequestLetsTheRestOfTheQueueRun() {
+        OutboundHttpClient.HostLimiter limiter = new OutboundHttpClient.HostLimiter("example.org", 1, 10);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        AtomicInteger started = new AtomicInteger();
+        Supplier<CompletableFuture<String>> task = () -> {
+            started.incrementAndGet();
+            CompletableFuture<String> call = new CompletableFuture<>();
+            calls.add(call);
+            return call;
+        };
+
+        CompletableFuture<String> inFlight = limiter.submit(task);
+        CompletableFuture<String> abandoned = limiter.submit(task);
+        CompletableFuture<String> second = limiter.submit(task);
+        CompletableFuture<String> third = limiter.submit(task);
+        assertEquals(1, started.get());
+
+        abandoned.cancel(false);
+        calls.get(0).complete("first");
+
+        assertEquals("first", inFlight.join());
+        // The abandoned request was skipped; the next queued one went out instead
+        assertEquals(2, started.get());
+        calls.get(1).complete("second");
+        assertEquals("second", second.join());
+        calls.get(2).complete("third");
+        assertEquals("third", third.join());
+        assertEquals(3, started.get());
+    }
+
+    @Test
+    void fullQueueRejectsNewRequests() {
+        OutboundHttpClient.HostLimiter limiter = new OutboundHttpClient.HostLimiter("example.org", 1, 1);
+        limiter.submit(CompletableFuture::new);
+        limiter.submit(CompletableFuture::new);
+
+        CompletableFuture<Object> rejected = limiter.submit(CompletableFuture::new);
+
+        assertTrue(rejected.isCompletedExceptionally());
+        Throwable error = assertThrows(Exception.class, rejected::join);
+        assertInstanceOf(RejectedExecutionException.class, error.getCause());
+    }
+}
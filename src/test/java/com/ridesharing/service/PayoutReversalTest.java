@@ -0,0 +1,199 @@
+package com.ridesharing.service;
+
+import com.ridesharing.dto.PayoutCycleSummary;
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.BookingStatus;
+import com.ridesharing.entity.DriverPayout;
+import com.ridesharing.entity.DriverWallet;
+import com.ridesharing.entity.Payment;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+import com.ridesharing.entity.WalletLedgerEntry;
+import com.ridesharing.gateway.PayoutGateway;
+import com.ridesharing.repository.DriverPayoutRepository;
+import com.ridesharing.repository.DriverWalletRepository;
+import com.ridesharing.repository.PaymentRepository;
+import com.ridesharing.repository.WalletLedgerRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+/**
+ * Payout engine against H2: a payout the gateway rejects on every attempt gives the wallet debit
+ * back and releases its payments, which are then paid out by a later cycle
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:payouts;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.payout.max-attempts=2"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({PayoutService.class, WalletService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PayoutReversalTest {
+
+    private static final BigDecimal SETTLED = new BigDecimal("810.00");
+
+    @Autowired
+    private PayoutService payoutService;
+
+    @Autowired
+    private DriverPayoutRepository payoutRepository;
+
+    @Autowired
+    private DriverWalletRepository walletRepository;
+
+    @Autowired
+    private WalletLedgerRepository ledgerRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private PayoutGateway payoutGateway;
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String entity : List.of("WalletLedgerEntry", "DriverPayout", "DriverWallet", "Payment", "Booking", "Ride", "User")) {
+                entityManager.getEntityManager().createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void payoutRejectedOnEveryAttemptIsReversedAndItsPaymentsRejoinTheNextPayout() {
+        Long driverId = new TransactionTemplate(transactionManager).execute(status -> seed(2));
+        when(payoutGateway.transfer(any())).thenReturn(
+                PayoutGateway.PayoutResult.builder().success(false).failureReason("Beneficiary account closed").build());
+
+        Long payoutId = payoutService.preparePayout(driverId, "202610180900");
+        assertEquals(DriverPayout.PayoutStatus.FAILED, payoutService.executePayout(payoutId));
+        // Not exhausted yet: still retried, nothing to reverse
+        assertFalse(payoutService.reversePayout(payoutId));
+        assertEquals(DriverPayout.PayoutStatus.FAILED, payoutService.executePayout(payoutId));
+
+        DriverWallet debited = walletRepository.findByDriverId(driverId).orElseThrow();
+        assertEquals(0, BigDecimal.ZERO.compareTo(debited.getBalance()));
+        assertEquals(0, SETTLED.compareTo(debited.getTotalPaidOut()));
+
+        assertTrue(payoutService.reversePayout(payoutId));
+        // A second call (another node, a restarted cycle) posts nothing more
+        assertFalse(payoutService.reversePayout(payoutId));
+
+        DriverPayout reversed = payoutRepository.findById(payoutId).orElseThrow();
+        assertEquals(DriverPayout.PayoutStatus.REVERSED, reversed.getStatus());
+        assertEquals(0, reversed.getPaymentCount());
+        DriverWallet credited = walletRepository.findByDriverId(driverId).orElseThrow();
+        assertEquals(0, SETTLED.compareTo(credited.getBalance()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(credited.getTotalPaidOut()));
+        for (Payment payment : paymentRepository.findAll()) {
+            assertNull(payment.getPayoutId());
+        }
+        List<WalletLedgerEntry> reversal = ledgerRepository.findAll().stream()
+                .filter(entry -> entry.getReferenceKey().equals("payout:" + payoutId + ":reversal"))
+                .toList();
+        assertEquals(2, reversal.size());
+
+        // The released payments are paid out by the next cycle under a new payout
+        when(payoutGateway.transfer(any())).thenReturn(
+                PayoutGateway.PayoutResult.builder().success(true).reference("UTR42").build());
+        PayoutCycleSummary summary = payoutService.runPayoutCycle();
+
+        assertEquals(1, summary.getPayoutsCreated());
+        assertEquals(1, summary.getPayoutsCompleted());
+        DriverPayout next = payoutRepository.findByDriverIdOrderByCreatedAtDesc(driverId).stream()
+                .filter(payout -> payout.getStatus() == DriverPayout.PayoutStatus.COMPLETED)
+                .findFirst().orElseThrow();
+        assertEquals(2, next.getPaymentCount());
+        assertEquals(0, SETTLED.compareTo(next.getAmount()));
+        assertEquals(0, BigDecimal.ZERO.compareTo(walletRepository.findByDriverId(driverId).orElseThrow().getBalance()));
+    }
+
+    @Test
+    void exhaustedPayoutsAreReversedAtTheStartOfACycle() {
+        Long driverId = new TransactionTemplate(transactionManager).execute(status -> seed(1));
+        when(payoutGateway.transfer(any())).thenReturn(
+                PayoutGateway.PayoutResult.builder().success(false).failureReason("Beneficiary account closed").build());
+        Long payoutId = payoutService.preparePayout(driverId, "202610180900");
+        payoutService.executePayout(payoutId);
+        payoutService.executePayout(payoutId);
+
+        PayoutCycleSummary summary = payoutService.runPayoutCycle();
+
+        assertEquals(1, summary.getPayoutsReversed());
+        assertEquals(DriverPayout.PayoutStatus.REVERSED, payoutRepository.findById(payoutId).orElseThrow().getStatus());
+        // Its payment went straight into this cycle's new payout, which the gateway rejected again
+        assertEquals(1, summary.getPayoutsCreated());
+        assertEquals(1, summary.getPayoutsFailed());
+    }
+
+    private Long seed(int payments) {
+        User driver = new User("Driver", "One", "9000000001", "driver@example.com", "x", UserRole.DRIVER);
+        entityManager.persist(driver);
+
+        Ride ride = new Ride();
+        ride.setDriver(driver);
+        ride.setSource("Pune");
+        ride.setDestination("Mumbai");
+        ride.setDepartureDate(LocalDateTime.now().minusDays(1));
+        ride.setAvailableSeats(4);
+        ride.setTotalSeats(4);
+        ride.setPricePerSeat(new BigDecimal("450.00"));
+        ride.setVehicleNumber("MH12AB1234");
+        ride.setVehicleType("Sedan");
+        entityManager.persist(ride);
+
+        for (int i = 0; i < payments; i++) {
+            User passenger = new User("Passenger", "No" + i, "80000" + String.format("%05d", i), "passenger" + i + "@example.com", "x", UserRole.USER);
+            entityManager.persist(passenger);
+
+            Booking booking = new Booking();
+            booking.setRide(ride);
+            booking.setPassenger(passenger);
+            booking.setSeatsBooked(1);
+            booking.setTotalAmount(new BigDecimal("450.00"));
+            booking.setPassengerName("Passenger " + i);
+            booking.setPassengerPhone(passenger.getPhoneNumber());
+            booking.setStatus(BookingStatus.COMPLETED);
+            entityManager.persist(booking);
+
+            Payment payment = new Payment();
+            payment.setBooking(booking);
+            payment.setRazorpayOrderId("order_" + i);
+            payment.setAmount(new BigDecimal("450.00"));
+            payment.setPaymentStatus(Payment.PaymentStatus.COMPLETED);
+            payment.calculateSettlement(new BigDecimal("10.0"));
+            payment.setSettlementStatus(Payment.SettlementStatus.COMPLETED);
+            entityManager.persist(payment);
+        }
+        return driver.getId();
+    }
+}
@@ -0,0 +1,180 @@
+package com.ridesharing.service;
+
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.BookingStatus;
+import com.ridesharing.entity.ReminderStatus;
+import com.ridesharing.entity.ReminderType;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideReminder;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+import com.ridesharing.repository.RideReminderArchiveRepository;
+import com.ridesharing.repository.RideReminderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Reminder cleanup against H2: only finished reminders past retention are moved, in chunks
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reminder-cleanup;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "app.reminders.cleanup.retention-days=30",
+        "app.reminders.cleanup.chunk-size=3",
+        "app.reminders.cleanup.pause-ms=0"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({ReminderCleanupService.class, ReminderStatusCounters.class, ReminderCleanupTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReminderCleanupTest {
+
+    @Autowired
+    private ReminderCleanupService reminderCleanup;
+
+    @Autowired
+    private RideReminderRepository reminderRepository;
+
+    @Autowired
+    private RideReminderArchiveRepository archiveRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @BeforeEach
+    void seed() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            Booking booking = booking();
+            LocalDateTime old = LocalDateTime.now().minusDays(45);
+            LocalDateTime recent = LocalDateTime.now().minusDays(2);
+            // Eight finished and past retention
+            for (int i = 0; i < 4; i++) {
+                reminder(booking, ReminderStatus.SENT, 1, old);
+            }
+            reminder(booking, ReminderStatus.CANCELLED, 0, old);
+            reminder(booking, ReminderStatus.CANCELLED, 0, old);
+            reminder(booking, ReminderStatus.DEAD_LETTER, 3, old);
+            reminder(booking, ReminderStatus.FAILED, 3, old);
+            // Kept: still retryable, still scheduled, or within retention
+            reminder(booking, ReminderStatus.FAILED, 1, old);
+            reminder(booking, ReminderStatus.SCHEDULED, 0, old);
+            reminder(booking, ReminderStatus.SENT, 0, recent);
+        });
+    }
+
+    @AfterEach
+    void cleanUp() {
+        ReflectionTestUtils.setField(reminderCleanup, "mode", "archive");
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String entity : List.of("RideReminderArchive", "RideReminder", "Booking", "Ride", "User")) {
+                entityManager.getEntityManager().createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void finishedRemindersPastRetentionAreArchivedInChunks() {
+        ReminderCleanupService.CleanupReport report = reminderCleanup.cleanUpFinishedReminders();
+
+        assertEquals(8, report.getRows());
+        assertEquals(3, report.getChunks());
+        assertTrue(report.isComplete());
+        assertEquals(8, archiveRepository.count());
+        assertEquals(3, reminderRepository.count());
+        assertTrue(archiveRepository.findAll().stream().allMatch(archived -> archived.getArchivedAt() != null));
+
+        // Nothing left to do on the next run
+        assertEquals(0, reminderCleanup.cleanUpFinishedReminders().getRows());
+    }
+
+    @Test
+    void deleteModeSkipsTheArchive() {
+        ReflectionTestUtils.setField(reminderCleanup, "mode", "delete");
+
+        ReminderCleanupService.CleanupReport report = reminderCleanup.cleanUpFinishedReminders();
+
+        assertEquals(8, report.getRows());
+        assertEquals(0, archiveRepository.count());
+        assertEquals(3, reminderRepository.count());
+    }
+
+    private Booking booking() {
+        User driver = new User("Driver", "One", "9000000001", "driver@example.com", "x", UserRole.DRIVER);
+        entityManager.persist(driver);
+        User passenger = new User("Passenger", "One", "8000000001", "passenger@example.com", "x", UserRole.USER);
+        entityManager.persist(passenger);
+
+        Ride ride = new Ride();
+        ride.setDriver(driver);
+        ride.setSource("Pune");
+        ride.setDestination("Mumbai");
+        ride.setDepartureDate(LocalDateTime.now().minusDays(60));
+        ride.setAvailableSeats(4);
+        ride.setTotalSeats(4);
+        ride.setPricePerSeat(new BigDecimal("450.00"));
+        ride.setVehicleNumber("MH12AB1234");
+        ride.setVehicleType("Sedan");
+        entityManager.persist(ride);
+
+        Booking booking = new Booking();
+        booking.setRide(ride);
+        booking.setPassenger(passenger);
+        booking.setSeatsBooked(1);
+        booking.setTotalAmount(new BigDecimal("450.00"));
+        booking.setPassengerName("Passenger One");
+        booking.setPassengerPhone(passenger.getPhoneNumber());
+        booking.setStatus(BookingStatus.CONFIRMED);
+        entityManager.persist(booking);
+        return booking;
+    }
+
+    private void reminder(Booking booking, ReminderStatus status, int retryCount, LocalDateTime lastTouched) {
+        RideReminder reminder = new RideReminder();
+        reminder.setBooking(booking);
+        reminder.setReminderType(ReminderType.ONE_HOUR_BEFORE);
+        reminder.setScheduledTime(lastTouched);
+        reminder.setStatus(status);
+        reminder.setRetryCount(retryCount);
+        reminder.setRecipientEmail("passenger@example.com");
+        entityManager.persist(reminder);
+        entityManager.flush();
+        // Audit timestamps are set on persist; backdate them directly
+        entityManager.getEntityManager()
+                .createQuery("UPDATE RideReminder r SET r.createdAt = :at, r.updatedAt = :at WHERE r.id = :id")
+                .setParameter("at", lastTouched)
+                .setParameter("id", reminder.getId())
+                .executeUpdate();
+    }
+}
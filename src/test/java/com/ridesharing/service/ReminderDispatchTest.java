@@ -0,0 +1,286 @@
+package com.ridesharing.service;
+
+import com.ridesharing.config.NotificationConfig;
+import com.ridesharing.dto.RemindersDueEvent;
+import com.ridesharing.entity.Booking;
+import com.ridesharing.entity.BookingStatus;
+import com.ridesharing.entity.NotificationChannel;
+import com.ridesharing.entity.ReminderStatus;
+import com.ridesharing.entity.ReminderType;
+import com.ridesharing.entity.Ride;
+import com.ridesharing.entity.RideReminder;
+import com.ridesharing.entity.User;
+import com.ridesharing.entity.UserRole;
+import com.ridesharing.gateway.LocalPushGateway;
+import com.ridesharing.gateway.SmsGateway;
+import com.ridesharing.repository.RideReminderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Reminder dispatch against H2: pins the number of SQL statements needed to send a burst of
+ * reminders, so an N+1 (lazy booking/ride/driver/passenger loads, per-row saves) shows up as a
+ * test failure, checks retry backoff and dead-lettering, and that channels do not hold each other up
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:reminders;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "app.reminders.scheduling.enabled=false",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN",
+        "app.notifications.email.batch-size=100"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({RideReminderService.class, ReminderClaimService.class, ReminderDispatchService.class,
+        ReminderWheelService.class, ReminderStatusCounters.class, NotificationRouter.class, NotificationConfig.class,
+        LocalPushGateway.class, ReminderDispatchTest.Metrics.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ReminderDispatchTest {
+
+    private static final int REMINDERS = 1000;
+    private static final int BATCH_SIZE = 100;
+
+    @Autowired
+    private RideReminderService reminderService;
+
+    @Autowired
+    private RideReminderRepository reminderRepository;
+
+    @Autowired
+    private ReminderStatusCounters statusCounters;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private EmailService emailService;
+
+    @MockitoBean
+    private SmsGateway smsGateway;
+
+    @TestConfiguration
+    static class Metrics {
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            for (String entity : List.of("RideReminder", "Booking", "Ride", "User")) {
+                entityManager.getEntityManager().createQuery("DELETE FROM " + entity).executeUpdate();
+            }
+        });
+    }
+
+    @Test
+    void processingDueRemindersUsesAConstantNumberOfStatementsPerBatch() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> seed(REMINDERS));
+        statusCounters.reconcile();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        reminderService.processDueReminders();
+
+        // Per batch: lock due rows, record the lease, fetch-joined load, bulk mark SENT.
+        // Plus, per channel, the final claim that comes back short and ends its drain.
+        long batches = REMINDERS / BATCH_SIZE;
+        long statements = batches * 4 + NotificationChannel.values().length;
+        assertEquals(statements, statistics.getPrepareStatementCount());
+
+        // Statistics come from the live counters, not from the table
+        Map<String, Long> stats = reminderService.getReminderStatistics();
+        assertEquals(REMINDERS, stats.get("sent"));
+        assertEquals(0L, stats.get("scheduled"));
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(REMINDERS, reminderRepository.countByStatus(ReminderStatus.SENT));
+        verify(emailService, times(REMINDERS)).sendRideReminderEmail(anyString(), anyString(), anyMap());
+    }
+
+    @Test
+    void failedSendsBackOffAndAreDeadLetteredWhenRetriesRunOut() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> seed(10));
+        statusCounters.reconcile();
+        doThrow(new RuntimeException("SMTP down")).when(emailService)
+                .sendRideReminderEmail(anyString(), anyString(), anyMap());
+
+        reminderService.processDueReminders();
+        LocalDateTime now = LocalDateTime.now();
+        for (RideReminder reminder : reminderRepository.findAll()) {
+            assertEquals(ReminderStatus.FAILED, reminder.getStatus());
+            assertEquals(1, reminder.getRetryCount());
+            // 60s base delay with up to 50% jitter taken off
+            assertTrue(reminder.getNextAttemptAt().isAfter(now.plusSeconds(25)));
+            assertTrue(reminder.getNextAttemptAt().isBefore(now.plusSeconds(65)));
+        }
+
+        // Still backing off: nothing is picked up
+        reminderService.retryFailedReminders();
+        verify(emailService, times(10)).sendRideReminderEmail(anyString(), anyString(), anyMap());
+
+        // Due again, on the last allowed attempt
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> entityManager.getEntityManager()
+                .createQuery("UPDATE RideReminder r SET r.nextAttemptAt = :due, r.retryCount = r.maxRetries - 1")
+                .setParameter("due", LocalDateTime.now().minusSeconds(1))
+                .executeUpdate());
+        reminderService.retryFailedReminders();
+
+        verify(emailService, times(20)).sendRideReminderEmail(anyString(), anyString(), anyMap());
+        for (RideReminder reminder : reminderRepository.findAll()) {
+            assertEquals(ReminderStatus.DEAD_LETTER, reminder.getStatus());
+            assertNull(reminder.getNextAttemptAt());
+        }
+        Map<String, Long> stats = reminderService.getReminderStatistics();
+        assertEquals(10L, stats.get("deadLetter"));
+        assertEquals(0L, stats.get("failed"));
+    }
+
+    @Test
+    void slowSmsProviderDoesNotHoldBackEmailReminders() throws Exception {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                seed(10, List.of(NotificationChannel.EMAIL, NotificationChannel.SMS)));
+        CountDownLatch smsProviderResponds = new CountDownLatch(1);
+        when(smsGateway.send(any())).thenAnswer(invocation -> {
+            smsProviderResponds.await();
+            return SmsGateway.SmsResult.builder().success(true).messageId("sms").build();
+        });
+
+        Thread worker = Thread.ofVirtual().start(reminderService::processDueReminders);
+        try {
+            // Email outcomes are committed while every SMS send is still stuck at the provider
+            long deadline = System.currentTimeMillis() + 10_000;
+            while (countSent(NotificationChannel.EMAIL) < 10 && System.currentTimeMillis() < deadline) {
+                Thread.sleep(20);
+            }
+            assertEquals(10, countSent(NotificationChannel.EMAIL));
+            assertEquals(0, countSent(NotificationChannel.SMS));
+        } finally {
+            smsProviderResponds.countDown();
+            worker.join(10_000);
+        }
+
+        assertEquals(10, countSent(NotificationChannel.SMS));
+        verify(smsGateway, times(10)).send(any());
+    }
+
+    @Test
+    void timingWheelBurstIsClaimedOneBatchAtATime() {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> seed(250));
+        List<Long> released = reminderRepository.findAll().stream().map(RideReminder::getId).toList();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+
+        reminderService.onRemindersDue(new RemindersDueEvent(released));
+
+        // Three email batches (100, 100, 50), each claimed under its own lease just before it is
+        // sent, plus one empty claim for each channel with nothing released
+        long statements = 3 * 4 + NotificationChannel.values().length - 1;
+        assertEquals(statements, statistics.getPrepareStatementCount());
+        assertEquals(250, reminderRepository.countByStatus(ReminderStatus.SENT));
+        verify(emailService, times(250)).sendRideReminderEmail(anyString(), anyString(), anyMap());
+
+        // Released again by another node's wheel: nothing left to claim
+        reminderService.onRemindersDue(new RemindersDueEvent(released));
+        verify(emailService, times(250)).sendRideReminderEmail(anyString(), anyString(), anyMap());
+    }
+
+    private long countSent(NotificationChannel channel) {
+        return reminderRepository.findAll().stream()
+                .filter(reminder -> reminder.getNotificationChannel() == channel)
+                .filter(reminder -> reminder.getStatus() == ReminderStatus.SENT)
+                .count();
+    }
+
+    private void seed(int count) {
+        seed(count, List.of(NotificationChannel.EMAIL));
+    }
+
+    private void seed(int count, List<NotificationChannel> channels) {
+        List<Ride> rides = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            User driver = new User("Driver", "No" + i, "90000" + String.format("%05d", i), "driver" + i + "@example.com", "x", UserRole.DRIVER);
+            entityManager.persist(driver);
+
+            Ride ride = new Ride();
+            ride.setDriver(driver);
+            ride.setSource("Pune");
+            ride.setDestination("Mumbai");
+            ride.setDepartureDate(LocalDateTime.now().plusHours(1));
+            ride.setAvailableSeats(4);
+            ride.setTotalSeats(4);
+            ride.setPricePerSeat(new BigDecimal("450.00"));
+            ride.setVehicleNumber("MH12AB" + i);
+            ride.setVehicleType("Sedan");
+            entityManager.persist(ride);
+            rides.add(ride);
+        }
+        for (int i = 0; i < count; i++) {
+            User passenger = new User("Passenger", "No" + i, "80000" + String.format("%05d", i), "passenger" + i + "@example.com", "x", UserRole.USER);
+            entityManager.persist(passenger);
+
+            Booking booking = new Booking();
+            booking.setRide(rides.get(i % rides.size()));
+            booking.setPassenger(passenger);
+            booking.setSeatsBooked(1);
+            booking.setTotalAmount(new BigDecimal("450.00"));
+            booking.setPassengerName("Passenger " + i);
+            booking.setPassengerPhone(passenger.getPhoneNumber());
+            booking.setStatus(BookingStatus.CONFIRMED);
+            entityManager.persist(booking);
+
+            for (NotificationChannel channel : channels) {
+                RideReminder reminder = new RideReminder();
+                reminder.setBooking(booking);
+                reminder.setReminderType(ReminderType.ONE_HOUR_BEFORE);
+                reminder.setScheduledTime(LocalDateTime.now().minusMinutes(1));
+                reminder.setNotificationChannel(channel);
+                reminder.setRecipientEmail(passenger.getEmail());
+                reminder.setMessage("Your ride from Pune to Mumbai is scheduled in 1 hour. Please be ready!");
+                entityManager.persist(reminder);
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.ridesharing.standin;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Degraded-mode behaviour shared by the stand-in servers
+ *
+ * Every request first sleeps latencyMs (plus up to jitterMs), then with probability hangRate
+ * never answers, and with probability failureRate answers with an error.
+ */
+public final class FaultProfile {
+
+    public static final FaultProfile HEALTHY = new FaultProfile(0, 0, 0.0, 0.0);
+
+    private final long latencyMs;
+    private final long jitterMs;
+    private final double failureRate;
+    private final double hangRate;
+
+    public FaultProfile(long latencyMs, long jitterMs, double failureRate, double hangRate) {
+        this.latencyMs = latencyMs;
+        this.jitterMs = jitterMs;
+        this.failureRate = failureRate;
+        this.hangRate = hangRate;
+    }
+
+    /**
+     * Parse --latency-ms=, --jitter-ms=, --failure-rate= and --hang-rate= arguments
+     */
+    public static FaultProfile fromArgs(String[] args) {
+        return new FaultProfile(
+                (long) option(args, "latency-ms", 0),
+                (long) option(args, "jitter-ms", 0),
+                option(args, "failure-rate", 0),
+                option(args, "hang-rate", 0));
+    }
+
+    static double option(String[] args, String name, double defaultValue) {
+        String prefix = "--" + name + "=";
+        for (String arg : args) {
+            if (arg.startsWith(prefix)) {
+                return Double.parseDouble(arg.substring(prefix.length()));
+            }
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Apply latency and decide the outcome of one request
+     */
+    public Outcome next() throws InterruptedException {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            Thread.sleep(delay);
+        }
+        if (hangRate > 0 && random.nextDouble() < hangRate) {
+            return Outcome.HANG;
+        }
+        if (failureRate > 0 && random.nextDouble() < failureRate) {
+            return Outcome.FAIL;
+        }
+        return Outcome.OK;
+    }
+
+    @Override
+    public String toString() {
+        return "latency=" + latencyMs + "ms(+" + jitterMs + "), failureRate=" + failureRate + ", hangRate=" + hangRate;
+    }
+
+    public enum Outcome {
+        OK,
+        FAIL,
+        HANG
+    }
+}
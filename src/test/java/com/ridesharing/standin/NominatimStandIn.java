@@ -0,0 +1,96 @@
+package com.ridesharing.standin;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.Executors;
+
+/**
+ * Local stand-in for the Nominatim /search endpoint
+ *
+ * Answers every query with a deterministic point inside India derived from the query text, or
+ * with an empty array for queries containing "nowhere". Point the app at it with
+ * app.geocoding.nominatim.url=http://localhost:PORT/search
+ */
+public final class NominatimStandIn implements AutoCloseable {
+
+    private final HttpServer server;
+    private final FaultProfile faults;
+
+    public NominatimStandIn(int port, FaultProfile faults) throws IOException {
+        this.faults = faults;
+        this.server = HttpServer.create(new InetSocketAddress("127.0.0.1", port), 0);
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/search", this::handle);
+    }
+
+    public NominatimStandIn start() {
+        server.start();
+        return this;
+    }
+
+    public int getPort() {
+        return server.getAddress().getPort();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (exchange) {
+            FaultProfile.Outcome outcome = faults.next();
+            if (outcome == FaultProfile.Outcome.HANG) {
+                Thread.sleep(Long.MAX_VALUE);
+            }
+            if (outcome == FaultProfile.Outcome.FAIL) {
+                respond(exchange, 503, "{\"error\":\"stand-in failure\"}");
+                return;
+            }
+
+            String query = query(exchange, "q");
+            if (query.toLowerCase(Locale.ROOT).contains("nowhere")) {
+                respond(exchange, 200, "[]");
+                return;
+            }
+            // Spread queries over roughly 8-32N, 68-96E
+            int hash = query.toLowerCase(Locale.ROOT).hashCode();
+            double lat = 8 + Math.floorMod(hash, 24_000) / 1000.0;
+            double lon = 68 + Math.floorMod(hash >>> 8, 28_000) / 1000.0;
+            respond(exchange, 200, String.format(Locale.ROOT,
+                    "[{\"lat\":\"%.6f\",\"lon\":\"%.6f\",\"display_name\":\"%s (stand-in)\"}]",
+                    lat, lon, query.replace("\"", "")));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static String query(HttpExchange exchange, String name) {
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw != null) {
+            for (String pair : raw.split("&")) {
+                int eq = pair.indexOf('=');
+                if (eq > 0 && pair.substring(0, eq).equals(name)) {
+                    return URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return "";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
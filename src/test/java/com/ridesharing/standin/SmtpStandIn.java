@@ -0,0 +1,115 @@
+package com.ridesharing.standin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Minimal local SMTP server that accepts and discards mail
+ *
+ * Speaks enough SMTP for JavaMail (EHLO/HELO, MAIL, RCPT, DATA, RSET, NOOP, QUIT; no AUTH or
+ * STARTTLS). The fault profile is applied per message at the end of DATA: a failure answers
+ * 451, a hang never answers. Point the app at it with spring.mail.host=localhost,
+ * spring.mail.port=PORT, spring.mail.properties.mail.smtp.auth=false and starttls disabled.
+ */
+public final class SmtpStandIn implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final FaultProfile faults;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicLong messagesAccepted = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+
+    public SmtpStandIn(int port, FaultProfile faults) throws IOException {
+        this.faults = faults;
+        this.serverSocket = new ServerSocket(port, 200, InetAddress.getLoopbackAddress());
+    }
+
+    public SmtpStandIn start() {
+        executor.submit(this::acceptLoop);
+        return this;
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getMessagesAccepted() {
+        return messagesAccepted.get();
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened.get();
+    }
+
+    private void acceptLoop() {
+        while (!serverSocket.isClosed()) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionsOpened.incrementAndGet();
+                executor.submit(() -> session(socket));
+            } catch (IOException e) {
+                return; // closed
+            }
+        }
+    }
+
+    private void session(Socket socket) {
+        try (socket;
+             BufferedReader in = new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.US_ASCII));
+             OutputStream out = socket.getOutputStream()) {
+            reply(out, "220 localhost SMTP stand-in");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-localhost\r\n250-8BITMIME\r\n250 SIZE 10485760");
+                    case "HELO", "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> {
+                        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+                        while ((line = in.readLine()) != null && !line.equals(".")) {
+                            // discard message body
+                        }
+                        FaultProfile.Outcome outcome = faults.next();
+                        if (outcome == FaultProfile.Outcome.HANG) {
+                            Thread.sleep(Long.MAX_VALUE);
+                        } else if (outcome == FaultProfile.Outcome.FAIL) {
+                            reply(out, "451 Stand-in failure, try again later");
+                        } else {
+                            messagesAccepted.incrementAndGet();
+                            reply(out, "250 OK queued");
+                        }
+                    }
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            // client went away
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void reply(OutputStream out, String text) throws IOException {
+        out.write((text + "\r\n").getBytes(StandardCharsets.US_ASCII));
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        serverSocket.close();
+        executor.shutdownNow();
+    }
+}
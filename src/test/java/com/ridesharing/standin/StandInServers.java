@@ -0,0 +1,45 @@
+package com.ridesharing.standin;
+
+import java.io.IOException;
+
+/**
+ * Starts local stand-ins for the external providers so degraded modes can be tried offline
+ *
+ *   mvn test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=com.ridesharing.standin.StandInServers \
+ *       -Dexec.args="--http-port=8089 --smtp-port=2525 --latency-ms=3000 --failure-rate=0.3"
+ *
+ * Then run the app with:
+ *   app.geocoding.nominatim.url=http://localhost:8089/search
+ *   spring.mail.host=localhost, spring.mail.port=2525, mail.smtp.auth/starttls disabled
+ *
+ * The Twilio and Razorpay SDKs do not let the API host be overridden, so their degraded modes
+ * are exercised with app.outbound.twilio|razorpay.inject-latency-ms / inject-failure-rate
+ * instead of a stand-in server.
+ */
+public final class StandInServers {
+
+    private StandInServers() {
+    }
+
+    public static void main(String[] args) throws IOException, InterruptedException {
+        FaultProfile faults = FaultProfile.fromArgs(args);
+        int httpPort = (int) FaultProfile.option(args, "http-port", 8089);
+        int smtpPort = (int) FaultProfile.option(args, "smtp-port", 2525);
+
+        NominatimStandIn nominatim = new NominatimStandIn(httpPort, faults).start();
+        SmtpStandIn smtp = new SmtpStandIn(smtpPort, faults).start();
+        System.out.println("Nominatim stand-in on http://localhost:" + nominatim.getPort() + "/search");
+        System.out.println("SMTP stand-in on localhost:" + smtp.getPort());
+        System.out.println("Faults: " + faults + " (Ctrl+C to stop)");
+
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+            nominatim.close();
+            try {
+                smtp.close();
+            } catch (IOException ignored) {
+                // shutting down
+            }
+        }));
+        Thread.currentThread().join();
+    }
+}
@@ -0,0 +1,119 @@
+package com.ridesharing.util;
+
+import com.ridesharing.entity.Payment;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * Money rounding (HALF_UP, half away from zero), overflow checks and exact settlement splits
+ */
+class MoneyTest {
+
+    @Test
+    void rupeeAmountsRoundHalfUpToWholePaise() {
+        assertEquals(101, Money.of(new BigDecimal("1.005")).toPaise());
+        assertEquals(100, Money.of(new BigDecimal("1.0049")).toPaise());
+        assertEquals(-101, Money.of(new BigDecimal("-1.005")).toPaise());
+        assertEquals(45000, Money.of(new BigDecimal("450")).toPaise());
+        assertEquals(new BigDecimal("450.00"), Money.of(new BigDecimal("450")).toBigDecimal());
+        assertEquals("-0.05", Money.ofPaise(-5).toString());
+    }
+
+    @Test
+    void percentagesConvertToBasisPointsExactlyOrNotAtAll() {
+        assertEquals(1000, Money.basisPoints(new BigDecimal("10.0")));
+        assertEquals(1235, Money.basisPoints(new BigDecimal("12.35")));
+        assertEquals(1234, Money.basisPoints(new BigDecimal("12.3400")));
+        assertEquals(1, Money.basisPoints(new BigDecimal("0.01")));
+
+        // Finer than a basis point would silently change the rate, so it is rejected
+        assertThrows(ArithmeticException.class, () -> Money.basisPoints(new BigDecimal("12.345")));
+        assertThrows(ArithmeticException.class, () -> Money.basisPoints(new BigDecimal("12.3449")));
+        assertThrows(ArithmeticException.class, () -> Money.basisPoints(new BigDecimal("0.005")));
+    }
+
+    @Test
+    void fractionalMultiplicationRoundsHalfAwayFromZero() {
+        assertEquals(2, Money.ofPaise(3).times(0.5).toPaise());
+        assertEquals(3, Money.ofPaise(5).times(0.5).toPaise());
+        assertEquals(-2, Money.ofPaise(-3).times(0.5).toPaise());
+        assertEquals(1, Money.ofPaise(4).times(0.25).toPaise());
+        // ₹10/km over 12.345 km
+        assertEquals(12345, Money.ofRupees(10).times(12.345).toPaise());
+    }
+
+    @Test
+    void percentageOfAnAmountRoundsHalfAwayFromZero() {
+        assertEquals(1, Money.ofPaise(5).percentage(1000).toPaise());
+        assertEquals(0, Money.ofPaise(4).percentage(1000).toPaise());
+        assertEquals(2, Money.ofPaise(15).percentage(1000).toPaise());
+        assertEquals(-1, Money.ofPaise(-5).percentage(1000).toPaise());
+        assertEquals(4500, Money.ofRupees(450).percentage(1000).toPaise());
+    }
+
+    @Test
+    void arithmeticOverflowThrowsInsteadOfWrapping() {
+        Money max = Money.ofPaise(Long.MAX_VALUE);
+        Money min = Money.ofPaise(Long.MIN_VALUE);
+
+        assertThrows(ArithmeticException.class, () -> max.plus(Money.ofPaise(1)));
+        assertThrows(ArithmeticException.class, () -> min.minus(Money.ofPaise(1)));
+        assertThrows(ArithmeticException.class, () -> max.times(2));
+        assertThrows(ArithmeticException.class, () -> max.times(2.0));
+        assertThrows(ArithmeticException.class, () -> Money.ofPaise(1).times(Double.NaN));
+        assertThrows(ArithmeticException.class, () -> max.percentage(1000));
+        assertThrows(ArithmeticException.class, () -> Money.ofRupees(Long.MAX_VALUE / 10));
+        assertThrows(ArithmeticException.class, () -> Money.of(new BigDecimal("1e30")));
+    }
+
+    @Test
+    void clampKeepsFaresWithinLimits() {
+        Money minFare = Money.ofRupees(50);
+        Money maxFare = Money.ofRupees(2000);
+
+        assertEquals(minFare, Money.ofRupees(20).clamp(minFare, maxFare));
+        assertEquals(maxFare, Money.ofRupees(2500).clamp(minFare, maxFare));
+        assertEquals(Money.ofRupees(120), Money.ofRupees(120).clamp(minFare, maxFare));
+    }
+
+    @Test
+    void commissionAndDriverShareAlwaysAddUpToTheTotal() {
+        String[] percentages = {"0", "7.5", "10.0", "12.35", "33.33", "100"};
+        for (String percentage : percentages) {
+            BigDecimal commissionPercentage = new BigDecimal(percentage);
+            for (long paise = 1; paise <= 100_000; paise += 7) {
+                BigDecimal amount = BigDecimal.valueOf(paise, 2);
+                Payment payment = new Payment();
+                payment.setAmount(amount);
+                payment.calculateSettlement(commissionPercentage);
+
+                assertEquals(amount, payment.getPlatformCommission().add(payment.getDriverSettlementAmount()),
+                        () -> "₹" + amount + " at " + percentage + "%");
+                assertEquals(2, payment.getDriverSettlementAmount().scale());
+            }
+        }
+    }
+
+    @Test
+    void settlementRemainderGoesToTheDriver() {
+        // ₹0.05 at 10% is half a paisa of commission: rounds up to 1, driver keeps the other 4
+        Payment payment = new Payment();
+        payment.setAmount(new BigDecimal("0.05"));
+        payment.calculateSettlement(new BigDecimal("10.0"));
+
+        assertEquals(new BigDecimal("0.01"), payment.getPlatformCommission());
+        assertEquals(new BigDecimal("0.04"), payment.getDriverSettlementAmount());
+
+        // Booking total from seats, then split
+        Money total = Money.of(new BigDecimal("333.33")).times(3);
+        Money commission = total.percentage(Money.basisPoints(new BigDecimal("12.35")));
+        assertEquals(99999, total.toPaise());
+        // 99999 * 1235 / 10000 = 12349.8765
+        assertEquals(12350, commission.toPaise());
+        assertEquals(total, commission.plus(total.minus(commission)));
+    }
+}